@@ -0,0 +1,6 @@
+-- Migration script for batch curriculum edits
+-- Modules, lessons and resources carry an optimistic lock version; batch updates only apply to the version the client saw
+
+ALTER TABLE program_module ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE program_lesson ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE program_resource ADD COLUMN version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Migration script for responsive program image renditions
+-- Each program image gets thumbnail/card/full progressive JPEG variants, generated in the background
+
+-- Ready-made srcset for listings, NULL until the variants exist
+ALTER TABLE program_image ADD COLUMN srcset VARCHAR(2048) NULL;
+
+CREATE TABLE program_image_variant
+(
+    program_image_id INT          NOT NULL,
+    rendition        VARCHAR(255) NOT NULL,
+    url              VARCHAR(255) NOT NULL,
+    width            INT          NOT NULL,
+    CONSTRAINT pk_program_image_variant PRIMARY KEY (program_image_id, rendition),
+    CONSTRAINT fk_program_image_variant_on_program_image FOREIGN KEY (program_image_id) REFERENCES program_image (id) ON DELETE CASCADE
+);
@@ -0,0 +1,11 @@
+-- Migration script to index the sort keys used by keyset (cursor) pagination
+-- Each listing seeks on (timestamp, id) instead of scanning OFFSET rows
+
+-- Public program listing: active programs, newest first
+CREATE INDEX idx_fitness_program_active_created_id ON fitness_program (is_active, created_at, id);
+
+-- Comments of a program, newest first
+CREATE INDEX idx_comment_program_posted_id ON comment (fitness_program_id, posted_at, id);
+
+-- Instructor enrollment listing, newest first
+CREATE INDEX idx_user_program_created_id ON user_program (created_at, id);
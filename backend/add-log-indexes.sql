@@ -0,0 +1,11 @@
+-- Migration script to index the audit log table
+-- Supports retention purges by timestamp and the admin audit log search
+
+-- Retention purge and unfiltered keyset pagination (newest first)
+CREATE INDEX idx_log_timestamp_id ON log (timestamp, id);
+
+-- Filter by user within a time range
+CREATE INDEX idx_log_user_timestamp ON log (user, timestamp);
+
+-- Filter by action prefix within a time range
+CREATE INDEX idx_log_action_timestamp ON log (action, timestamp);
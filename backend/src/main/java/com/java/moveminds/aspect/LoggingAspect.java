@@ -1,45 +1,144 @@
 package com.java.moveminds.aspect;
 
+import com.java.moveminds.config.InstrumentationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.lang.reflect.Method;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per-method latency for controllers and services into Micrometer timers
+ * (exposed as "method.latency" through the actuator metrics endpoint).
+ * Argument and result logging is opt-in per package, lazy and size-capped.
+ */
 @Slf4j
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class LoggingAspect {
 
-    // Log method entry for controllers
-    @Before("execution(* com.java.moveminds.controllers..*(..))")
-    public void logControllerEntry(JoinPoint joinPoint) {
-        String methodName = joinPoint.getSignature().toShortString();
-        Object[] args = joinPoint.getArgs();
-        log.info("➡ Entering controller: {} with arguments: {}", methodName, args);
-    }
+    private final MeterRegistry meterRegistry;
+    private final InstrumentationProperties properties;
 
-    // Log method exit for controllers
-    @AfterReturning(pointcut = "execution(* com.java.moveminds.controllers..*(..))", returning = "result")
-    public void logControllerExit(JoinPoint joinPoint, Object result) {
-        String methodName = joinPoint.getSignature().toShortString();
-        log.info("✅ Exiting controller: {} with result: {}", methodName, result);
+    // One timer per method, built on first call so the hot path is a single map lookup
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Boolean> argumentLogging = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.java.moveminds.controllers..*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(joinPoint, "controller");
     }
 
-    // Log execution time for services
     @Around("execution(* com.java.moveminds.services..*(..))")
-    public Object logServiceExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        String methodName = joinPoint.getSignature().toShortString();
-        log.debug("▶ Starting service: {}", methodName);
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(joinPoint, "service");
+    }
+
+    private Object timed(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        boolean logArguments = log.isDebugEnabled() && isArgumentLoggingEnabled(signature.getDeclaringType());
+        if (logArguments) {
+            log.debug("➡ Entering {}: {} with arguments: {}", layer, signature.toShortString(), new Rendered(joinPoint.getArgs()));
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            if (logArguments) {
+                log.debug("✅ Exiting {}: {} with result: {}", layer, signature.toShortString(), new Rendered(result));
+            }
+            return result;
+        } finally {
+            timerFor(signature, layer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timerFor(MethodSignature signature, String layer) {
+        return timers.computeIfAbsent(signature.getMethod(), method -> Timer.builder("method.latency")
+                .description("Latency of controller and service methods")
+                .tag("layer", layer)
+                .tag("class", signature.getDeclaringType().getSimpleName())
+                .tag("method", method.getName())
+                .publishPercentiles(properties.getPercentiles())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry));
+    }
+
+    private boolean isArgumentLoggingEnabled(Class<?> type) {
+        return argumentLogging.computeIfAbsent(type, t -> properties.getLogArgumentsPackages().stream()
+                .anyMatch(pkg -> t.getName().startsWith(pkg)));
+    }
+
+    /**
+     * Renders lazily when the logger formats the message, summarising collections and pages
+     * instead of walking their contents.
+     */
+    private final class Rendered {
+        private final Object value;
+
+        Rendered(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            if (value instanceof Object[] values) {
+                out.append('[');
+                for (int i = 0; i < values.length && out.length() < properties.getMaxRenderLength(); i++) {
+                    if (i > 0) {
+                        out.append(", ");
+                    }
+                    out.append(render(values[i]));
+                }
+                out.append(']');
+            } else {
+                out.append(render(value));
+            }
+            return truncate(out.toString());
+        }
 
-        Object result = joinPoint.proceed();
+        private String render(Object item) {
+            if (item instanceof ResponseEntity<?> response) {
+                return "ResponseEntity[" + response.getStatusCode() + ", " + render(response.getBody()) + "]";
+            }
+            if (item instanceof Page<?> page) {
+                return "Page[number=" + page.getNumber() + ", size=" + page.getNumberOfElements()
+                        + ", total=" + page.getTotalElements() + "]";
+            }
+            if (item instanceof Collection<?> collection) {
+                return item.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+            }
+            if (item instanceof Map<?, ?> map) {
+                return item.getClass().getSimpleName() + "[size=" + map.size() + "]";
+            }
+            if (item instanceof MultipartFile file) {
+                return "MultipartFile[" + file.getOriginalFilename() + ", " + file.getSize() + " bytes]";
+            }
+            if (item instanceof Principal principal) {
+                return "Principal[" + principal.getName() + "]";
+            }
+            return truncate(String.valueOf(item));
+        }
 
-        long timeTaken = System.currentTimeMillis() - startTime;
-        log.debug("⏱ Finished service: {} in {} ms", methodName, timeTaken);
-        return result;
+        private String truncate(String text) {
+            int max = properties.getMaxRenderLength();
+            return text.length() <= max ? text : text.substring(0, max) + "...";
+        }
     }
 }
@@ -0,0 +1,67 @@
+package com.java.moveminds.config;
+
+import com.java.moveminds.enums.AuditMode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Audit policy per event type. Keys of {@code events} are matched against the
+ * action passed to LogService as a prefix, so "View fitness programs" also covers
+ * "View fitness programs with ID 5". Actions without a policy use {@code defaultMode}.
+ */
+@Component
+@ConfigurationProperties(prefix = "audit")
+@Data
+public class AuditProperties {
+
+    private AuditMode defaultMode = AuditMode.ALWAYS;
+    private Map<String, EventPolicy> events = defaultEvents();
+    private Writer writer = new Writer();
+    private Retention retention = new Retention();
+
+    @Data
+    @NoArgsConstructor
+    public static class EventPolicy {
+        private AuditMode mode = AuditMode.ALWAYS;
+        private int sampleRate = 100; // SAMPLED: record 1 in N events
+        private long windowSeconds = 300; // COALESCED: record once per user per window
+
+        EventPolicy(AuditMode mode, int sampleRate, long windowSeconds) {
+            this.mode = mode;
+            this.sampleRate = sampleRate;
+            this.windowSeconds = windowSeconds;
+        }
+    }
+
+    @Data
+    public static class Writer {
+        private int queueCapacity = 10_000; // events buffered before new ones are dropped
+        private int flushSize = 200; // max rows per JDBC batch
+        private long flushIntervalMs = 1_000; // max time an event waits before being written
+    }
+
+    @Data
+    public static class Retention {
+        private int days = 90; // entries older than this are purged by the scheduled job
+        private int chunkSize = 5_000; // rows deleted per transaction
+        private long pauseMs = 50; // pause between chunks so other writers can get at the table
+    }
+
+    // High-frequency read events; write events fall through to the default and stay fully recorded
+    private static Map<String, EventPolicy> defaultEvents() {
+        Map<String, EventPolicy> events = new HashMap<>();
+        events.put("User acquisition", new EventPolicy(AuditMode.OFF, 1, 0));
+        events.put("View comments", new EventPolicy(AuditMode.COALESCED, 1, 300));
+        events.put("Overview of all active fitness programs", new EventPolicy(AuditMode.SAMPLED, 100, 0));
+        events.put("Overview of all categories with attributes and values", new EventPolicy(AuditMode.SAMPLED, 100, 0));
+        events.put("View fitness programs", new EventPolicy(AuditMode.SAMPLED, 100, 0));
+        events.put("View all locations", new EventPolicy(AuditMode.SAMPLED, 100, 0));
+        events.put("Display user information", new EventPolicy(AuditMode.COALESCED, 1, 300));
+        return events;
+    }
+}
@@ -0,0 +1,128 @@
+package com.java.moveminds.config;
+
+import com.java.moveminds.services.impl.HotFileCache;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Resolves static upload requests from the HotFileCache before the default file system lookup,
+ * so small, popular images are served from memory. Files that are missing or too large for the
+ * cache fall through to the rest of the chain.
+ */
+@RequiredArgsConstructor
+public class HotFileResourceResolver extends AbstractResourceResolver {
+
+    private final HotFileCache hotFileCache;
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, @NonNull String requestPath,
+                                               @NonNull List<? extends Resource> locations, @NonNull ResourceResolverChain chain) {
+        for (Resource location : locations) {
+            try {
+                if (!location.isFile()) {
+                    continue;
+                }
+                Path root = location.getFile().toPath().toAbsolutePath().normalize();
+                Path path = root.resolve(requestPath).normalize();
+                if (!path.startsWith(root)) {
+                    continue;
+                }
+                HotFileCache.CachedFile cached = hotFileCache.lookup(path);
+                if (cached != null) {
+                    return new CachedFileResource(path, cached);
+                }
+            } catch (IOException e) {
+                logger.debug("Could not look up " + requestPath + " in the hot file cache", e);
+            }
+        }
+        return chain.resolveResource(request, requestPath, locations);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(@NonNull String resourceUrlPath, @NonNull List<? extends Resource> locations,
+                                            @NonNull ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    private static final class CachedFileResource extends AbstractResource {
+        private final Path path;
+        private final HotFileCache.CachedFile file;
+
+        CachedFileResource(Path path, HotFileCache.CachedFile file) {
+            this.path = path;
+            this.file = file;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return file.length();
+        }
+
+        @Override
+        public long lastModified() {
+            return file.lastModified();
+        }
+
+        @Override
+        public String getFilename() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        @NonNull
+        public String getDescription() {
+            return "cached file [" + path + "]";
+        }
+
+        @Override
+        @NonNull
+        public InputStream getInputStream() {
+            ByteBuffer content = file.content().duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return content.hasRemaining() ? content.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(@NonNull byte[] bytes, int offset, int length) {
+                    if (!content.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, content.remaining());
+                    content.get(bytes, offset, count);
+                    return count;
+                }
+
+                @Override
+                public long skip(long n) {
+                    int count = (int) Math.max(0, Math.min(n, content.remaining()));
+                    content.position(content.position() + count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return content.remaining();
+                }
+            };
+        }
+    }
+}
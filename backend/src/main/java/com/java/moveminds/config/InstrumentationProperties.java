@@ -0,0 +1,22 @@
+package com.java.moveminds.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the controller/service latency instrumentation in LoggingAspect.
+ */
+@Component
+@ConfigurationProperties(prefix = "instrumentation")
+@Data
+public class InstrumentationProperties {
+
+    private double[] percentiles = {0.5, 0.95, 0.99}; // published per method through the actuator metrics endpoint
+    private boolean percentileHistogram = false; // also publish histogram buckets for server-side aggregation
+    private List<String> logArgumentsPackages = new ArrayList<>(); // packages whose arguments/results are logged at DEBUG
+    private int maxRenderLength = 200; // rendered arguments/results are cut to this many characters
+}
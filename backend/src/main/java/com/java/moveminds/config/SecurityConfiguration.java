@@ -62,6 +62,8 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.GET, "/programs").permitAll() // List programs
                         .requestMatchers(HttpMethod.GET, "/programs/{id}").permitAll() // Get program details
                         .requestMatchers(HttpMethod.GET, "/programs/with-attributes").permitAll() // Get programs with attributes
+                        .requestMatchers(HttpMethod.GET, "/programs/facets").permitAll() // Faceted program filter
+                        .requestMatchers(HttpMethod.GET, "/programs/search").permitAll() // Full-text program search
                         .requestMatchers(HttpMethod.POST, "/programs").hasAnyRole("INSTRUCTOR", "ADMIN") // Create programs
                         .requestMatchers(HttpMethod.PUT, "/programs/**").hasAnyRole("INSTRUCTOR", "ADMIN") // Update programs
                         .requestMatchers(HttpMethod.DELETE, "/programs/**").hasAnyRole("INSTRUCTOR", "ADMIN") // Delete programs
@@ -115,6 +117,9 @@ public class SecurityConfiguration {
                         // Activity endpoints - Authenticated users
                         .requestMatchers("/activities/**").authenticated() // User activities
                         
+                        // Actuator endpoints (metrics, health) - Admin only
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        
                         // All other requests require authentication
                         .anyRequest().authenticated())
                 .sessionManagement(manager -> manager.sessionCreationPolicy(STATELESS)) // Configures session management to be stateless (jwt)
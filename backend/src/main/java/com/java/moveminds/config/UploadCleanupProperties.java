@@ -0,0 +1,22 @@
+package com.java.moveminds.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the orphaned upload collector, which deletes stored images and lesson
+ * resources that no program image, avatar or program resource references any more.
+ */
+@Component
+@ConfigurationProperties(prefix = "upload.cleanup")
+@Data
+public class UploadCleanupProperties {
+
+    private boolean enabled = true; // run the scheduled job; the admin endpoint works either way
+    private boolean dryRun = false; // scheduled runs only report what they would delete
+    private long gracePeriodHours = 24; // files modified more recently are never deleted
+    private int batchSize = 500; // file names checked per reference lookup
+    private int maxDeletesPerSecond = 20; // deletes are paced so the collector never saturates the disk
+    private int reportLimit = 1_000; // orphan URLs listed in a report
+}
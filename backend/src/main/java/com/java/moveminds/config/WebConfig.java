@@ -1,5 +1,7 @@
 package com.java.moveminds.config;
 
+import com.java.moveminds.services.impl.HotFileCache;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -7,8 +9,11 @@ import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final HotFileCache hotFileCache;
+
     @Value("${upload.path}") // Injects the value of 'upload.path' from application properties
     private String uploadPath;
 
@@ -18,7 +23,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler(pathPattern) // Adds a resource handler for the specified path pattern
-                .addResourceLocations("file:" + uploadPath); // Sets the location of the resources to the upload path
+                .addResourceLocations("file:" + uploadPath) // Sets the location of the resources to the upload path
+                .resourceChain(false)
+                .addResolver(new HotFileResourceResolver(hotFileCache)); // Small popular images are served from memory
     }
     
     @Override
@@ -27,7 +34,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
-                .exposedHeaders("Content-Disposition", "Content-Type", "Content-Length")
+                .exposedHeaders("Content-Disposition", "Content-Type", "Content-Length", "Content-Range", "Accept-Ranges", "ETag")
                 .allowCredentials(false)
                 .maxAge(3600);
     }
@@ -3,13 +3,16 @@ package com.java.moveminds.controllers;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import com.java.moveminds.dto.AttributeDTO;
+import com.java.moveminds.events.AggregateVersions;
 import com.java.moveminds.services.AttributeService;
 
 import java.util.List;
@@ -21,27 +24,36 @@ public class AttributeController {
 
     private static final Logger logger = LoggerFactory.getLogger(AttributeController.class);
     private final AttributeService attributeService;
+    private final AggregateVersions aggregateVersions;
 
-    // Endpoint to get all attributes with values
+    // Endpoint to get all attributes with values, answered with 304 when the client's ETag is current
     @GetMapping
-    public ResponseEntity<List<AttributeDTO>> getAllAttributesWithValues() {
+    public ResponseEntity<List<AttributeDTO>> getAllAttributesWithValues(WebRequest request) {
+        String eTag = aggregateVersions.eTag(AggregateVersions.Aggregate.ATTRIBUTES);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<AttributeDTO> attributes = attributeService.getAllAttributesWithValues();
-        return ResponseEntity.ok(attributes);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(attributes);
     }
 
-    // Endpoint to get attributes by category ID
+    // Endpoint to get attributes by category ID, answered with 304 when the client's ETag is current
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<AttributeDTO>> getAttributesByCategoryId(@PathVariable Integer categoryId) {
+    public ResponseEntity<List<AttributeDTO>> getAttributesByCategoryId(@PathVariable Integer categoryId, WebRequest request) {
         if (categoryId == null || categoryId <= 0) {
             logger.error("Category ID is null");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 
+        String eTag = aggregateVersions.eTag(AggregateVersions.Aggregate.ATTRIBUTES);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         logger.info("Received request to get attributes for category ID: {}", categoryId);
         try {
             List<AttributeDTO> attributes = attributeService.getAttributesByCategoryId(categoryId);
             logger.info("Found {} attributes for category ID: {}", attributes.size(), categoryId);
-            return ResponseEntity.ok(attributes);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(attributes);
         } catch (Exception ex) {
             logger.error("An unexpected error occurred", ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
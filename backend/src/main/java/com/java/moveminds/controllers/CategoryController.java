@@ -1,11 +1,14 @@
 package com.java.moveminds.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.java.moveminds.dto.CategoryWithSubscriptionDTO;
 import com.java.moveminds.dto.requests.SubscriptionRequest;
 import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.events.AggregateVersions;
 import com.java.moveminds.services.CategoryService;
 
 import java.security.Principal;
@@ -16,11 +19,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
     private final CategoryService categoryService;
+    private final AggregateVersions aggregateVersions;
 
-    // Endpoint for getting all categories
+    // Endpoint for getting all categories, answered with 304 when the client's ETag is current
     @GetMapping
-    public List<CategoryEntity> getAllCategories() {
-        return this.categoryService.listCategories();
+    public ResponseEntity<List<CategoryEntity>> getAllCategories(WebRequest request) {
+        String eTag = aggregateVersions.eTag(AggregateVersions.Aggregate.CATEGORIES);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(this.categoryService.listCategories());
     }
 
     // Endpoint for getting all categories with subscription
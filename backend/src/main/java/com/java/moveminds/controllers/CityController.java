@@ -1,9 +1,13 @@
 package com.java.moveminds.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.java.moveminds.dto.requests.CityRequest;
 import com.java.moveminds.entities.CityEntity;
+import com.java.moveminds.events.AggregateVersions;
 import com.java.moveminds.services.CityService;
 
 import java.util.List;
@@ -13,11 +17,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CityController {
     private final CityService cityService;
+    private final AggregateVersions aggregateVersions;
 
-    // Endpoint to get all cities
+    // Endpoint to get all cities, answered with 304 when the client's ETag is current
     @GetMapping
-    public List<CityEntity> getAllCities() {
-        return this.cityService.getCities();
+    public ResponseEntity<List<CityEntity>> getAllCities(WebRequest request) {
+        String eTag = aggregateVersions.eTag(AggregateVersions.Aggregate.CITIES);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(this.cityService.getCities());
     }
 
     // Endpoint to add a new city
@@ -7,6 +7,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.java.moveminds.dto.response.CommentResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.services.CommentService;
 
 import java.security.Principal;
@@ -28,6 +29,16 @@ public class CommentController {
         return ResponseEntity.ok(this.commentService.getComments(programId, PageRequest.of(page, size)));
     }
 
+    // Endpoint for getting comments with keyset pagination (empty "after" for the first page)
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageResponse<CommentResponse>> getCommentsAfter(
+            @RequestParam Integer programId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return ResponseEntity.ok(this.commentService.getCommentsAfter(programId, after, size));
+    }
+
     // Endpoint for adding comment
     @PostMapping
     public ResponseEntity<CommentResponse> addComment(
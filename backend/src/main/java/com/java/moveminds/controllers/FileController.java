@@ -1,18 +1,36 @@
 package com.java.moveminds.controllers;
 
 import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.impl.ContentAddressedStore;
+import com.java.moveminds.services.impl.HotFileCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.nio.file.Path;
+import java.io.IOException;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/files")
@@ -21,51 +39,173 @@ import java.nio.charset.StandardCharsets;
 @CrossOrigin(origins = "*")
 public class FileController {
     
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Stored files are named after their content (legacy uploads after a fresh UUID) and never rewritten, so clients may keep them for a year
+    private static final CacheControl PUBLIC_CACHING = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl PRIVATE_CACHING = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
     private final FileStorageService fileStorageService;
-    
+    private final HotFileCache hotFileCache;
+    private final ContentAddressedStore contentStore;
+
+    @Value("${app.file.private-subdirectories:resources}")
+    private Set<String> privateSubdirectories; // access-controlled content, only browsers may cache it
+
+    /**
+     * Serves a stored file with a strong ETag and long-lived caching. A single byte range is answered
+     * with 206 Partial Content (honouring If-Range). Small files come from the in-memory HotFileCache;
+     * larger ones are handed to the container's sendfile when it supports it and copied with
+     * FileChannel.transferTo otherwise.
+     */
     @GetMapping("/{subDirectory}/{filename}")
-    public ResponseEntity<Resource> serveFile(
+    public void serveFile(
             @PathVariable String subDirectory,
-            @PathVariable String filename) {
-        try {
-            log.info("Serving file: {} from directory: {}", filename, subDirectory);
-            
-            Path filePath = fileStorageService.getFilePath(filename, subDirectory);
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                String contentType = getContentType(filename);
-                String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8.toString());
-                
-                // Determine if file should be displayed inline or downloaded
-                String disposition = shouldDisplayInline(filename) ? "inline" : "attachment";
-                
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + encodedFilename + "\"")
-                        .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
-                        .header(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, "GET, POST, PUT, DELETE, OPTIONS")
-                        .header(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, "Content-Type, Authorization")
-                        .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
-                        .header(HttpHeaders.PRAGMA, "no-cache")
-                        .header(HttpHeaders.EXPIRES, "0")
-                        .body(resource);
-            } else {
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        log.debug("Serving file: {} from directory: {}", filename, subDirectory);
+
+        Path filePath = fileStorageService.getFilePath(filename, subDirectory);
+        HotFileCache.CachedFile cached = hotFileCache.lookup(filePath);
+        long length;
+        long lastModified;
+        if (cached != null) {
+            length = cached.length();
+            lastModified = cached.lastModified();
+        } else {
+            if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
                 log.warn("File not found or not readable: {}", filePath);
-                return ResponseEntity.notFound().build();
+                response.sendError(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            length = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+        }
+        String eTag = eTag(filename, length, lastModified);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, (privateSubdirectories.contains(subDirectory) ? PRIVATE_CACHING : PUBLIC_CACHING).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, "GET, POST, PUT, DELETE, OPTIONS");
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, "Content-Type, Authorization, Range, If-Range");
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8);
+        // Determine if file should be displayed inline or downloaded
+        String disposition = shouldDisplayInline(filename) ? "inline" : "attachment";
+        response.setContentType(getContentType(filename));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + encodedFilename + "\"");
+
+        long start = 0;
+        long count = length;
+        HttpRange range = requestedRange(request, eTag, lastModified);
+        if (range != null) {
+            if (length == 0 || range.getRangeStart(length) >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            start = range.getRangeStart(length);
+            count = range.getRangeEnd(length) - start + 1;
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+        }
+        response.setContentLengthLong(count);
+
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        if (cached != null) {
+            ByteBuffer content = cached.content().duplicate();
+            content.position((int) start).limit((int) (start + count));
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (content.hasRemaining()) {
+                out.write(content);
+            }
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file straight from the page cache to the socket after the controller returns
+            request.setAttribute(SENDFILE_FILENAME, filePath.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break; // the file was truncated while being served
+                }
+                position += sent;
+                remaining -= sent;
             }
-        } catch (Exception e) {
-            log.error("Error serving file: {}", filename, e);
-            return ResponseEntity.internalServerError().build();
         }
     }
-    
+
+    /**
+     * Content-addressed files are tagged with their hash, which stays the same when the store touches
+     * the file to reuse it. Legacy names fall back to length and modification time.
+     */
+    private String eTag(String filename, long length, long lastModified) {
+        if (contentStore.isContentName(filename)) {
+            int extension = filename.lastIndexOf('.');
+            return "\"" + (extension > 0 ? filename.substring(0, extension) : filename) + "\"";
+        }
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * Returns the single byte range to serve, or null to serve the whole file. Multi-range requests,
+     * malformed Range headers and an If-Range that no longer matches the file all get the whole file.
+     */
+    private HttpRange requestedRange(HttpServletRequest request, String eTag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                return null; // another (or a weak) entity-tag
+            }
+            long ifRangeDate;
+            try {
+                ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            // HTTP dates have second precision
+            if (ifRangeDate == -1 || ifRangeDate / 1000 != lastModified / 1000) {
+                return null;
+            }
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     @RequestMapping(value = "/{subDirectory}/{filename}", method = RequestMethod.OPTIONS)
     public ResponseEntity<?> handleOptions(@PathVariable String subDirectory, @PathVariable String filename) {
         return ResponseEntity.ok()
                 .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
                 .header(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, "GET, POST, PUT, DELETE, OPTIONS")
-                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, "Content-Type, Authorization")
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, "Content-Type, Authorization, Range, If-Range")
                 .header(HttpHeaders.ACCESS_CONTROL_MAX_AGE, "3600")
                 .build();
     }
@@ -73,7 +213,7 @@ public class FileController {
     private boolean shouldDisplayInline(String filename) {
         String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
         return switch (extension) {
-            case "pdf", "txt", "jpg", "jpeg", "png", "gif" -> true;
+            case "pdf", "txt", "jpg", "jpeg", "png", "gif", "mp4", "webm", "mp3" -> true;
             default -> false;
         };
     }
@@ -91,6 +231,12 @@ public class FileController {
             case "xlsx" -> "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
             case "zip" -> "application/zip";
             case "rar" -> "application/x-rar-compressed";
+            case "jpg", "jpeg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "mp4" -> "video/mp4";
+            case "webm" -> "video/webm";
+            case "mp3" -> "audio/mpeg";
             default -> "application/octet-stream";
         };
     }
@@ -7,16 +7,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import com.java.moveminds.dto.CategoryDTO;
 import com.java.moveminds.dto.requests.FitnessProgramRequest;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.FacetSearchResponse;
 import com.java.moveminds.dto.response.FitnessProgramHomeResponse;
 import com.java.moveminds.dto.response.FitnessProgramListResponse;
 import com.java.moveminds.dto.response.FitnessProgramResponse;
+import com.java.moveminds.events.AggregateVersions;
 import com.java.moveminds.services.FitnessProgramService;
 
 import java.io.IOException;
@@ -24,11 +29,14 @@ import java.security.Principal;
 import java.util.List;
 import java.util.Objects;
 
+import static com.java.moveminds.events.AggregateVersions.Aggregate.*;
+
 @RestController
 @RequestMapping("/programs")
 @RequiredArgsConstructor
 public class FitnessProgramController {
     private final FitnessProgramService fitnessProgramService;
+    private final AggregateVersions aggregateVersions;
     Logger log = LoggerFactory.getLogger(FitnessProgramController.class);
 
 
@@ -72,6 +80,7 @@ public class FitnessProgramController {
      * @param categoryId       the ID of the category to filter programs by, can be null
      * @param attributeId      the ID of the attribute to filter programs by, can be null
      * @param attributeValueId the ID of the attribute value to filter programs by, can be null
+     * @param request          the current request, used to answer If-None-Match with 304
      * @return a ResponseEntity containing a Page of FitnessProgramHomeResponse objects
      */
     @GetMapping()
@@ -81,7 +90,12 @@ public class FitnessProgramController {
             @RequestParam(value = "sort", required = false) String sort,
             @RequestParam(value = "categoryId", required = false) Integer categoryId,
             @RequestParam(value = "attributeId", required = false) Integer attributeId,
-            @RequestParam(value = "attributeValueId", required = false) Integer attributeValueId) {
+            @RequestParam(value = "attributeValueId", required = false) Integer attributeValueId,
+            WebRequest request) {
+        String eTag = aggregateVersions.eTag(PROGRAMS, USERS, LOCATIONS);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
 
         // If categoryId is -1, set it to null to indicate no category filter
         if (Objects.equals(categoryId, -1)) {
@@ -106,34 +120,118 @@ public class FitnessProgramController {
             programs = fitnessProgramService.getAllFitnessPrograms(pageable);
         }
 
-        return ResponseEntity.ok(programs);
+        return revalidated(eTag).body(programs);
+    }
+
+    /**
+     * Handles HTTP GET requests for active fitness programs using keyset pagination (newest first).
+     * Selected instead of the paged listing whenever the {@code after} parameter is present;
+     * pass it empty for the first page and then the {@code nextCursor} of the previous page.
+     *
+     * @param after      the cursor returned with the previous page, empty for the first page
+     * @param size       the number of items per page, defaults to 5 if not provided
+     * @param categoryId the ID of the category to filter programs by, can be null or -1 for all
+     * @param request    the current request, used to answer If-None-Match with 304
+     * @return a ResponseEntity containing a CursorPageResponse of FitnessProgramHomeResponse objects
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageResponse<FitnessProgramHomeResponse>> getProgramsAfter(
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "5") int size,
+            @RequestParam(value = "categoryId", required = false) Integer categoryId,
+            WebRequest request) {
+        String eTag = aggregateVersions.eTag(PROGRAMS, USERS, LOCATIONS);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        if (Objects.equals(categoryId, -1)) {
+            categoryId = null;
+        }
+        return revalidated(eTag).body(fitnessProgramService.getFitnessProgramsAfter(categoryId, after, size));
+    }
+
+    /**
+     * Handles HTTP GET requests for active fitness programs matching a combination of facet filters.
+     * Every {@code filter} parameter is an OR-clause of facet keys separated by '|', and all clauses must match,
+     * e.g. {@code ?filter=attributeValue:3|attributeValue:4&filter=difficulty:BEGINNER}.
+     *
+     * @param filter the OR-clauses to combine, can be null to match all active programs
+     * @param page   the page number to retrieve, defaults to 0 if not provided
+     * @param size    the number of items per page, defaults to 5 if not provided
+     * @param request the current request, used to answer If-None-Match with 304
+     * @return a ResponseEntity containing the matching programs and the facet counts
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetSearchResponse> searchByFacets(
+            @RequestParam(value = "filter", required = false) List<String> filter,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "5") int size,
+            WebRequest request) {
+        String eTag = aggregateVersions.eTag(PROGRAMS, USERS, LOCATIONS);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return revalidated(eTag).body(fitnessProgramService.searchByFacets(filter, page, size));
+    }
+
+    /**
+     * Handles HTTP GET requests for full-text search over active fitness programs.
+     *
+     * @param query the free-text query
+     * @param page  the page number to retrieve, defaults to 0 if not provided
+     * @param size    the number of items per page, defaults to 5 if not provided
+     * @param request the current request, used to answer If-None-Match with 304
+     * @return a ResponseEntity containing a Page of FitnessProgramHomeResponse objects, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<FitnessProgramHomeResponse>> searchPrograms(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "5") int size,
+            WebRequest request) {
+        // Search also matches category names and lesson titles
+        String eTag = aggregateVersions.eTag(PROGRAMS, CURRICULA, USERS, LOCATIONS, CATEGORIES);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return revalidated(eTag).body(fitnessProgramService.searchFitnessPrograms(query, page, size));
     }
 
     /**
      * Handles HTTP GET requests to retrieve a fitness program by its ID.
      *
-     * @param id the ID of the fitness program to retrieve
+     * @param id      the ID of the fitness program to retrieve
+     * @param request the current request, used to answer If-None-Match with 304
      * @return a ResponseEntity containing the FitnessProgramResponse object if found,
      * or a BAD_REQUEST status if the ID is null
      */
     @GetMapping("/{id}")
-    public ResponseEntity<FitnessProgramResponse> getProgramById(@PathVariable Integer id) {
+    public ResponseEntity<FitnessProgramResponse> getProgramById(@PathVariable Integer id, WebRequest request) {
         if (id == null || id <= 0) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        String eTag = aggregateVersions.programETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         FitnessProgramResponse programResponse = fitnessProgramService.getFitnessProgram(id);
-        return ResponseEntity.ok(programResponse);
+        return revalidated(eTag).body(programResponse);
     }
 
     /**
      * Handles HTTP GET requests to retrieve all categories with their attributes and values.
      *
+     * @param request the current request, used to answer If-None-Match with 304
      * @return a ResponseEntity containing a list of CategoryDTO objects
      */
     @GetMapping("/with-attributes")
-    public ResponseEntity<List<CategoryDTO>> getAllCategoriesWithAttributesAndValues() {
+    public ResponseEntity<List<CategoryDTO>> getAllCategoriesWithAttributesAndValues(WebRequest request) {
+        String eTag = aggregateVersions.eTag(PROGRAMS, CATEGORIES, ATTRIBUTES);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<CategoryDTO> categories = fitnessProgramService.getAllCategoriesWithAttributesAndValues();
-        return ResponseEntity.ok(categories);
+        return revalidated(eTag).body(categories);
     }
 
     /**
@@ -231,4 +329,13 @@ public class FitnessProgramController {
         }
     }
 
+    /**
+     * Starts a 200 response that carries the given ETag and makes clients revalidate before reusing it.
+     *
+     * @param eTag the strong ETag of the response
+     * @return a BodyBuilder with the ETag and Cache-Control headers set
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String eTag) {
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache());
+    }
 }
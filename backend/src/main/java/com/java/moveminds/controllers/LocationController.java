@@ -1,10 +1,14 @@
 package com.java.moveminds.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import com.java.moveminds.entities.LocationEntity;
+import com.java.moveminds.events.AggregateVersions;
 import com.java.moveminds.services.LocationService;
 
 import java.util.List;
@@ -14,11 +18,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LocationController {
     private final LocationService locationService;
+    private final AggregateVersions aggregateVersions;
 
-    // Endpoint to get all locations
+    // Endpoint to get all locations, answered with 304 when the client's ETag is current
     @GetMapping
-    public List<LocationEntity> getAllLocations() {
-        return this.locationService.listLocations();
+    public ResponseEntity<List<LocationEntity>> getAllLocations(WebRequest request) {
+        String eTag = aggregateVersions.eTag(AggregateVersions.Aggregate.LOCATIONS);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(this.locationService.listLocations());
     }
 
 }
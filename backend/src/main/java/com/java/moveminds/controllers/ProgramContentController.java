@@ -1,21 +1,34 @@
 package com.java.moveminds.controllers;
 
+import com.java.moveminds.dto.request.CurriculumBatchRequest;
 import com.java.moveminds.dto.request.ProgramLessonRequest;
 import com.java.moveminds.dto.request.ProgramModuleRequest;
 import com.java.moveminds.dto.request.ProgramResourceRequest;
+import com.java.moveminds.dto.request.ResourceUploadRequest;
+import com.java.moveminds.dto.response.CurriculumBatchResponse;
 import com.java.moveminds.dto.response.ProgramLearningContentResponse;
 import com.java.moveminds.dto.response.ProgramLessonResponse;
 import com.java.moveminds.dto.response.ProgramModuleResponse;
 import com.java.moveminds.dto.response.ProgramResourceResponse;
+import com.java.moveminds.dto.response.ResourceUploadResponse;
 import com.java.moveminds.services.ProgramContentManagementService;
+import com.java.moveminds.services.ResourceBundleService;
+import com.java.moveminds.services.ResourceUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.List;
 
@@ -27,6 +40,8 @@ import java.util.List;
 public class ProgramContentController {
     
     private final ProgramContentManagementService programContentService;
+    private final ResourceUploadService resourceUploadService;
+    private final ResourceBundleService resourceBundleService;
     
     // Program Learning Content
     @GetMapping("/{programId}/learning-content")
@@ -93,6 +108,17 @@ public class ProgramContentController {
         return ResponseEntity.ok().build();
     }
     
+    @PatchMapping("/{programId}/curriculum")
+    public ResponseEntity<CurriculumBatchResponse> updateCurriculum(
+            @PathVariable Integer programId,
+            @Valid @RequestBody CurriculumBatchRequest request,
+            Principal principal) {
+        log.info("PATCH /api/programs/{}/curriculum", programId);
+        
+        CurriculumBatchResponse response = programContentService.updateCurriculum(programId, request, principal);
+        return ResponseEntity.ok(response);
+    }
+    
     // Lesson Management
     @PostMapping("/modules/{moduleId}/lessons")
     public ResponseEntity<ProgramLessonResponse> createLesson(
@@ -212,4 +238,99 @@ public class ProgramContentController {
         programContentService.reorderResources(lessonId, resourceIds, principal);
         return ResponseEntity.ok().build();
     }
+    
+    // Chunked Resource Uploads
+    @PostMapping("/lessons/{lessonId}/resources/uploads")
+    public ResponseEntity<ResourceUploadResponse> initiateResourceUpload(
+            @PathVariable Integer lessonId,
+            @Valid @RequestBody ResourceUploadRequest request,
+            Principal principal) throws IOException {
+        log.info("POST /api/programs/lessons/{}/resources/uploads", lessonId);
+        
+        ResourceUploadResponse response = resourceUploadService.initiateUpload(lessonId, request, principal);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/resources/uploads/{uploadId}")
+    public ResponseEntity<ResourceUploadResponse> getResourceUpload(
+            @PathVariable String uploadId,
+            Principal principal) {
+        log.info("GET /api/programs/resources/uploads/{}", uploadId);
+        
+        ResourceUploadResponse response = resourceUploadService.getUploadStatus(uploadId, principal);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PutMapping(value = "/resources/uploads/{uploadId}/chunks/{chunkIndex}", consumes = "application/octet-stream")
+    public ResponseEntity<ResourceUploadResponse> uploadResourceChunk(
+            @PathVariable String uploadId,
+            @PathVariable int chunkIndex,
+            HttpServletRequest servletRequest,
+            Principal principal) throws IOException {
+        log.debug("PUT /api/programs/resources/uploads/{}/chunks/{}", uploadId, chunkIndex);
+        
+        // The body is streamed to disk as it arrives rather than buffered by a message converter
+        ResourceUploadResponse response = resourceUploadService.uploadChunk(uploadId, chunkIndex, servletRequest.getInputStream(), principal);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/resources/uploads/{uploadId}/complete")
+    public ResponseEntity<ProgramResourceResponse> completeResourceUpload(
+            @PathVariable String uploadId,
+            Principal principal) throws IOException {
+        log.info("POST /api/programs/resources/uploads/{}/complete", uploadId);
+        
+        ProgramResourceResponse response = resourceUploadService.completeUpload(uploadId, principal);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @DeleteMapping("/resources/uploads/{uploadId}")
+    public ResponseEntity<Void> abortResourceUpload(
+            @PathVariable String uploadId,
+            Principal principal) throws IOException {
+        log.info("DELETE /api/programs/resources/uploads/{}", uploadId);
+        
+        resourceUploadService.abortUpload(uploadId, principal);
+        return ResponseEntity.noContent().build();
+    }
+    
+    // Resource Bundles
+    @GetMapping("/{programId}/resources/bundle")
+    public void downloadProgramResources(
+            @PathVariable Integer programId,
+            Principal principal,
+            HttpServletResponse response) throws IOException {
+        log.info("GET /api/programs/{}/resources/bundle", programId);
+        
+        streamBundle(resourceBundleService.prepareProgramBundle(programId, principal), response);
+    }
+    
+    @GetMapping("/modules/{moduleId}/resources/bundle")
+    public void downloadModuleResources(
+            @PathVariable Integer moduleId,
+            Principal principal,
+            HttpServletResponse response) throws IOException {
+        log.info("GET /api/programs/modules/{}/resources/bundle", moduleId);
+        
+        streamBundle(resourceBundleService.prepareModuleBundle(moduleId, principal), response);
+    }
+    
+    @GetMapping("/lessons/{lessonId}/resources/bundle")
+    public void downloadLessonResources(
+            @PathVariable Integer lessonId,
+            Principal principal,
+            HttpServletResponse response) throws IOException {
+        log.info("GET /api/programs/lessons/{}/resources/bundle", lessonId);
+        
+        streamBundle(resourceBundleService.prepareLessonBundle(lessonId, principal), response);
+    }
+    
+    private void streamBundle(ResourceBundleService.ResourceBundle bundle, HttpServletResponse response) throws IOException {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(bundle.fileName(), StandardCharsets.UTF_8).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().cachePrivate().getHeaderValue());
+        // No Content-Length: the archive is written as it is read, so the container sends it chunked
+        resourceBundleService.writeBundle(bundle, response.getOutputStream());
+    }
 }
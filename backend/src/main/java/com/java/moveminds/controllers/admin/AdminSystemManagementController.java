@@ -2,15 +2,20 @@ package com.java.moveminds.controllers.admin;
 
 import com.java.moveminds.dto.response.admin.AdminDashboardResponse;
 import com.java.moveminds.dto.response.AdminStatsResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.admin.AuditLogResponse;
+import com.java.moveminds.dto.response.admin.UploadCleanupReport;
 import com.java.moveminds.services.admin.AdminSystemManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -64,7 +69,8 @@ public class AdminSystemManagementController {
     }
     
     /**
-     * Get system logs
+     * Get system logs. Audit entries have no level, so a non-blank {@code level} is rejected with 400;
+     * {@code category} filters by action prefix.
      */
     @GetMapping("/logs")
     public ResponseEntity<List<String>> getSystemLogs(
@@ -80,6 +86,27 @@ public class AdminSystemManagementController {
         return ResponseEntity.ok(logs);
     }
     
+    /**
+     * Search the audit log using keyset pagination
+     */
+    @GetMapping("/logs/search")
+    public ResponseEntity<CursorPageResponse<AuditLogResponse>> searchAuditLog(
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            Principal principal) {
+        
+        log.info("Admin {} searching audit log: user={}, action={}, from={}, to={}", 
+                principal.getName(), user, action, from, to);
+        
+        CursorPageResponse<AuditLogResponse> page = adminSystemManagementService.searchAuditLog(
+                principal, user, action, from, to, after, size);
+        return ResponseEntity.ok(page);
+    }
+    
     /**
      * Clear old system logs
      */
@@ -94,6 +121,20 @@ public class AdminSystemManagementController {
         return ResponseEntity.noContent().build();
     }
     
+    /**
+     * Collect orphaned uploads; defaults to a dry run that only reports them
+     */
+    @PostMapping("/uploads/cleanup")
+    public ResponseEntity<UploadCleanupReport> cleanUpOrphanedUploads(
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            Principal principal) {
+        
+        log.info("Admin {} collecting orphaned uploads (dry run: {})", principal.getName(), dryRun);
+        
+        UploadCleanupReport report = adminSystemManagementService.cleanUpOrphanedUploads(principal, dryRun);
+        return ResponseEntity.ok(report);
+    }
+    
     /**
      * Get database statistics
      */
@@ -3,6 +3,7 @@ package com.java.moveminds.controllers.admin;
 import com.java.moveminds.dto.requests.admin.AdminBulkActionRequest;
 import com.java.moveminds.dto.requests.admin.AdminUserManagementRequest;
 import com.java.moveminds.dto.response.AdminUserResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.entities.UserEntity;
 import com.java.moveminds.enums.Roles;
 import com.java.moveminds.repositories.UserEntityRepository;
@@ -65,6 +66,24 @@ public class AdminUserManagementController {
         return ResponseEntity.ok(users);
     }
     
+    /**
+     * Get users with the same filters using keyset pagination (empty "after" for the first page)
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageResponse<AdminUserResponse>> getUsersAfter(
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "role", required = false) Roles role,
+            @RequestParam(value = "search", required = false) String search,
+            @RequestParam(value = "isVerified", required = false) Boolean isVerified,
+            Principal principal) {
+        
+        CursorPageResponse<AdminUserResponse> users = adminUserManagementService.getUsersAfter(
+                principal, role, search, isVerified, after, size);
+        
+        return ResponseEntity.ok(users);
+    }
+    
     /**
      * Debug endpoint to check user verification status
      */
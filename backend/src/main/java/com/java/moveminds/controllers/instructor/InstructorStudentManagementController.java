@@ -1,6 +1,7 @@
 package com.java.moveminds.controllers.instructor;
 
 import com.java.moveminds.dto.requests.instructor.InstructorStudentManagementRequest;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.dto.response.ProgramEnrollmentResponse;
 import com.java.moveminds.services.instructor.InstructorStudentManagementService;
 import jakarta.validation.Valid;
@@ -94,6 +95,21 @@ public class InstructorStudentManagementController {
         return ResponseEntity.ok(enrollments);
     }
     
+    /**
+     * Get enrollments across instructor's programs using keyset pagination (empty "after" for the first page)
+     */
+    @GetMapping(value = "/enrollments", params = "after")
+    public ResponseEntity<CursorPageResponse<ProgramEnrollmentResponse>> getEnrollmentsAfter(
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            Principal principal) {
+        
+        CursorPageResponse<ProgramEnrollmentResponse> enrollments = instructorStudentManagementService.getEnrollmentsAfter(
+                principal, after, size);
+        
+        return ResponseEntity.ok(enrollments);
+    }
+    
     /**
      * Update enrollment status
      */
@@ -1,5 +1,6 @@
 package com.java.moveminds.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,4 +11,11 @@ import lombok.NoArgsConstructor;
 public class AttributeValueDTO {
     private Integer id;
     private String name;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long programCount; // only set in the category facet tree
+
+    public AttributeValueDTO(Integer id, String name) {
+        this.id = id;
+        this.name = name;
+    }
 }
@@ -0,0 +1,25 @@
+package com.java.moveminds.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been verified.
+ * Lets callers read everything they need from a token after a single parse.
+ */
+@Getter
+@AllArgsConstructor
+public class ParsedJwtToken {
+    private final String subject;
+    private final String email;
+    private final List<String> roles;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,89 @@
+package com.java.moveminds.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Edits to the modules, lessons and resources of one program, applied together. Fields left null
+ * are not changed; a version, when given, must match the item's current version.
+ */
+@Data
+public class CurriculumBatchRequest {
+    @Valid
+    private List<ModuleEdit> modules = new ArrayList<>();
+    
+    @Valid
+    private List<LessonEdit> lessons = new ArrayList<>();
+    
+    @Valid
+    private List<ResourceEdit> resources = new ArrayList<>();
+    
+    @Data
+    public static class ModuleEdit {
+        @NotNull(message = "Module ID is required")
+        private Integer id;
+        
+        private Integer version;
+        
+        @Pattern(regexp = ".*\\S.*", message = "Module title must not be blank")
+        private String title;
+        
+        private String description;
+        
+        @Min(value = 0, message = "Order index must be non-negative")
+        private Integer orderIndex;
+        
+        private Boolean isPublished;
+    }
+    
+    @Data
+    public static class LessonEdit {
+        @NotNull(message = "Lesson ID is required")
+        private Integer id;
+        
+        private Integer version;
+        
+        // Moves the lesson to another module of the same program
+        private Integer moduleId;
+        
+        @Pattern(regexp = ".*\\S.*", message = "Lesson title must not be blank")
+        private String title;
+        
+        private String description;
+        
+        @Min(value = 0, message = "Duration must be non-negative")
+        private Integer durationMinutes;
+        
+        @Min(value = 0, message = "Order index must be non-negative")
+        private Integer orderIndex;
+        
+        private Boolean isPublished;
+        
+        private Boolean isPreview;
+    }
+    
+    @Data
+    public static class ResourceEdit {
+        @NotNull(message = "Resource ID is required")
+        private Integer id;
+        
+        private Integer version;
+        
+        // Moves the resource to another lesson of the same program
+        private Integer lessonId;
+        
+        @Pattern(regexp = ".*\\S.*", message = "Resource title must not be blank")
+        private String title;
+        
+        private String description;
+        
+        @Min(value = 0, message = "Order index must be non-negative")
+        private Integer orderIndex;
+    }
+}
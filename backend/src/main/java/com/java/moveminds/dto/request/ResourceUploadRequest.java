@@ -0,0 +1,26 @@
+package com.java.moveminds.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ResourceUploadRequest {
+    @NotBlank(message = "Resource title is required")
+    private String title;
+    
+    private String description;
+    
+    @Min(value = 0, message = "Order index must be non-negative")
+    private Integer orderIndex;
+    
+    @NotBlank(message = "File name is required")
+    private String fileName;
+    
+    private String contentType;
+    
+    @NotNull(message = "File size is required")
+    @Min(value = 1, message = "File size must be positive")
+    private Long fileSize;
+}
@@ -0,0 +1,21 @@
+package com.java.moveminds.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * The new versions of the edited items by id, for the client's next batch.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CurriculumBatchResponse {
+    private Map<Integer, Integer> moduleVersions;
+    private Map<Integer, Integer> lessonVersions;
+    private Map<Integer, Integer> resourceVersions;
+}
@@ -0,0 +1,50 @@
+package com.java.moveminds.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ * No total count is computed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Clamps a requested page size to [1, MAX_SIZE].
+     */
+    public static int clampSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1};
+     * the extra row only signals that another page exists.
+     *
+     * @param rows     the fetched rows, in sort order
+     * @param pageSize the requested page size
+     * @param cursorOf encodes the cursor pointing after a row
+     * @param mapper   converts a row to its response type
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int pageSize,
+                                                  Function<E, String> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        List<T> content = page.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPageResponse<>(content, content.size(), nextCursor, hasNext);
+    }
+}
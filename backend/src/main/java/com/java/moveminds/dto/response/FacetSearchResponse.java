@@ -0,0 +1,23 @@
+package com.java.moveminds.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of programs matching a facet filter, with the number of matching programs
+ * per facet value (facet type -> value -> count) for refining the filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetSearchResponse {
+    private List<FitnessProgramHomeResponse> content;
+    private int page;
+    private int size;
+    private int totalElements;
+    private Map<String, Map<String, Integer>> facets;
+}
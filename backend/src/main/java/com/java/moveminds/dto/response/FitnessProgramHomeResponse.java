@@ -19,6 +19,7 @@ public class FitnessProgramHomeResponse {
     private Integer duration;
     private DifficultyLevel difficultyLevel;
     private List<String> images;
+    private List<String> imageSrcsets; // srcset per entry of images, just the image URL until its variants exist
     private Integer instructorId;
     private String instructorName;
     private String locationName;
@@ -24,5 +24,6 @@ public class ProgramLessonResponse {
     private Boolean isPreview;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Integer version;
     private List<ProgramResourceResponse> resources;
 }
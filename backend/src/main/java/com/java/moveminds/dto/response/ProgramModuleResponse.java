@@ -20,5 +20,6 @@ public class ProgramModuleResponse {
     private Boolean isPublished;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Integer version;
     private List<ProgramLessonResponse> lessons;
 }
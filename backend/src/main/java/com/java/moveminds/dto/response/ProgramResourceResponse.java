@@ -21,4 +21,5 @@ public class ProgramResourceResponse {
     private Integer orderIndex;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Integer version;
 }
@@ -0,0 +1,20 @@
+package com.java.moveminds.dto.response.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogResponse {
+    
+    private Integer id;
+    private String user;
+    private String action;
+    private LocalDateTime timestamp;
+}
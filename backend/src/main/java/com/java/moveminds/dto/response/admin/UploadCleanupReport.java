@@ -0,0 +1,26 @@
+package com.java.moveminds.dto.response.admin;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an orphaned upload collection. In a dry run nothing is deleted and
+ * {@code orphans} lists what would have been.
+ */
+@Data
+public class UploadCleanupReport {
+
+    private boolean dryRun;
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private long scannedFiles;
+    private long recentFiles; // younger than the grace period, not checked
+    private long orphanedFiles;
+    private long orphanedBytes;
+    private long deletedFiles;
+    private long failedDeletes;
+    private List<String> orphans = new ArrayList<>(); // capped at upload.cleanup.report-limit
+}
@@ -1,5 +1,6 @@
 package com.java.moveminds.entities;
 
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
@@ -8,6 +9,7 @@ import java.util.List;
 
 @Data
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "attribute")
 public class AttributeEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
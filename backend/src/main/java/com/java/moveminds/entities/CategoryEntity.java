@@ -1,6 +1,7 @@
 package com.java.moveminds.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,6 +9,7 @@ import java.util.List;
 
 @Data
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "category")
 public class CategoryEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
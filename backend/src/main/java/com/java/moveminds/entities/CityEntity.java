@@ -1,11 +1,13 @@
 package com.java.moveminds.entities;
 
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 
 @Data
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "city")
 @RequiredArgsConstructor
 public class CityEntity {
@@ -7,7 +7,9 @@ import java.sql.Timestamp;
 
 @Data
 @Entity
-@Table(name = "comment")
+@Table(name = "comment", indexes = {
+        @Index(name = "idx_comment_program_posted_id", columnList = "fitness_program_id, posted_at, id")
+})
 public class CommentEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
@@ -1,6 +1,7 @@
 package com.java.moveminds.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
@@ -13,7 +14,10 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "fitness_program")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "fitness_program", indexes = {
+        @Index(name = "idx_fitness_program_active_created_id", columnList = "is_active, created_at, id")
+})
 public class FitnessProgramEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
@@ -0,0 +1,21 @@
+package com.java.moveminds.entities;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariant {
+    @Basic
+    @Column(name = "url", nullable = false)
+    private String url;
+    @Basic
+    @Column(name = "width", nullable = false)
+    private Integer width;
+}
@@ -7,7 +7,11 @@ import java.sql.Timestamp;
 
 @Data
 @Entity
-@Table(name = "log")
+@Table(name = "log", indexes = {
+        @Index(name = "idx_log_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_log_user_timestamp", columnList = "user, timestamp"),
+        @Index(name = "idx_log_action_timestamp", columnList = "action, timestamp")
+})
 public class LogEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
@@ -23,4 +27,4 @@ public class LogEntity {
     @Column(name = "timestamp")
     private Timestamp timestamp;
 
-}
\ No newline at end of file
+}
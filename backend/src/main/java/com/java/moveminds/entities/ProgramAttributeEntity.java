@@ -1,10 +1,12 @@
 package com.java.moveminds.entities;
 
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "program_attribute")
 public class ProgramAttributeEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,11 +1,19 @@
 package com.java.moveminds.entities;
 
+import com.java.moveminds.enums.ImageRendition;
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.EnumMap;
+import java.util.Map;
 
 @Data
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "program_image")
 @RequiredArgsConstructor
 public class ProgramImageEntity {
@@ -16,6 +24,16 @@ public class ProgramImageEntity {
     @Basic
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
+    @Basic
+    @Column(name = "srcset", length = 2048)
+    private String srcset; // denormalized from variants for listings, null until the variants exist
+    @ElementCollection
+    @CollectionTable(name = "program_image_variant", joinColumns = @JoinColumn(name = "program_image_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "rendition")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Map<ImageRendition, ImageVariant> variants = new EnumMap<>(ImageRendition.class);
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "fitness_program_id", referencedColumnName = "id", nullable = false)
     private FitnessProgramEntity fitnessProgram;
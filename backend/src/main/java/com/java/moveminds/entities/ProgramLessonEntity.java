@@ -1,6 +1,7 @@
 package com.java.moveminds.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
@@ -12,6 +13,7 @@ import java.util.List;
 
 @Data
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "program_lesson")
 public class ProgramLessonEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -59,6 +61,10 @@ public class ProgramLessonEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version = 0;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "program_module_id", referencedColumnName = "id", nullable = false)
     @ToString.Exclude
@@ -1,5 +1,6 @@
 package com.java.moveminds.entities;
 
+import com.java.moveminds.events.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "program_resource")
 public class ProgramResourceEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,6 +51,10 @@ public class ProgramResourceEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version = 0;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "program_lesson_id", referencedColumnName = "id", nullable = false)
     @ToString.Exclude
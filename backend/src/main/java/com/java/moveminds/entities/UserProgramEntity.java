@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "user_program")
+@Table(name = "user_program", indexes = {
+        @Index(name = "idx_user_program_created_id", columnList = "created_at, id")
+})
 public class UserProgramEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
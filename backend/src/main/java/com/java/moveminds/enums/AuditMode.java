@@ -0,0 +1,8 @@
+package com.java.moveminds.enums;
+
+public enum AuditMode {
+    ALWAYS,
+    SAMPLED,
+    COALESCED,
+    OFF
+}
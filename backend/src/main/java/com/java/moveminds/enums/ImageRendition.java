@@ -0,0 +1,47 @@
+package com.java.moveminds.enums;
+
+import lombok.Getter;
+
+/**
+ * Responsive renditions generated for every program image, ordered by width.
+ * Each is written as a progressive JPEG no wider than the stored image.
+ */
+@Getter
+public enum ImageRendition {
+    THUMBNAIL(320),
+    CARD(640),
+    FULL(800);
+
+    private final int width;
+
+    ImageRendition(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Returns the file name of this rendition of an image, e.g. "ab/cd/abcd..._card.jpg" for "ab/cd/abcd....png".
+     */
+    public String fileName(String imageFileName) {
+        int extension = imageFileName.lastIndexOf('.');
+        String baseName = extension > imageFileName.lastIndexOf('/') + 1 ? imageFileName.substring(0, extension) : imageFileName;
+        return baseName + suffix();
+    }
+
+    /**
+     * Returns the name, without extension, of the image a rendition file was generated from,
+     * or null if the file is not a rendition.
+     */
+    public static String sourceBaseName(String fileName) {
+        for (ImageRendition rendition : values()) {
+            String suffix = rendition.suffix();
+            if (fileName.endsWith(suffix) && fileName.length() > suffix.length()) {
+                return fileName.substring(0, fileName.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+
+    private String suffix() {
+        return "_" + name().toLowerCase() + ".jpg";
+    }
+}
@@ -0,0 +1,106 @@
+package com.java.moveminds.events;
+
+import com.java.moveminds.entities.AttributeEntity;
+import com.java.moveminds.entities.AttributeValueEntity;
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.CityEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.LocationEntity;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.entities.UserEntity;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Monotonically increasing version stamps per aggregate, bumped after every committed change, from which
+ * controllers derive strong ETags. The ETag is computed before any database work, so a conditional GET
+ * for unchanged data is answered with 304 without loading or serializing anything.
+ * Versions live in memory and start over on restart; every ETag carries a per-instance epoch so that
+ * tags from a previous run or another instance never match.
+ */
+@Component
+public class AggregateVersions {
+
+    public enum Aggregate {
+        PROGRAMS, CURRICULA, USERS, CATEGORIES, ATTRIBUTES, LOCATIONS, CITIES
+    }
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<Aggregate, AtomicLong> versions = new EnumMap<>(Aggregate.class);
+    private final Map<Integer, Long> programVersions = new ConcurrentHashMap<>();
+
+    public AggregateVersions() {
+        for (Aggregate aggregate : Aggregate.values()) {
+            versions.put(aggregate, new AtomicLong());
+        }
+    }
+
+    /**
+     * Returns a strong ETag for a response built from the given aggregates.
+     */
+    public String eTag(Aggregate... aggregates) {
+        return Arrays.stream(aggregates)
+                .map(aggregate -> Long.toString(versions.get(aggregate).get()))
+                .collect(Collectors.joining("-", "\"" + epoch + "-", "\""));
+    }
+
+    /**
+     * Returns a strong ETag for the detail view of a single program, which changes with the program itself
+     * (including its images and attributes) and with the instructors, locations, categories and attributes it shows.
+     */
+    public String programETag(Integer programId) {
+        long programVersion = programVersions.getOrDefault(programId, 0L);
+        return "\"" + epoch + "-p" + programId + "." + programVersion + "-"
+                + versions.get(Aggregate.USERS).get() + "-"
+                + versions.get(Aggregate.LOCATIONS).get() + "-"
+                + versions.get(Aggregate.CATEGORIES).get() + "-"
+                + versions.get(Aggregate.ATTRIBUTES).get() + "\"";
+    }
+
+    // Runs after the read models have applied the change, so a new ETag is never served with the old data
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.contains(FitnessProgramEntity.class)) {
+            bumpPrograms(event.getIds(FitnessProgramEntity.class));
+        }
+        bumpIf(event, ProgramModuleEntity.class, Aggregate.CURRICULA);
+        bumpIf(event, UserEntity.class, Aggregate.USERS);
+        bumpIf(event, CategoryEntity.class, Aggregate.CATEGORIES);
+        bumpIf(event, AttributeEntity.class, Aggregate.ATTRIBUTES);
+        bumpIf(event, AttributeValueEntity.class, Aggregate.ATTRIBUTES);
+        bumpIf(event, LocationEntity.class, Aggregate.LOCATIONS);
+        bumpIf(event, CityEntity.class, Aggregate.CITIES);
+    }
+
+    /**
+     * Bumps the listing and detail versions of the given programs. Read models call this when they bring
+     * programs up to date after the change was announced (a repaired refresh, or a change delivered while
+     * they were being rebuilt), since clients may have cached the stale entries under the version bumped then.
+     */
+    public void bumpPrograms(Collection<Integer> programIds) {
+        if (programIds.isEmpty()) {
+            return;
+        }
+        long version = versions.get(Aggregate.PROGRAMS).incrementAndGet();
+        // Stamped with the global version so a deleted and re-created entry never repeats an old stamp
+        programIds.forEach(id -> programVersions.put(id, version));
+    }
+
+    private void bumpIf(EntityChangedEvent event, Class<?> entityType, Aggregate aggregate) {
+        if (event.contains(entityType)) {
+            versions.get(aggregate).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.java.moveminds.events;
+
+import com.java.moveminds.entities.AttributeEntity;
+import com.java.moveminds.entities.AttributeValueEntity;
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.CityEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.LocationEntity;
+import com.java.moveminds.entities.ProgramAttributeEntity;
+import com.java.moveminds.entities.ProgramImageEntity;
+import com.java.moveminds.entities.ProgramLessonEntity;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.entities.ProgramResourceEntity;
+import com.java.moveminds.entities.UserEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA entity listener (instantiated by Hibernate through Spring) that collects the entities changed
+ * in the current transaction and publishes a single EntityChangedEvent after it commits.
+ * Pending changes are bound to the transaction's synchronization scope, so a suspended outer
+ * transaction and the REQUIRES_NEW transaction running inside it each publish only their own changes.
+ */
+@RequiredArgsConstructor
+public class EntityChangeListener {
+    private static final Object PENDING_CHANGES_KEY = EntityChangeListener.class;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof FitnessProgramEntity program) {
+            record(FitnessProgramEntity.class, program.getId());
+        } else if (entity instanceof ProgramImageEntity image && image.getFitnessProgram() != null) {
+            record(FitnessProgramEntity.class, image.getFitnessProgram().getId());
+        } else if (entity instanceof ProgramAttributeEntity attribute && attribute.getFitnessProgram() != null) {
+            record(FitnessProgramEntity.class, attribute.getFitnessProgram().getId());
+        } else if (entity instanceof ProgramModuleEntity module && module.getFitnessProgram() != null) {
+            record(ProgramModuleEntity.class, module.getFitnessProgram().getId());
+        } else if (entity instanceof ProgramLessonEntity lesson && lesson.getProgramModule() != null
+                && lesson.getProgramModule().getFitnessProgram() != null) {
+            record(ProgramModuleEntity.class, lesson.getProgramModule().getFitnessProgram().getId());
+        } else if (entity instanceof ProgramResourceEntity resource && resource.getProgramLesson() != null
+                && resource.getProgramLesson().getProgramModule() != null
+                && resource.getProgramLesson().getProgramModule().getFitnessProgram() != null) {
+            record(ProgramModuleEntity.class, resource.getProgramLesson().getProgramModule().getFitnessProgram().getId());
+        } else if (entity instanceof AttributeEntity attribute) {
+            record(AttributeEntity.class, attribute.getId());
+        } else if (entity instanceof AttributeValueEntity attributeValue) {
+            record(AttributeValueEntity.class, attributeValue.getId());
+        } else if (entity instanceof CategoryEntity category) {
+            record(CategoryEntity.class, category.getId());
+        } else if (entity instanceof UserEntity user) {
+            record(UserEntity.class, user.getId());
+        } else if (entity instanceof LocationEntity location) {
+            record(LocationEntity.class, location.getId());
+        } else if (entity instanceof CityEntity city) {
+            record(CityEntity.class, city.getId());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void record(Class<?> entityType, Integer id) {
+        if (id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new EntityChangedEvent(Map.of(entityType, Set.of(id))));
+            return;
+        }
+
+        Map<Class<?>, Set<Integer>> pending =
+                (Map<Class<?>, Set<Integer>>) TransactionSynchronizationManager.getResource(PENDING_CHANGES_KEY);
+        if (pending == null) {
+            Map<Class<?>, Set<Integer>> changes = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // A REQUIRES_NEW transaction suspends this one: its changes must collect in a map of its own
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(new EntityChangedEvent(changes));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+                }
+            });
+            pending = changes;
+        }
+        pending.computeIfAbsent(entityType, type -> new HashSet<>()).add(id);
+    }
+}
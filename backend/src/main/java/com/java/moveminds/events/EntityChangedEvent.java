@@ -0,0 +1,28 @@
+package com.java.moveminds.events;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Published once per committed transaction with the ids of the entities it inserted, updated or deleted,
+ * grouped by entity type. Child rows such as program images and attributes are reported under their
+ * owning FitnessProgramEntity; curriculum changes (modules, lessons and resources) are reported under
+ * ProgramModuleEntity with the id of the program they belong to.
+ * Read models subscribe to it to stay in step with the database.
+ */
+public class EntityChangedEvent {
+    private final Map<Class<?>, Set<Integer>> changes;
+
+    public EntityChangedEvent(Map<Class<?>, Set<Integer>> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    public Set<Integer> getIds(Class<?> entityType) {
+        return changes.getOrDefault(entityType, Set.of());
+    }
+
+    public boolean contains(Class<?> entityType) {
+        return changes.containsKey(entityType);
+    }
+}
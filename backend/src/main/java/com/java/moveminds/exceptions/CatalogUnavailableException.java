@@ -0,0 +1,7 @@
+package com.java.moveminds.exceptions;
+
+public class CatalogUnavailableException extends RuntimeException {
+    public CatalogUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -70,7 +71,8 @@ public class GlobalExceptionHandler {
             ImageUploadException.class,
             AttributeValueNotFoundException.class,
             ProgramNotFoundException.class,
-            UnauthorizedAccessException.class
+            UnauthorizedAccessException.class,
+            CatalogUnavailableException.class
     })
     public ResponseEntity<ErrorResponse> handleCustomExceptions(HttpServletRequest request, Exception exception) {
         HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
@@ -91,11 +93,19 @@ public class GlobalExceptionHandler {
             status = HttpStatus.BAD_REQUEST;
         } else if (exception instanceof UnauthorizedAccessException) {
             status = HttpStatus.UNAUTHORIZED;
+        } else if (exception instanceof CatalogUnavailableException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
         }
 
         return buildErrorResponse(request, status, exception.getMessage(), exception);
     }
 
+    // Handle OptimisticLockingFailureException (an edited row was changed by someone else in the meantime)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(HttpServletRequest request, OptimisticLockingFailureException exception) {
+        return buildErrorResponse(request, HttpStatus.CONFLICT, exception.getMessage(), exception);
+    }
+
     // Handle MethodArgumentTypeMismatchException
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse> handleTypeMismatchException(HttpServletRequest request, MethodArgumentTypeMismatchException exception) {
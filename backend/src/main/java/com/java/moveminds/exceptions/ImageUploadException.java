@@ -4,4 +4,8 @@ public class ImageUploadException extends RuntimeException {
     public ImageUploadException() {
         super();
     }
-}
\ No newline at end of file
+
+    public ImageUploadException(String message) {
+        super(message);
+    }
+}
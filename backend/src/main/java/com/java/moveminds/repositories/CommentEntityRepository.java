@@ -3,10 +3,25 @@ package com.java.moveminds.repositories;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.java.moveminds.entities.CommentEntity;
 
+import java.sql.Timestamp;
+import java.util.List;
+
 @Repository
 public interface CommentEntityRepository extends JpaRepository<CommentEntity, Integer> {
     Page<CommentEntity> findAllByFitnessProgramId(Integer fitnessProgramId, Pageable pageable);
+
+    // Keyset pagination, newest first; a null cursor returns the first page
+    @Query("SELECT c FROM CommentEntity c JOIN FETCH c.user WHERE c.fitnessProgram.id = :programId " +
+            "AND (:afterPostedAt IS NULL OR c.postedAt < :afterPostedAt " +
+            "     OR (c.postedAt = :afterPostedAt AND c.id < :afterId)) " +
+            "ORDER BY c.postedAt DESC, c.id DESC")
+    List<CommentEntity> findPageByProgramId(@Param("programId") Integer programId,
+                                            @Param("afterPostedAt") Timestamp afterPostedAt,
+                                            @Param("afterId") Integer afterId,
+                                            Pageable pageable);
 }
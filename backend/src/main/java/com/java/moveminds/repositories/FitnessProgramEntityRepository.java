@@ -2,6 +2,7 @@ package com.java.moveminds.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -10,8 +11,10 @@ import org.springframework.stereotype.Repository;
 import com.java.moveminds.entities.CategoryEntity;
 import com.java.moveminds.entities.FitnessProgramEntity;
 import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.repositories.projections.ProgramSummaryView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,9 +22,6 @@ import java.util.Optional;
 public interface FitnessProgramEntityRepository extends JpaRepository<FitnessProgramEntity, Integer>, JpaSpecificationExecutor<FitnessProgramEntity> {
     Optional<FitnessProgramEntity> findByName(String name);
     Page<FitnessProgramEntity> findAllByUserId(Integer userId, Pageable pageable);
-    Page<FitnessProgramEntity> findDistinctByProgramAttributes_AttributeValue_Id(Integer attributeValueId, Pageable pageable);
-    Page<FitnessProgramEntity> findDistinctByProgramAttributes_AttributeValue_IdIn(List<Integer> attributeValueIds, Pageable pageable);
-    Page<FitnessProgramEntity> findAllByCategoryId(Integer categoryId, Pageable pageable);
     List<FitnessProgramEntity> findAllByCategoryAndCreatedAtAfter(CategoryEntity category, LocalDateTime createdAt);
     Page<FitnessProgramEntity> findByUser(UserEntity user, Pageable pageable);
     
@@ -43,4 +43,65 @@ public interface FitnessProgramEntityRepository extends JpaRepository<FitnessPro
     long countByIsActiveAndCreatedAtAfter(Boolean isActive, LocalDateTime dateTime);
     Page<FitnessProgramEntity> findByIsActive(Boolean isActive, Pageable pageable);
     List<FitnessProgramEntity> findByIsActiveAndCreatedAtAfter(Boolean isActive, LocalDateTime dateTime);
-}
+    
+    // Catalog read model: instructor and location fetched with the program, images/attributes loaded separately
+    @Query("SELECT p FROM FitnessProgramEntity p JOIN FETCH p.user LEFT JOIN FETCH p.location")
+    List<FitnessProgramEntity> findAllForCatalog();
+    
+    @Query("SELECT p FROM FitnessProgramEntity p JOIN FETCH p.user LEFT JOIN FETCH p.location WHERE p.id IN :ids")
+    List<FitnessProgramEntity> findAllForCatalogByIdIn(@Param("ids") Collection<Integer> ids);
+    
+    // Listing projections: one statement per page (plus one IN query for the page's image URLs)
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.name AS name, p.description AS description, p.price AS price, " +
+            "p.duration AS duration, p.difficultyLevel AS difficultyLevel, u.id AS instructorId, " +
+            "u.firstName AS instructorFirstName, u.lastName AS instructorLastName, u.username AS instructorUsername, " +
+            "l.name AS locationName, c.id AS categoryId, c.name AS categoryName, p.createdAt AS createdAt, " +
+            "p.isActive AS active " +
+            "FROM FitnessProgramEntity p JOIN p.user u LEFT JOIN p.location l LEFT JOIN p.category c ";
+    
+    @Query(value = SUMMARY_SELECT + "WHERE p.isActive = true",
+            countQuery = "SELECT COUNT(p) FROM FitnessProgramEntity p WHERE p.isActive = true")
+    Page<ProgramSummaryView> findActiveSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE c.id = :categoryId",
+            countQuery = "SELECT COUNT(p) FROM FitnessProgramEntity p WHERE p.category.id = :categoryId")
+    Page<ProgramSummaryView> findSummariesByCategoryId(@Param("categoryId") Integer categoryId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE EXISTS (SELECT pa.id FROM ProgramAttributeEntity pa " +
+            "WHERE pa.fitnessProgram = p AND pa.attributeValue.id = :attributeValueId)",
+            countQuery = "SELECT COUNT(p) FROM FitnessProgramEntity p WHERE EXISTS (SELECT pa.id FROM ProgramAttributeEntity pa " +
+                    "WHERE pa.fitnessProgram = p AND pa.attributeValue.id = :attributeValueId)")
+    Page<ProgramSummaryView> findSummariesByAttributeValueId(@Param("attributeValueId") Integer attributeValueId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE EXISTS (SELECT pa.id FROM ProgramAttributeEntity pa " +
+            "WHERE pa.fitnessProgram = p AND pa.attributeValue.attribute.id = :attributeId)",
+            countQuery = "SELECT COUNT(p) FROM FitnessProgramEntity p WHERE EXISTS (SELECT pa.id FROM ProgramAttributeEntity pa " +
+                    "WHERE pa.fitnessProgram = p AND pa.attributeValue.attribute.id = :attributeId)")
+    Page<ProgramSummaryView> findSummariesByAttributeId(@Param("attributeId") Integer attributeId, Pageable pageable);
+    
+    // Keyset sort key: created_at is nullable (seed rows leave it unset), so those programs sort as the epoch, last
+    String CREATED_AT_KEY = "COALESCE(p.createdAt, CAST('1970-01-01 00:00:00' AS LocalDateTime))";
+    LocalDateTime CREATED_AT_FALLBACK = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    // Keyset pagination over active programs, newest first; a null cursor returns the first page
+    @Query(SUMMARY_SELECT + "WHERE p.isActive = true " +
+            "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+            "AND (:afterCreatedAt IS NULL OR " + CREATED_AT_KEY + " < :afterCreatedAt " +
+            "     OR (" + CREATED_AT_KEY + " = :afterCreatedAt AND p.id < :afterId)) " +
+            "ORDER BY " + CREATED_AT_KEY + " DESC, p.id DESC")
+    List<ProgramSummaryView> findActiveSummariesAfter(@Param("categoryId") Integer categoryId,
+                                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                      @Param("afterId") Integer afterId,
+                                                      Pageable pageable);
+    
+    // Search index: every program, active or not
+    @Query(SUMMARY_SELECT)
+    List<ProgramSummaryView> findAllSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProgramSummaryView> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+    
+    // Program detail: single-valued associations and images in one statement; attributes are loaded separately
+    @EntityGraph(attributePaths = {"user", "location", "category", "programImages"})
+    Optional<FitnessProgramEntity> findWithDetailsById(Integer id);
+}
\ No newline at end of file
@@ -1,9 +1,20 @@
 package com.java.moveminds.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.java.moveminds.entities.LogEntity;
 
+import java.sql.Timestamp;
+import java.util.List;
+
 @Repository
-public interface LogEntityRepository extends JpaRepository<LogEntity, Integer> {
+public interface LogEntityRepository extends JpaRepository<LogEntity, Integer>, JpaSpecificationExecutor<LogEntity> {
+
+    // Oldest entries first so each retention chunk walks idx_log_timestamp_id
+    @Query("SELECT l.id FROM LogEntity l WHERE l.timestamp < :cutoff ORDER BY l.timestamp, l.id")
+    List<Integer> findIdsOlderThan(@Param("cutoff") Timestamp cutoff, Pageable pageable);
 }
@@ -1,7 +1,37 @@
 package com.java.moveminds.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.java.moveminds.entities.ProgramAttributeEntity;
+import com.java.moveminds.repositories.projections.AttributeValueCountView;
+import com.java.moveminds.repositories.projections.ProgramAttributeValueView;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProgramAttributeEntityRepository extends JpaRepository<ProgramAttributeEntity, Integer> {
+
+    @Query("SELECT pa.fitnessProgram.id AS programId, av.attribute.id AS attributeId, av.id AS attributeValueId " +
+            "FROM ProgramAttributeEntity pa JOIN pa.attributeValue av")
+    List<ProgramAttributeValueView> findAllAttributeValues();
+
+    @Query("SELECT pa.fitnessProgram.id AS programId, av.attribute.id AS attributeId, av.id AS attributeValueId " +
+            "FROM ProgramAttributeEntity pa JOIN pa.attributeValue av WHERE pa.fitnessProgram.id IN :programIds")
+    List<ProgramAttributeValueView> findAttributeValuesByProgramIds(@Param("programIds") Collection<Integer> programIds);
+
+    // Program detail: each attribute with its selected value and the attribute's full value list
+    @Query("SELECT pa FROM ProgramAttributeEntity pa JOIN FETCH pa.attributeValue av JOIN FETCH av.attribute a " +
+            "LEFT JOIN FETCH a.attributeValues WHERE pa.fitnessProgram.id = :programId")
+    List<ProgramAttributeEntity> findAllWithValuesByProgramId(@Param("programId") Integer programId);
+
+    // Category facet tree: every attribute value used by a program, with the number of active programs using it,
+    // and the categories whose programs carry attributes
+    @Query("SELECT pa.attributeValue.id AS attributeValueId, " +
+            "COUNT(DISTINCT CASE WHEN fp.isActive = true THEN fp.id END) AS programCount " +
+            "FROM ProgramAttributeEntity pa JOIN pa.fitnessProgram fp GROUP BY pa.attributeValue.id")
+    List<AttributeValueCountView> countProgramsByAttributeValue();
+
+    @Query("SELECT DISTINCT pa.fitnessProgram.category.id FROM ProgramAttributeEntity pa")
+    List<Integer> findCategoryIdsWithProgramAttributes();
 }
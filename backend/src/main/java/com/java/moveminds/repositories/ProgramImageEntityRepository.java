@@ -1,12 +1,31 @@
 package com.java.moveminds.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.java.moveminds.entities.ProgramImageEntity;
+import com.java.moveminds.repositories.projections.ProgramImageUrlView;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProgramImageEntityRepository extends JpaRepository<ProgramImageEntity, Integer> {
-    Optional<ProgramImageEntity> findByImageUrl(String imageUrl);
+    // Identical uploads share a URL, so several rows (even of one program) may point at the same image
+    Optional<ProgramImageEntity> findFirstByFitnessProgramIdAndImageUrl(Integer programId, String imageUrl);
+    List<ProgramImageEntity> findAllByImageUrl(String imageUrl);
+    List<ProgramImageEntity> findAllByImageUrlIn(Collection<String> imageUrls);
+    boolean existsByImageUrl(String imageUrl);
+
+    @Query("SELECT DISTINCT i.imageUrl FROM ProgramImageEntity i WHERE i.imageUrl IN :imageUrls")
+    List<String> findReferencedImageUrls(@Param("imageUrls") Collection<String> imageUrls);
+
+    @Query("SELECT i.fitnessProgram.id AS programId, i.imageUrl AS imageUrl, i.srcset AS srcset FROM ProgramImageEntity i ORDER BY i.id")
+    List<ProgramImageUrlView> findAllImageUrls();
+
+    @Query("SELECT i.fitnessProgram.id AS programId, i.imageUrl AS imageUrl, i.srcset AS srcset FROM ProgramImageEntity i " +
+            "WHERE i.fitnessProgram.id IN :programIds ORDER BY i.id")
+    List<ProgramImageUrlView> findImageUrlsByProgramIds(@Param("programIds") Collection<Integer> programIds);
 }
@@ -2,11 +2,13 @@ package com.java.moveminds.repositories;
 
 import com.java.moveminds.entities.ProgramLessonEntity;
 import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.repositories.projections.ProgramLessonTitleView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,6 +30,18 @@ public interface ProgramLessonEntityRepository extends JpaRepository<ProgramLess
     @Query("SELECT l FROM ProgramLessonEntity l WHERE l.programModule.fitnessProgram.id = :programId ORDER BY l.programModule.orderIndex, l.orderIndex")
     List<ProgramLessonEntity> findByProgramIdOrderByModuleAndLessonIndex(@Param("programId") Integer programId);
     
+    // Batch edits: only lessons of the given program are returned, with the module the change listener reads
+    @Query("SELECT l FROM ProgramLessonEntity l JOIN FETCH l.programModule m WHERE l.id IN :ids AND m.fitnessProgram.id = :programId")
+    List<ProgramLessonEntity> findAllByIdInProgram(@Param("ids") Collection<Integer> ids, @Param("programId") Integer programId);
+    
     @Query("SELECT l FROM ProgramLessonEntity l LEFT JOIN FETCH l.resources WHERE l.id IN :lessonIds ORDER BY l.orderIndex")
     List<ProgramLessonEntity> findByIdsWithResources(@Param("lessonIds") List<Integer> lessonIds);
+    
+    // Search index: lesson titles grouped by the program they belong to
+    @Query("SELECT m.fitnessProgram.id AS programId, l.title AS title FROM ProgramLessonEntity l JOIN l.programModule m")
+    List<ProgramLessonTitleView> findAllTitles();
+    
+    @Query("SELECT m.fitnessProgram.id AS programId, l.title AS title FROM ProgramLessonEntity l JOIN l.programModule m " +
+           "WHERE m.fitnessProgram.id IN :programIds")
+    List<ProgramLessonTitleView> findTitlesByProgramIds(@Param("programIds") Collection<Integer> programIds);
 }
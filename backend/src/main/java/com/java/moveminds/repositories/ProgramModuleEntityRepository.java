@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,6 +23,10 @@ public interface ProgramModuleEntityRepository extends JpaRepository<ProgramModu
     @Query("SELECT DISTINCT m FROM ProgramModuleEntity m LEFT JOIN FETCH m.lessons WHERE m.fitnessProgram.id = :programId AND m.isPublished = true ORDER BY m.orderIndex")
     List<ProgramModuleEntity> findPublishedByProgramIdOrderByOrderIndex(@Param("programId") Integer programId);
     
+    // Batch edits: only modules of the given program are returned
+    @Query("SELECT m FROM ProgramModuleEntity m WHERE m.id IN :ids AND m.fitnessProgram.id = :programId")
+    List<ProgramModuleEntity> findAllByIdInProgram(@Param("ids") Collection<Integer> ids, @Param("programId") Integer programId);
+    
     @Query("SELECT MAX(m.orderIndex) FROM ProgramModuleEntity m WHERE m.fitnessProgram.id = :programId")
     Integer findMaxOrderIndexByProgramId(@Param("programId") Integer programId);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,6 +18,27 @@ public interface ProgramResourceEntityRepository extends JpaRepository<ProgramRe
     @Query("SELECT r FROM ProgramResourceEntity r WHERE r.programLesson.id = :lessonId ORDER BY r.orderIndex")
     List<ProgramResourceEntity> findByLessonIdOrderByOrderIndex(@Param("lessonId") Integer lessonId);
     
+    // Resource bundles: resources with their lesson and module, in curriculum order
+    @Query("SELECT r FROM ProgramResourceEntity r JOIN FETCH r.programLesson l JOIN FETCH l.programModule m " +
+           "WHERE m.fitnessProgram.id = :programId ORDER BY m.orderIndex, l.orderIndex, r.orderIndex")
+    List<ProgramResourceEntity> findByProgramIdInCurriculumOrder(@Param("programId") Integer programId);
+    
+    @Query("SELECT r FROM ProgramResourceEntity r JOIN FETCH r.programLesson l JOIN FETCH l.programModule m " +
+           "WHERE m.id = :moduleId ORDER BY l.orderIndex, r.orderIndex")
+    List<ProgramResourceEntity> findByModuleIdInCurriculumOrder(@Param("moduleId") Integer moduleId);
+    
+    // Batch edits: only resources of the given program are returned, with the lesson and module the change listener reads
+    @Query("SELECT r FROM ProgramResourceEntity r JOIN FETCH r.programLesson l JOIN FETCH l.programModule m " +
+           "WHERE r.id IN :ids AND m.fitnessProgram.id = :programId")
+    List<ProgramResourceEntity> findAllByIdInProgram(@Param("ids") Collection<Integer> ids, @Param("programId") Integer programId);
+    
     @Query("SELECT MAX(r.orderIndex) FROM ProgramResourceEntity r WHERE r.programLesson.id = :lessonId")
     Integer findMaxOrderIndexByLessonId(@Param("lessonId") Integer lessonId);
+    
+    boolean existsByFileUrl(String fileUrl);
+    
+    List<ProgramResourceEntity> findAllByFileUrlIn(Collection<String> fileUrls);
+    
+    @Query("SELECT DISTINCT r.fileUrl FROM ProgramResourceEntity r WHERE r.fileUrl IN :fileUrls")
+    List<String> findReferencedFileUrls(@Param("fileUrls") Collection<String> fileUrls);
 }
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import com.java.moveminds.entities.UserEntity;
 import com.java.moveminds.enums.Roles;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,12 @@ import java.util.Optional;
 public interface UserEntityRepository extends JpaRepository<UserEntity, Integer>, JpaSpecificationExecutor<UserEntity> {
     Optional<UserEntity> findByEmail(String email);
     Optional<UserEntity> findByUsername(String username);
+    boolean existsByAvatarUrl(String avatarUrl);
+    
+    @Query("SELECT DISTINCT u.avatarUrl FROM UserEntity u WHERE u.avatarUrl IN :avatarUrls")
+    List<String> findReferencedAvatarUrls(@Param("avatarUrls") Collection<String> avatarUrls);
+    List<UserEntity> findAllByUsernameIn(Collection<String> usernames);
+    List<UserEntity> findAllByAvatarUrlIn(Collection<String> avatarUrls);
     List<UserEntity> findAllByRole(Roles role);
     List<UserEntity> findAllByRoleNotAndUsernameNot(Roles role, String username);
     
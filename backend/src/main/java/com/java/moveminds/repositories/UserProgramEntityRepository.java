@@ -30,6 +30,16 @@ public interface UserProgramEntityRepository extends JpaRepository<UserProgramEn
     @Query("SELECT up FROM UserProgramEntity up WHERE up.fitnessProgramByProgramId.user.id = :instructorId ORDER BY up.createdAt DESC")
     Page<UserProgramEntity> findByInstructorId(@Param("instructorId") Integer instructorId, Pageable pageable);
     
+    // Keyset pagination over an instructor's enrollments, newest first; a null cursor returns the first page
+    @Query("SELECT up FROM UserProgramEntity up WHERE up.fitnessProgramByProgramId.user.id = :instructorId " +
+            "AND (:afterCreatedAt IS NULL OR up.createdAt < :afterCreatedAt " +
+            "     OR (up.createdAt = :afterCreatedAt AND up.id < :afterId)) " +
+            "ORDER BY up.createdAt DESC, up.id DESC")
+    List<UserProgramEntity> findPageByInstructorId(@Param("instructorId") Integer instructorId,
+                                                   @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                   @Param("afterId") Integer afterId,
+                                                   Pageable pageable);
+    
     @Query("SELECT up FROM UserProgramEntity up WHERE up.fitnessProgramByProgramId.id = :programId")
     List<UserProgramEntity> findByProgramId(@Param("programId") Integer programId);
     
@@ -0,0 +1,6 @@
+package com.java.moveminds.repositories.projections;
+
+public interface AttributeValueCountView {
+    Integer getAttributeValueId();
+    Long getProgramCount();
+}
@@ -0,0 +1,7 @@
+package com.java.moveminds.repositories.projections;
+
+public interface ProgramAttributeValueView {
+    Integer getProgramId();
+    Integer getAttributeId();
+    Integer getAttributeValueId();
+}
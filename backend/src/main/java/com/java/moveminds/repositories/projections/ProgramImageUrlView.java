@@ -0,0 +1,7 @@
+package com.java.moveminds.repositories.projections;
+
+public interface ProgramImageUrlView {
+    Integer getProgramId();
+    String getImageUrl();
+    String getSrcset();
+}
@@ -0,0 +1,6 @@
+package com.java.moveminds.repositories.projections;
+
+public interface ProgramLessonTitleView {
+    Integer getProgramId();
+    String getTitle();
+}
@@ -0,0 +1,27 @@
+package com.java.moveminds.repositories.projections;
+
+import com.java.moveminds.enums.DifficultyLevel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat listing row for a fitness program with its instructor, location and category already joined.
+ */
+public interface ProgramSummaryView {
+    Integer getId();
+    String getName();
+    String getDescription();
+    BigDecimal getPrice();
+    Integer getDuration();
+    DifficultyLevel getDifficultyLevel();
+    Integer getInstructorId();
+    String getInstructorFirstName();
+    String getInstructorLastName();
+    String getInstructorUsername();
+    String getLocationName();
+    Integer getCategoryId();
+    String getCategoryName();
+    LocalDateTime getCreatedAt();
+    Boolean getActive();
+}
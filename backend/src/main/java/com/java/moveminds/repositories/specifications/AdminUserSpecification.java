@@ -64,6 +64,11 @@ public class AdminUserSpecification {
         };
     }
     
+    public static Specification<UserEntity> hasIdLessThan(Integer id) {
+        return (root, query, criteriaBuilder) -> 
+            id != null ? criteriaBuilder.lessThan(root.get("id"), id) : null;
+    }
+    
     public static Specification<UserEntity> buildSpecification(
             Roles role, String searchTerm, Boolean isVerified, 
             LocalDateTime createdAfter, LocalDateTime createdBefore, 
@@ -0,0 +1,65 @@
+package com.java.moveminds.repositories.specifications;
+
+import com.java.moveminds.entities.LogEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+/**
+ * Audit log filters. Each filter only adds its predicate when it is set, so the generated query keeps
+ * the plain shape idx_log_user_timestamp, idx_log_action_timestamp and idx_log_timestamp_id can serve.
+ */
+public class LogSpecification {
+
+    public static Specification<LogEntity> hasUserIn(Collection<String> users) {
+        return (root, query, criteriaBuilder) ->
+            users != null && !users.isEmpty() ? root.get("user").in(users) : null;
+    }
+
+    public static Specification<LogEntity> hasActionPrefix(String action) {
+        return (root, query, criteriaBuilder) ->
+            action != null ? criteriaBuilder.like(root.get("action"), escapeLike(action) + "%", '\\') : null;
+    }
+
+    public static Specification<LogEntity> isAtOrAfter(Timestamp from) {
+        return (root, query, criteriaBuilder) ->
+            from != null ? criteriaBuilder.greaterThanOrEqualTo(root.get("timestamp"), from) : null;
+    }
+
+    public static Specification<LogEntity> isBefore(Timestamp to) {
+        return (root, query, criteriaBuilder) ->
+            to != null ? criteriaBuilder.lessThan(root.get("timestamp"), to) : null;
+    }
+
+    /**
+     * Rows after the cursor in (timestamp DESC, id DESC) order. Rows without a timestamp have no place
+     * in that order and are never listed.
+     */
+    public static Specification<LogEntity> isAfterCursor(Timestamp afterTimestamp, Integer afterId) {
+        return (root, query, criteriaBuilder) -> {
+            if (afterTimestamp == null) {
+                return criteriaBuilder.isNotNull(root.get("timestamp"));
+            }
+            return criteriaBuilder.or(
+                criteriaBuilder.lessThan(root.get("timestamp"), afterTimestamp),
+                criteriaBuilder.and(
+                    criteriaBuilder.equal(root.get("timestamp"), afterTimestamp),
+                    criteriaBuilder.lessThan(root.get("id"), afterId)));
+        };
+    }
+
+    public static Specification<LogEntity> buildSpecification(
+            Collection<String> users, String action, Timestamp from, Timestamp to,
+            Timestamp afterTimestamp, Integer afterId) {
+        return Specification.where(hasUserIn(users))
+                .and(hasActionPrefix(action))
+                .and(isAtOrAfter(from))
+                .and(isBefore(to))
+                .and(isAfterCursor(afterTimestamp, afterId));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import com.java.moveminds.dto.response.CommentResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
 
 import java.security.Principal;
 
@@ -11,4 +12,5 @@ import java.security.Principal;
 public interface CommentService {
     CommentResponse addComment(Principal principal, Integer programId, String comment);
     Page<CommentResponse> getComments(Integer programId, Pageable pageable);
+    CursorPageResponse<CommentResponse> getCommentsAfter(Integer programId, String after, int size);
 }
@@ -8,10 +8,22 @@ import java.nio.file.Path;
 public interface FileStorageService {
     
     /**
-     * Store a file and return the file path
+     * Store a file under the SHA-256 of its content and return its name;
+     * storing identical content again returns the same name
      */
     String storeFile(MultipartFile file, String subDirectory) throws IOException;
     
+    /**
+     * Create an empty temp file next to the stored files of a subdirectory,
+     * e.g. to assemble a chunked upload before it is stored
+     */
+    Path createTempFile(String subDirectory) throws IOException;
+    
+    /**
+     * Move a complete temp file (see createTempFile) into storage and return its name
+     */
+    String storeFile(Path source, String originalFilename, String subDirectory) throws IOException;
+    
     /**
      * Get the file path for a given filename
      */
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import com.java.moveminds.dto.CategoryDTO;
 import com.java.moveminds.dto.requests.FitnessProgramRequest;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.FacetSearchResponse;
 import com.java.moveminds.dto.response.FitnessProgramHomeResponse;
 import com.java.moveminds.dto.response.FitnessProgramListResponse;
 import com.java.moveminds.dto.response.FitnessProgramResponse;
@@ -23,6 +25,9 @@ public interface FitnessProgramService {
     Page<FitnessProgramListResponse> getMyFitnessPrograms(Principal principal, Pageable pageable);
     @Transactional
     Page<FitnessProgramHomeResponse> getAllFitnessPrograms(Pageable pageable);
+    CursorPageResponse<FitnessProgramHomeResponse> getFitnessProgramsAfter(Integer categoryId, String after, int size);
+    FacetSearchResponse searchByFacets(List<String> filters, int page, int size);
+    Page<FitnessProgramHomeResponse> searchFitnessPrograms(String query, int page, int size);
     FitnessProgramResponse getFitnessProgram(Integer id);
     @Transactional
     FitnessProgramResponse updateFitnessProgram(Integer programId, FitnessProgramRequest fitnessProgramRequest, List<MultipartFile> files, List<String> removedImages) throws IOException;
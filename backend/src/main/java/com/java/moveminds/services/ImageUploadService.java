@@ -1,12 +1,19 @@
 package com.java.moveminds.services;
 
+import com.java.moveminds.entities.ImageVariant;
+import com.java.moveminds.enums.ImageRendition;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public interface ImageUploadService {
     String uploadImage(MultipartFile file) throws IOException;
-    void deleteImageFile(String imageUrl) throws IOException;
+    List<String> uploadImages(List<MultipartFile> files) throws IOException;
+    CompletableFuture<Map<ImageRendition, ImageVariant>> createVariants(String imageUrl);
+    boolean deleteImageFile(String imageUrl, long unmodifiedSinceMillis) throws IOException;
 }
@@ -3,6 +3,7 @@ package com.java.moveminds.services;
 import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import com.java.moveminds.dto.ParsedJwtToken;
 
 @Service
 public interface JwtService {
@@ -12,4 +13,7 @@ public interface JwtService {
 
     Claims extractAllClaims(String token);
     boolean isTokenValid(String token, UserDetails userDetails);
-}
\ No newline at end of file
+
+    ParsedJwtToken parseToken(String token);
+    boolean isTokenValid(ParsedJwtToken token, UserDetails userDetails);
+}
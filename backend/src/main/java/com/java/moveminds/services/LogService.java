@@ -1,10 +1,17 @@
 package com.java.moveminds.services;
 
 import org.springframework.stereotype.Service;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.admin.AuditLogResponse;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 
 @Service
 public interface LogService {
     void log(Principal principal, String action);
+
+    int purgeOlderThan(LocalDateTime cutoff);
+    CursorPageResponse<AuditLogResponse> searchLogs(String user, String action, LocalDateTime from,
+                                                    LocalDateTime to, String after, int size);
 }
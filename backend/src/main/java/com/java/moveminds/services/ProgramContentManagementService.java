@@ -1,8 +1,10 @@
 package com.java.moveminds.services;
 
+import com.java.moveminds.dto.request.CurriculumBatchRequest;
 import com.java.moveminds.dto.request.ProgramLessonRequest;
 import com.java.moveminds.dto.request.ProgramModuleRequest;
 import com.java.moveminds.dto.request.ProgramResourceRequest;
+import com.java.moveminds.dto.response.CurriculumBatchResponse;
 import com.java.moveminds.dto.response.ProgramLearningContentResponse;
 import com.java.moveminds.dto.response.ProgramLessonResponse;
 import com.java.moveminds.dto.response.ProgramModuleResponse;
@@ -67,4 +69,11 @@ public interface ProgramContentManagementService {
     
     @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
     void reorderResources(Integer lessonId, List<Integer> resourceIds, Principal principal);
+    
+    /**
+     * Applies edits to any modules, lessons and resources of one program in a single transaction.
+     * Fails as a whole if an item is not part of the program or was changed since the given version.
+     */
+    @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    CurriculumBatchResponse updateCurriculum(Integer programId, CurriculumBatchRequest request, Principal principal);
 }
@@ -0,0 +1,41 @@
+package com.java.moveminds.services;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * ZIP bundles of the stored resources of a lesson, a module or a whole program, for offline use.
+ * A bundle is prepared (access check and file list) before the response is committed and then
+ * streamed file by file, so nothing is buffered beyond the copy buffer.
+ */
+public interface ResourceBundleService {
+    
+    /**
+     * A prepared bundle: the stored files with their path inside the archive, and the resources
+     * that are external links and therefore only listed.
+     */
+    record ResourceBundle(String fileName, List<BundleFile> files, List<String> links) {
+    }
+    
+    record BundleFile(String entryName, Path path) {
+    }
+    
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    ResourceBundle prepareProgramBundle(Integer programId, Principal principal);
+    
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    ResourceBundle prepareModuleBundle(Integer moduleId, Principal principal);
+    
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    ResourceBundle prepareLessonBundle(Integer lessonId, Principal principal);
+    
+    /**
+     * Writes the bundle as a ZIP archive. Files that disappeared since the bundle was prepared are skipped.
+     */
+    void writeBundle(ResourceBundle bundle, OutputStream out) throws IOException;
+}
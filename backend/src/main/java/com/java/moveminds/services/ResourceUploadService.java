@@ -0,0 +1,32 @@
+package com.java.moveminds.services;
+
+import com.java.moveminds.dto.request.ResourceUploadRequest;
+import com.java.moveminds.dto.response.ProgramResourceResponse;
+import com.java.moveminds.dto.response.ResourceUploadResponse;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+
+/**
+ * Resumable, chunked upload of large lesson resources: initiate, upload chunks in any order
+ * (re-sending a chunk overwrites it), ask which chunks arrived after an interruption, then complete.
+ */
+public interface ResourceUploadService {
+    
+    @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    ResourceUploadResponse initiateUpload(Integer lessonId, ResourceUploadRequest request, Principal principal) throws IOException;
+    
+    @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    ResourceUploadResponse uploadChunk(String uploadId, int chunkIndex, InputStream content, Principal principal) throws IOException;
+    
+    @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    ResourceUploadResponse getUploadStatus(String uploadId, Principal principal);
+    
+    @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    ProgramResourceResponse completeUpload(String uploadId, Principal principal) throws IOException;
+    
+    @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    void abortUpload(String uploadId, Principal principal) throws IOException;
+}
@@ -2,8 +2,12 @@ package com.java.moveminds.services.admin;
 
 import com.java.moveminds.dto.response.admin.AdminDashboardResponse;
 import com.java.moveminds.dto.response.AdminStatsResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.admin.AuditLogResponse;
+import com.java.moveminds.dto.response.admin.UploadCleanupReport;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +42,17 @@ public interface AdminSystemManagementService {
      */
     void clearOldLogs(Principal principal, int daysOld);
     
+    /**
+     * Delete stored uploads that no program image, avatar or resource references, or only report them in a dry run
+     */
+    UploadCleanupReport cleanUpOrphanedUploads(Principal principal, boolean dryRun);
+    
+    /**
+     * Search the audit log with keyset pagination, filtered by user, action prefix and time range
+     */
+    CursorPageResponse<AuditLogResponse> searchAuditLog(Principal principal, String user, String action,
+                                                        LocalDateTime from, LocalDateTime to, String after, int size);
+    
     /**
      * Get database statistics and performance metrics
      */
@@ -3,6 +3,7 @@ package com.java.moveminds.services.admin;
 import com.java.moveminds.dto.requests.admin.AdminBulkActionRequest;
 import com.java.moveminds.dto.requests.admin.AdminUserManagementRequest;
 import com.java.moveminds.dto.response.AdminUserResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.enums.Roles;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +23,12 @@ public interface AdminUserManagementService {
     Page<AdminUserResponse> getAllUsers(Principal principal, Pageable pageable, 
                                        Roles role, String search, Boolean isVerified);
     
+    /**
+     * Get users with the same filters, newest (highest ID) first, using keyset pagination
+     */
+    CursorPageResponse<AdminUserResponse> getUsersAfter(Principal principal, Roles role, String search,
+                                                        Boolean isVerified, String after, int size);
+    
     /**
      * Get user details by ID with comprehensive information
      */
@@ -8,6 +8,7 @@ import com.java.moveminds.exceptions.UnauthorizedException;
 import com.java.moveminds.exceptions.UserNotFoundException;
 import com.java.moveminds.repositories.UserEntityRepository;
 import com.java.moveminds.services.AdminService;
+import com.java.moveminds.util.JwtPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 public class AdminServiceImpl implements AdminService {
 
     private final UserEntityRepository userRepository;
+    private final JwtPrincipalCache principalCache;
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -92,6 +94,7 @@ public class AdminServiceImpl implements AdminService {
         
         user.setRole(role);
         UserEntity savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUsername());
         
         return mapToAdminUserResponse(savedUser);
     }
@@ -107,6 +110,7 @@ public class AdminServiceImpl implements AdminService {
         
         user.setVerified(active);
         UserEntity savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUsername());
         
         return mapToAdminUserResponse(savedUser);
     }
@@ -126,6 +130,7 @@ public class AdminServiceImpl implements AdminService {
         }
         
         userRepository.delete(user);
+        principalCache.invalidate(user.getUsername());
     }
 
     @Override
@@ -150,6 +155,7 @@ public class AdminServiceImpl implements AdminService {
         
         user.setRole(Roles.INSTRUCTOR);
         UserEntity savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUsername());
         
         return mapToAdminUserResponse(savedUser);
     }
@@ -165,6 +171,7 @@ public class AdminServiceImpl implements AdminService {
         
         user.setRole(Roles.USER);
         UserEntity savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getUsername());
         
         return mapToAdminUserResponse(savedUser);
     }
@@ -2,18 +2,25 @@ package com.java.moveminds.services.impl;
 
 import com.java.moveminds.dto.response.admin.AdminDashboardResponse;
 import com.java.moveminds.dto.response.AdminStatsResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.admin.AuditLogResponse;
+import com.java.moveminds.dto.response.admin.UploadCleanupReport;
 import com.java.moveminds.enums.Roles;
 import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.LogService;
 import com.java.moveminds.services.admin.AdminSystemManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.security.Principal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
@@ -26,7 +33,11 @@ import java.util.*;
 @Transactional(readOnly = true)
 public class AdminSystemManagementServiceImpl implements AdminSystemManagementService {
     
+    private static final DateTimeFormatter LOG_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
     private final UserEntityRepository userRepository;
+    private final LogService logService;
+    private final OrphanedUploadCollector orphanedUploadCollector;
     
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -134,23 +145,52 @@ public class AdminSystemManagementServiceImpl implements AdminSystemManagementSe
         log.info("Admin {} requesting system logs: limit={}, level={}, category={}", 
                 principal.getName(), limit, level, category);
         
-        // Placeholder implementation - would integrate with actual logging system
-        List<String> logs = new ArrayList<>();
-        logs.add("2024-01-01 10:00:00 INFO - System started");
-        logs.add("2024-01-01 10:01:00 INFO - Database connection established");
-        logs.add("2024-01-01 10:02:00 INFO - Cache initialized");
+        // Audit entries carry no level, so a level filter cannot be honoured; the category is applied as an action prefix
+        if (StringUtils.hasText(level)) {
+            throw new IllegalArgumentException("Filtering system logs by level is not supported");
+        }
+        CursorPageResponse<AuditLogResponse> page = logService.searchLogs(null, category, null, null, null, limit);
         
-        return logs.stream().limit(limit).toList();
+        return page.getContent().stream()
+                .map(entry -> (entry.getTimestamp() != null ? entry.getTimestamp().format(LOG_TIMESTAMP_FORMAT) : "-")
+                        + " " + entry.getUser() + " - " + entry.getAction())
+                .toList();
     }
     
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Each purge chunk commits on its own
     public void clearOldLogs(Principal principal, int daysOld) {
         log.info("Admin {} clearing logs older than {} days", principal.getName(), daysOld);
         
-        // Placeholder implementation - would integrate with actual logging system
-        log.info("Logs older than {} days have been cleared", daysOld);
+        if (daysOld < 0) {
+            throw new IllegalArgumentException("daysOld must not be negative");
+        }
+        int deleted = logService.purgeOlderThan(LocalDateTime.now().minusDays(daysOld));
+        
+        log.info("{} logs older than {} days have been cleared", deleted, daysOld);
+    }
+    
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Reference lookups run batch by batch while the directories are walked
+    public UploadCleanupReport cleanUpOrphanedUploads(Principal principal, boolean dryRun) {
+        log.info("Admin {} collecting orphaned uploads (dry run: {})", principal.getName(), dryRun);
+        
+        UploadCleanupReport report = orphanedUploadCollector.collect(dryRun);
+        
+        log.info("{} orphaned uploads found, {} deleted", report.getOrphanedFiles(), report.getDeletedFiles());
+        return report;
+    }
+    
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public CursorPageResponse<AuditLogResponse> searchAuditLog(Principal principal, String user, String action,
+                                                               LocalDateTime from, LocalDateTime to, String after, int size) {
+        log.info("Admin {} searching audit log: user={}, action={}, from={}, to={}", 
+                principal.getName(), user, action, from, to);
+        
+        return logService.searchLogs(user, action, from, to, after, size);
     }
     
     @Override
@@ -336,16 +376,9 @@ public class AdminSystemManagementServiceImpl implements AdminSystemManagementSe
     public List<Object> getSystemAuditTrail(Principal principal, String action, String user) {
         log.info("Admin {} requesting audit trail: action={}, user={}", principal.getName(), action, user);
         
-        // Placeholder implementation - would query actual audit trail
-        List<Object> auditTrail = new ArrayList<>();
-        auditTrail.add(Map.of(
-                "timestamp", LocalDateTime.now(),
-                "action", "USER_LOGIN",
-                "user", "admin",
-                "details", "Successful login"
-        ));
+        CursorPageResponse<AuditLogResponse> page = logService.searchLogs(user, action, null, null, null, 100);
         
-        return auditTrail;
+        return new ArrayList<>(page.getContent());
     }
     
     // Helper methods for placeholder data
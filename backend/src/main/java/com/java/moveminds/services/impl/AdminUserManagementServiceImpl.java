@@ -3,22 +3,27 @@ package com.java.moveminds.services.impl;
 import com.java.moveminds.dto.requests.admin.AdminBulkActionRequest;
 import com.java.moveminds.dto.requests.admin.AdminUserManagementRequest;
 import com.java.moveminds.dto.response.AdminUserResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.entities.UserEntity;
 import com.java.moveminds.enums.Roles;
 import com.java.moveminds.exceptions.UserNotFoundException;
 import com.java.moveminds.repositories.UserEntityRepository;
 import com.java.moveminds.repositories.specifications.AdminUserSpecification;
 import com.java.moveminds.services.admin.AdminUserManagementService;
+import com.java.moveminds.util.JwtPrincipalCache;
+import com.java.moveminds.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.security.Principal;
 import java.util.List;
@@ -37,6 +42,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
     private final UserEntityRepository userRepository;
     private final ModelMapper modelMapper;
     private final PasswordEncoder passwordEncoder;
+    private final JwtPrincipalCache principalCache;
     
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -56,6 +62,32 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         return users.map(this::convertToAdminUserResponse);
     }
     
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AdminUserResponse> getUsersAfter(Principal principal, Roles role, String search,
+                                                               Boolean isVerified, String after, int size) {
+        log.info("Admin {} requesting users after cursor with filters: role={}, search={}, isVerified={}", 
+                principal.getName(), role, search, isVerified);
+        
+        int pageSize = CursorPageResponse.clampSize(size);
+        // Users have no creation timestamp; ids are assigned in creation order
+        Integer afterId = StringUtils.hasText(after) ? KeysetCursor.decode(after).getId() : null;
+        
+        Specification<UserEntity> spec = AdminUserSpecification.buildSpecification(
+                role, search, isVerified, null, null, null, null, null)
+                .and(AdminUserSpecification.hasIdLessThan(afterId));
+        
+        List<UserEntity> rows = userRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                .limit(pageSize + 1)
+                .all());
+        
+        return CursorPageResponse.of(rows, pageSize,
+                user -> KeysetCursor.encode(user.getId()),
+                this::convertToAdminUserResponse);
+    }
+    
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public AdminUserResponse getUserById(Principal principal, Integer userId) {
@@ -128,6 +160,9 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
                     }
                 });
         
+        // Cached principals are keyed by username, so evict under the old one before it changes
+        principalCache.invalidate(user.getUsername());
+        
         // Update user fields
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
@@ -142,6 +177,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         }
         
         UserEntity updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getUsername());
         
         log.info("Admin {} successfully updated user ID: {}", principal.getName(), userId);
         
@@ -163,6 +199,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         
         user.setRole(newRole);
         UserEntity updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getUsername());
         
         log.info("Admin {} successfully updated role for user ID: {} to {}", 
                 principal.getName(), userId, newRole);
@@ -185,6 +222,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         
         user.setVerified(isActive);
         UserEntity updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getUsername());
         
         log.info("Admin {} successfully updated status for user ID: {} to {}", 
                 principal.getName(), userId, isActive);
@@ -211,6 +249,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         
         user.setVerified(false);
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
         
         log.info("Admin {} successfully soft deleted user ID: {}", principal.getName(), userId);
     }
@@ -233,6 +272,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         }
         
         userRepository.delete(user);
+        principalCache.invalidate(user.getUsername());
         
         log.info("Admin {} successfully permanently deleted user ID: {}", principal.getName(), userId);
     }
@@ -247,6 +287,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         
         user.setVerified(true);
         UserEntity restoredUser = userRepository.save(user);
+        principalCache.invalidate(restoredUser.getUsername());
         
         log.info("Admin {} successfully restored user ID: {}", principal.getName(), userId);
         
@@ -267,6 +308,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         
         user.setRole(Roles.INSTRUCTOR);
         UserEntity updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getUsername());
         
         log.info("Admin {} successfully promoted user ID: {} to instructor", principal.getName(), userId);
         
@@ -287,6 +329,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         
         user.setRole(Roles.USER);
         UserEntity updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getUsername());
         
         log.info("Admin {} successfully demoted instructor ID: {} to regular user", principal.getName(), userId);
         
@@ -370,6 +413,7 @@ public class AdminUserManagementServiceImpl implements AdminUserManagementServic
         }
         
         userRepository.saveAll(users);
+        users.forEach(user -> principalCache.invalidate(user.getUsername()));
         
         log.info("Admin {} successfully completed bulk action: {}", principal.getName(), request.getAction());
     }
@@ -0,0 +1,219 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.config.AuditProperties;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.repositories.UserEntityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers audit events in a bounded queue and writes them to the log table from a
+ * background thread using JDBC batch inserts, keeping the insert off the request path.
+ * When the queue is full new events are dropped and counted rather than blocking callers.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO log (user, action, timestamp) VALUES (?, ?, ?)";
+    private static final String SYSTEM_USER = "System user";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserEntityRepository userRepository;
+    private final AuditProperties.Writer config;
+    private final BlockingQueue<AuditEvent> queue;
+
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private volatile long lastFlushLagMillis;
+    private Thread worker;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          UserEntityRepository userRepository,
+                          AuditProperties auditProperties,
+                          MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.config = auditProperties.getWriter();
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+
+        this.droppedCounter = meterRegistry.counter("audit.log.dropped");
+        this.writtenCounter = meterRegistry.counter("audit.log.written");
+        this.failedCounter = meterRegistry.counter("audit.log.failed");
+        Gauge.builder("audit.log.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("audit.log.queue.lag", this, AuditLogWriter::currentLagMillis)
+                .description("Age in milliseconds of the oldest pending audit event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("audit.log.flush.lag", this, writer -> writer.lastFlushLagMillis)
+                .description("Age in milliseconds of the oldest event in the last written batch")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an audit event without blocking. Returns false if the event was dropped.
+     */
+    public boolean enqueue(String username, String action) {
+        AuditEvent event = new AuditEvent(username, action, System.currentTimeMillis());
+        if (!running || !queue.offer(event)) {
+            droppedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Audit log writer started (capacity={}, flushSize={}, flushIntervalMs={})",
+                config.getQueueCapacity(), config.getFlushSize(), config.getFlushIntervalMs());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker == null) {
+            return; // never started
+        }
+        try {
+            // The worker keeps draining until the queue is empty
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Audit log writer stopped ({} events left unwritten)", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before and stop after the web server so in-flight requests can still enqueue
+        return 0;
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(config.getFlushSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Collects events until the batch is full or the flush interval has elapsed since the first one arrived
+    private void fillBatch(List<AuditEvent> batch) throws InterruptedException {
+        AuditEvent first = queue.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.currentTimeMillis() + config.getFlushIntervalMs();
+        while (batch.size() < config.getFlushSize()) {
+            queue.drainTo(batch, config.getFlushSize() - batch.size());
+            long remaining = deadline - System.currentTimeMillis();
+            if (batch.size() >= config.getFlushSize() || remaining <= 0 || !running) {
+                return;
+            }
+            AuditEvent next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        try {
+            Map<String, String> displayNames = resolveDisplayNames(batch);
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setString(1, event.username() != null
+                        ? displayNames.getOrDefault(event.username(), event.username())
+                        : SYSTEM_USER);
+                ps.setString(2, event.action());
+                ps.setTimestamp(3, new Timestamp(event.createdAt()));
+            });
+            writtenCounter.increment(batch.size());
+            lastFlushLagMillis = System.currentTimeMillis() - batch.get(0).createdAt();
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} audit events", batch.size(), e);
+        }
+    }
+
+    // One lookup for all distinct users in the batch instead of one per event
+    private Map<String, String> resolveDisplayNames(List<AuditEvent> batch) {
+        Set<String> usernames = batch.stream()
+                .map(AuditEvent::username)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, String> displayNames = new HashMap<>();
+        if (!usernames.isEmpty()) {
+            for (UserEntity user : userRepository.findAllByUsernameIn(usernames)) {
+                displayNames.put(user.getUsername(), getDisplayName(user));
+            }
+        }
+        return displayNames;
+    }
+
+    private double currentLagMillis() {
+        AuditEvent oldest = queue.peek();
+        return oldest != null ? System.currentTimeMillis() - oldest.createdAt() : 0;
+    }
+
+    static String getDisplayName(UserEntity user) {
+        if (user == null) {
+            return "";
+        }
+        String displayName;
+        if (user.getFirstName() != null && user.getLastName() != null) {
+            displayName = user.getFirstName() + " " + user.getLastName();
+        } else if (user.getFirstName() != null) {
+            displayName = user.getFirstName();
+        } else if (user.getLastName() != null) {
+            displayName = user.getLastName();
+        } else {
+            displayName = user.getUsername();
+        }
+        return displayName;
+    }
+
+    private record AuditEvent(String username, String action, long createdAt) {
+    }
+}
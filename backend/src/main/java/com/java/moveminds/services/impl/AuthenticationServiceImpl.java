@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import com.java.moveminds.exceptions.AccountActivationException;
 import com.java.moveminds.exceptions.UserAlreadyExistsException;
 import com.java.moveminds.dto.CustomUserDetails;
+import com.java.moveminds.dto.ParsedJwtToken;
 import com.java.moveminds.dto.response.JwtAuthenticationResponse;
 import com.java.moveminds.dto.requests.LoginRequest;
 import com.java.moveminds.dto.requests.SignUpRequest;
@@ -119,15 +120,16 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     public boolean activateAccount(String token) {
-        // Extract email from the token
-        String email = jwtService.extractUserEmail(token);
+        // Parse the token once and extract the email from it
+        ParsedJwtToken parsedToken = jwtService.parseToken(token);
+        String email = parsedToken.getEmail();
 
         // Find user by email
         UserEntity user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new AccountActivationException("Invalid token!"));
 
         // Validate the token
-        if (jwtService.isTokenValid(token, user)) {
+        if (jwtService.isTokenValid(parsedToken, user)) {
             // Activate the user account
             user.setVerified(true);
             userRepository.saveAndFlush(user);
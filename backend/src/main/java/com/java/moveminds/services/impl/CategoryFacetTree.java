@@ -0,0 +1,148 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.AttributeDTO;
+import com.java.moveminds.dto.AttributeValueDTO;
+import com.java.moveminds.dto.CategoryDTO;
+import com.java.moveminds.entities.AttributeEntity;
+import com.java.moveminds.entities.AttributeValueEntity;
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.events.EntityChangedEvent;
+import com.java.moveminds.repositories.AttributeEntityRepository;
+import com.java.moveminds.repositories.AttributeValueEntityRepository;
+import com.java.moveminds.repositories.CategoryEntityRepository;
+import com.java.moveminds.repositories.ProgramAttributeEntityRepository;
+import com.java.moveminds.repositories.projections.AttributeValueCountView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed category -> attribute -> value tree for the program filter sidebar, with the number of
+ * active programs per attribute value. Only categories whose programs carry attributes, and only attributes
+ * and values that are used by at least one program, active or not, are included.
+ * The tree is an immutable snapshot computed on first use and discarded when programs, categories,
+ * attributes or attribute values change; the next request computes a fresh one. Callers must not
+ * modify the returned DTOs.
+ */
+@Component
+public class CategoryFacetTree {
+    private static final Logger logger = LoggerFactory.getLogger(CategoryFacetTree.class);
+
+    private final CategoryEntityRepository categoryRepository;
+    private final AttributeEntityRepository attributeRepository;
+    private final AttributeValueEntityRepository attributeValueRepository;
+    private final ProgramAttributeEntityRepository programAttributeRepository;
+    private final TransactionTemplate readTransaction;
+
+    private volatile List<CategoryDTO> snapshot; // null when stale
+    private long generation; // bumped on every invalidation, guarded by this
+    private final Object buildLock = new Object();
+
+    public CategoryFacetTree(CategoryEntityRepository categoryRepository,
+                             AttributeEntityRepository attributeRepository,
+                             AttributeValueEntityRepository attributeValueRepository,
+                             ProgramAttributeEntityRepository programAttributeRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.attributeRepository = attributeRepository;
+        this.attributeValueRepository = attributeValueRepository;
+        this.programAttributeRepository = programAttributeRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public List<CategoryDTO> get() {
+        List<CategoryDTO> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        // One builder at a time; concurrent callers wait for its result instead of recomputing
+        synchronized (buildLock) {
+            current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            long buildGeneration;
+            synchronized (this) {
+                buildGeneration = generation;
+            }
+            List<CategoryDTO> built = readTransaction.execute(status -> build());
+            synchronized (this) {
+                // A change committed while building may not be reflected; serve the result but don't keep it
+                if (generation == buildGeneration) {
+                    snapshot = built;
+                }
+            }
+            return built;
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.contains(FitnessProgramEntity.class)
+                || event.contains(CategoryEntity.class)
+                || event.contains(AttributeEntity.class)
+                || event.contains(AttributeValueEntity.class)) {
+            synchronized (this) {
+                generation++;
+                snapshot = null;
+            }
+        }
+    }
+
+    private List<CategoryDTO> build() {
+        long start = System.currentTimeMillis();
+        Map<Integer, Long> programCounts = programAttributeRepository.countProgramsByAttributeValue().stream()
+                .collect(Collectors.toMap(AttributeValueCountView::getAttributeValueId, AttributeValueCountView::getProgramCount));
+        Set<Integer> categoriesWithPrograms = new HashSet<>(programAttributeRepository.findCategoryIdsWithProgramAttributes());
+
+        Map<Integer, List<AttributeValueDTO>> valuesByAttribute = new HashMap<>();
+        for (AttributeValueEntity value : attributeValueRepository.findAll(Sort.by("id"))) {
+            Long count = programCounts.get(value.getId());
+            if (count != null) {
+                valuesByAttribute.computeIfAbsent(value.getAttribute().getId(), id -> new ArrayList<>())
+                        .add(new AttributeValueDTO(value.getId(), value.getName(), count));
+            }
+        }
+
+        Map<Integer, List<AttributeDTO>> attributesByCategory = new HashMap<>();
+        for (AttributeEntity attribute : attributeRepository.findAll(Sort.by("id"))) {
+            List<AttributeValueDTO> values = valuesByAttribute.get(attribute.getId());
+            if (values != null) {
+                AttributeDTO attributeDTO = new AttributeDTO();
+                attributeDTO.setId(attribute.getId());
+                attributeDTO.setName(attribute.getName());
+                attributeDTO.setDescription(attribute.getDescription());
+                attributeDTO.setValues(List.copyOf(values));
+                attributesByCategory.computeIfAbsent(attribute.getCategory().getId(), id -> new ArrayList<>()).add(attributeDTO);
+            }
+        }
+
+        List<CategoryDTO> categories = new ArrayList<>();
+        for (CategoryEntity category : categoryRepository.findAll(Sort.by("id"))) {
+            List<AttributeDTO> attributes = attributesByCategory.get(category.getId());
+            if (attributes != null && categoriesWithPrograms.contains(category.getId())) {
+                CategoryDTO categoryDTO = new CategoryDTO();
+                categoryDTO.setId(category.getId());
+                categoryDTO.setName(category.getName());
+                categoryDTO.setDescription(category.getDescription());
+                categoryDTO.setAttributes(List.copyOf(attributes));
+                categories.add(categoryDTO);
+            }
+        }
+        logger.debug("Category facet tree computed with {} categories in {} ms", categories.size(), System.currentTimeMillis() - start);
+        return List.copyOf(categories);
+    }
+}
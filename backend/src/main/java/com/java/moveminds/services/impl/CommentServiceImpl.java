@@ -2,9 +2,12 @@ package com.java.moveminds.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import com.java.moveminds.dto.response.CommentResponse;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.entities.CommentEntity;
 import com.java.moveminds.entities.FitnessProgramEntity;
 import com.java.moveminds.entities.UserEntity;
@@ -13,10 +16,12 @@ import com.java.moveminds.repositories.FitnessProgramEntityRepository;
 import com.java.moveminds.repositories.UserEntityRepository;
 import com.java.moveminds.services.CommentService;
 import com.java.moveminds.services.LogService;
+import com.java.moveminds.util.KeysetCursor;
 
 import java.security.Principal;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -66,15 +71,38 @@ public class CommentServiceImpl implements CommentService {
         Page<CommentEntity> commentPage = commentRepository.findAllByFitnessProgramId(programId, pageable);
 
         logService.log(null, "View comments");
-        return commentPage.map(comment ->
-                new CommentResponse(
-                        comment.getId(),
-                        comment.getUser().getId(),
-                        this.getUsername(comment.getUser()),
-                        comment.getUser().getAvatarUrl(),
-                        comment.getContent(),
-                        comment.getPostedAt().toLocalDateTime()
-                ));
+        return commentPage.map(this::toCommentResponse);
+    }
+
+    @Override
+    public CursorPageResponse<CommentResponse> getCommentsAfter(Integer programId, String after, int size) {
+        int pageSize = CursorPageResponse.clampSize(size);
+        Timestamp afterPostedAt = null;
+        Integer afterId = null;
+        if (StringUtils.hasText(after)) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            afterPostedAt = new Timestamp(cursor.getEpochMillis());
+            afterId = cursor.getId();
+        }
+
+        List<CommentEntity> rows = commentRepository.findPageByProgramId(
+                programId, afterPostedAt, afterId, PageRequest.of(0, pageSize + 1));
+
+        logService.log(null, "View comments");
+        return CursorPageResponse.of(rows, pageSize,
+                comment -> KeysetCursor.encode(comment.getPostedAt().getTime(), comment.getId()),
+                this::toCommentResponse);
+    }
+
+    private CommentResponse toCommentResponse(CommentEntity comment) {
+        return new CommentResponse(
+                comment.getId(),
+                comment.getUser().getId(),
+                this.getUsername(comment.getUser()),
+                comment.getUser().getAvatarUrl(),
+                comment.getContent(),
+                comment.getPostedAt().toLocalDateTime()
+        );
     }
 
     private String getUsername(UserEntity user) {
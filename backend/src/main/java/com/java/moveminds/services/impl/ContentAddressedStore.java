@@ -0,0 +1,280 @@
+package com.java.moveminds.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploads under the SHA-256 of their content, so identical uploads share a single file.
+ * The hash is computed while the content is streamed to a temp file, which is then renamed into
+ * place, so readers never see a partially written file. Files are fanned out into two levels of
+ * directories by hash prefix ("3f/a9/3fa9...e1.pdf") to keep directories small.
+ * Names that are not content hashes (files stored before this layout) resolve to the flat directory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentAddressedStore {
+    static final String TEMP_DIRECTORY = ".tmp";
+    private static final int HASH_BUFFER_SIZE = 256 * 1024;
+    private static final Pattern CONTENT_NAME = Pattern.compile("[0-9a-f]{64}(_[a-z]+)?(\\.[a-z0-9]+)?");
+
+    private final HotFileCache hotFileCache;
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * A stored file: its name (hash plus extension) and whether this call created it
+     * rather than finding identical content already stored.
+     */
+    public record StoredContent(String name, boolean created) {
+    }
+
+    /**
+     * Streams the content into the store under the given root directory.
+     *
+     * @param root      the directory the fan-out directories live in
+     * @param extension the file extension including the dot, or an empty string
+     * @param writer    writes the content; the stream must not be closed by it
+     * @return the name of the stored file and whether it was newly created
+     */
+    public StoredContent store(Path root, String extension, ContentWriter writer) throws IOException {
+        Path temp = newTempFile(root);
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), digest)) {
+                writer.writeTo(out);
+            }
+            String name = HexFormat.of().formatHex(digest.digest()) + extension;
+            Path target = resolve(root, name);
+            if (reuseExisting(target)) {
+                return new StoredContent(name, false);
+            }
+            moveIntoPlace(temp, target);
+            return new StoredContent(name, true);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Moves a complete file that was assembled in this store's temp directory (see newTempFile) into the store.
+     * The content is hashed with a direct buffer and the file is renamed rather than copied.
+     *
+     * @return the name of the stored file and whether it was newly created; the source is gone either way
+     */
+    public StoredContent storeFile(Path root, String extension, Path source) throws IOException {
+        try {
+            String name = hash(source) + extension;
+            Path target = resolve(root, name);
+            if (reuseExisting(target)) {
+                return new StoredContent(name, false);
+            }
+            moveIntoPlace(source, target);
+            return new StoredContent(name, true);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    /**
+     * Adds an existing file (e.g. one stored under a legacy name) to the store without moving it, so its
+     * old path keeps resolving. The stored name is a hard link to the same data where the file system
+     * supports it and a copy otherwise.
+     *
+     * @return the name of the stored file and whether it was newly created
+     */
+    public StoredContent link(Path root, String extension, Path source) throws IOException {
+        String name = hash(source) + extension;
+        return new StoredContent(name, linkIntoPlace(root, source, resolve(root, name)));
+    }
+
+    /**
+     * Adds an existing file derived from stored content (e.g. an image rendition) under the given name,
+     * like link(), keeping any file already stored under that name.
+     */
+    public void linkAs(Path root, String name, Path source) throws IOException {
+        linkIntoPlace(root, source, resolve(root, name));
+    }
+
+    /**
+     * Creates an empty file in the store's temp directory, on the same file system as the stored files.
+     */
+    public Path newTempFile(Path root) throws IOException {
+        // Same file system as the target, so the final rename is atomic
+        Path tempDirectory = root.resolve(TEMP_DIRECTORY);
+        Files.createDirectories(tempDirectory);
+        return Files.createTempFile(tempDirectory, "upload-", ".part");
+    }
+
+    /**
+     * Writes a file that is derived from stored content (e.g. an image rendition) through a temp file
+     * and a rename, replacing any previous version atomically.
+     */
+    public void writeAtomically(Path root, String name, ContentWriter writer) throws IOException {
+        Path temp = newTempFile(root);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writer.writeTo(out);
+            }
+            Path target = resolve(root, name);
+            moveIntoPlace(temp, target);
+            hotFileCache.invalidate(target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes a stored file or rendition and drops it from the HotFileCache.
+     *
+     * @return false if the file did not exist
+     */
+    public boolean delete(Path path) throws IOException {
+        try {
+            return Files.deleteIfExists(path);
+        } finally {
+            hotFileCache.invalidate(path);
+        }
+    }
+
+    /**
+     * Deletes a stored file like delete(), unless it was modified after the cutoff. A recent modification
+     * time means the file was just stored or reused (see reuseExisting), so a row referencing it may be
+     * about to commit; such files are left for the orphan collector.
+     *
+     * @return false if the file did not exist or was modified after the cutoff
+     */
+    public boolean deleteIfUnmodifiedSince(Path path, long cutoffMillis) throws IOException {
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() > cutoffMillis) {
+                return false;
+            }
+        } catch (NoSuchFileException e) {
+            hotFileCache.invalidate(path);
+            return false;
+        }
+        return delete(path);
+    }
+
+    /**
+     * Returns the path of a stored file: inside its fan-out directories for content names,
+     * directly under the root for legacy names.
+     */
+    public Path resolve(Path root, String name) {
+        return isContentName(name) ? root.resolve(relativePath(name)) : root.resolve(name);
+    }
+
+    /**
+     * Returns the path of a content name relative to the root, e.g. "3f/a9/3fa9...e1.pdf".
+     */
+    public String relativePath(String name) {
+        return name.substring(0, 2) + "/" + name.substring(2, 4) + "/" + name;
+    }
+
+    public boolean isContentName(String name) {
+        return CONTENT_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Returns the lower-case extension of a file name including the dot, or an empty string
+     * if it has none that can be part of a stored name.
+     */
+    public static String extensionOf(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return "";
+        }
+        String extension = filename.substring(filename.lastIndexOf('.')).toLowerCase();
+        return extension.matches("\\.[a-z0-9]+") ? extension : "";
+    }
+
+    private boolean reuseExisting(Path target) throws IOException {
+        try {
+            // A fresh modification time keeps the orphan collector's grace period from deleting
+            // content that is about to be referenced again
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } finally {
+            // Cached entries carry the modification time they were read with, which Last-Modified is built from
+            hotFileCache.invalidate(target);
+        }
+    }
+
+    private boolean linkIntoPlace(Path root, Path source, Path target) throws IOException {
+        if (reuseExisting(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // No hard links here (or across these directories): copy, still through a temp file and a rename
+            Path temp = newTempFile(root);
+            try {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                moveIntoPlace(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        // Both names share the link's modification time, which keeps them out of the orphan collector's grace period
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        return true;
+    }
+
+    private static String hash(Path source) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
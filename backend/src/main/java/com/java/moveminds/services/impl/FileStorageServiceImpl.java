@@ -1,22 +1,24 @@
 package com.java.moveminds.services.impl;
 
 import com.java.moveminds.services.FileStorageService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class FileStorageServiceImpl implements FileStorageService {
     
+    private final ContentAddressedStore contentStore;
+    
     @Value("${app.file.upload-dir:uploads}")
     private String uploadDir;
     
@@ -27,39 +29,43 @@ public class FileStorageServiceImpl implements FileStorageService {
     public String storeFile(MultipartFile file, String subDirectory) throws IOException {
         log.info("Storing file: {} in directory: {}", file.getOriginalFilename(), subDirectory);
         
-        // Create directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir, subDirectory);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        // Identical uploads (e.g. the same PDF attached to several lessons) share one file
+        String fileExtension = ContentAddressedStore.extensionOf(file.getOriginalFilename());
+        ContentAddressedStore.StoredContent stored = contentStore.store(Paths.get(uploadDir, subDirectory), fileExtension, out -> {
+            try (InputStream in = file.getInputStream()) {
+                in.transferTo(out);
+            }
+        });
         
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        Path filePath = uploadPath.resolve(uniqueFilename);
+        log.info("File stored successfully: {} ({})", stored.name(), stored.created() ? "new" : "already stored");
+        return stored.name();
+    }
+    
+    @Override
+    public Path createTempFile(String subDirectory) throws IOException {
+        return contentStore.newTempFile(Paths.get(uploadDir, subDirectory));
+    }
+    
+    @Override
+    public String storeFile(Path source, String originalFilename, String subDirectory) throws IOException {
+        log.info("Storing assembled file: {} in directory: {}", originalFilename, subDirectory);
         
-        // Copy file to target location
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        ContentAddressedStore.StoredContent stored = contentStore.storeFile(Paths.get(uploadDir, subDirectory), ContentAddressedStore.extensionOf(originalFilename), source);
         
-        log.info("File stored successfully: {}", filePath);
-        return uniqueFilename;
+        log.info("File stored successfully: {} ({})", stored.name(), stored.created() ? "new" : "already stored");
+        return stored.name();
     }
     
     @Override
     public Path getFilePath(String filename, String subDirectory) {
-        return Paths.get(uploadDir, subDirectory, filename);
+        return contentStore.resolve(Paths.get(uploadDir, subDirectory), filename);
     }
     
     @Override
     public boolean deleteFile(String filename, String subDirectory) {
         try {
             Path filePath = getFilePath(filename, subDirectory);
-            return Files.deleteIfExists(filePath);
+            return contentStore.delete(filePath);
         } catch (IOException e) {
             log.error("Error deleting file: {}", filename, e);
             return false;
@@ -3,29 +3,42 @@ package com.java.moveminds.services.impl;
 import com.java.moveminds.entities.*;
 import com.java.moveminds.exceptions.*;
 import com.java.moveminds.repositories.*;
+import com.java.moveminds.repositories.projections.ProgramImageUrlView;
+import com.java.moveminds.repositories.projections.ProgramSummaryView;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import com.java.moveminds.dto.AttributeDTO;
 import com.java.moveminds.dto.AttributeValueDTO;
 import com.java.moveminds.dto.CategoryDTO;
 import com.java.moveminds.dto.requests.FitnessProgramRequest;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.FacetSearchResponse;
 import com.java.moveminds.dto.response.FitnessProgramHomeResponse;
 import com.java.moveminds.dto.response.FitnessProgramListResponse;
 import com.java.moveminds.dto.response.FitnessProgramResponse;
 import com.java.moveminds.services.FitnessProgramService;
 import com.java.moveminds.services.ImageUploadService;
 import com.java.moveminds.services.LogService;
+import com.java.moveminds.util.KeysetCursor;
 
 import java.io.IOException;
 import java.security.Principal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,7 +54,13 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
     private final ProgramAttributeEntityRepository programAttributeRepository;
     private final AttributeValueEntityRepository attributeValueRepository;
     private final LogService logService;
-    private final ModelMapper modelMapper;
+    private final ProgramCatalogReadModel programCatalog;
+    private final ProgramFacetIndex facetIndex;
+    private final ProgramSearchIndex searchIndex;
+    private final CategoryFacetTree categoryFacetTree;
+    private final TransactionTemplate transactionTemplate;
+    private final ProgramImageVariantGenerator imageVariantGenerator;
+    private final UploadReferences uploadReferences;
 
     /**
      * Adds a new fitness program based on the provided request and files.
@@ -59,9 +78,15 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
      * @throws AttributeValueNotFoundException if a specified attribute value is not found
      */
     @Override
-    @Transactional
     public FitnessProgramResponse addFitnessProgram(Principal principal, FitnessProgramRequest fitnessProgramRequest, List<MultipartFile> files) throws IOException {
+        // Images are resized in parallel before the transaction opens, so it only covers the inserts
+        List<String> imageUrls = uploadProgramImages(files);
+        FitnessProgramResponse response = saveWithImages(imageUrls, () -> createFitnessProgram(principal, fitnessProgramRequest, imageUrls));
+        imageVariantGenerator.generate(imageUrls);
+        return response;
+    }
 
+    private FitnessProgramResponse createFitnessProgram(Principal principal, FitnessProgramRequest fitnessProgramRequest, List<String> imageUrls) {
         // Validate user role - only instructors and admins can create programs
         UserEntity user = userRepository.findByUsername(principal.getName())
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
@@ -106,19 +131,8 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
         FitnessProgramEntity savedProgram = fitnessProgramRepository.saveAndFlush(fitnessProgramEntity);
 
         // Images
-        if (files != null && !files.isEmpty()) {
-            List<ProgramImageEntity> programImages = new ArrayList<>();
-            for (MultipartFile file : files) {
-                String fileName = imageUploadService.uploadImage(file);
-                String imageUrl = "/uploads/" + fileName;
-
-                ProgramImageEntity programImage = new ProgramImageEntity();
-                programImage.setFitnessProgram(savedProgram);
-                programImage.setImageUrl(imageUrl);
-                programImages.add(programImage);
-                programImageRepository.save(programImage);
-            }
-            savedProgram.setProgramImages(programImages);
+        if (!imageUrls.isEmpty()) {
+            savedProgram.setProgramImages(saveProgramImages(savedProgram, imageUrls));
         }
 
         // Specific attributes
@@ -168,20 +182,117 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
     /**
      * Retrieves all active fitness programs with pagination.
      * Only returns programs that have been activated by admin.
+     * Served from the in-memory catalog once it is loaded, otherwise from the database.
      *
      * @param pageable the pagination information
      * @return a Page of FitnessProgramHomeResponse objects
      */
     @Override
-    @Transactional
     public Page<FitnessProgramHomeResponse> getAllFitnessPrograms(Pageable pageable) {
-        Page<FitnessProgramEntity> programs = fitnessProgramRepository.findByIsActive(true, pageable);
         logService.log(null, "Overview of all active fitness programs");
-        return programs.map(this::getFitnessProgramHomeResponse);
+        if (programCatalog.isReady()) {
+            return programCatalog.findActivePage(pageable);
+        }
+        return toHomeResponses(fitnessProgramRepository.findActiveSummaries(pageable));
+    }
+
+    /**
+     * Retrieves active fitness programs, newest first, using keyset pagination.
+     * No total count is computed, so each page costs the same regardless of depth.
+     *
+     * @param categoryId the ID of the category to filter by, or null for all categories
+     * @param after      the cursor returned with the previous page, or null/empty for the first page
+     * @param size       the page size
+     * @return a CursorPageResponse of FitnessProgramHomeResponse objects
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Override
+    public CursorPageResponse<FitnessProgramHomeResponse> getFitnessProgramsAfter(Integer categoryId, String after, int size) {
+        int pageSize = CursorPageResponse.clampSize(size);
+        LocalDateTime afterCreatedAt = null;
+        Integer afterId = null;
+        if (StringUtils.hasText(after)) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            afterCreatedAt = new Timestamp(cursor.getEpochMillis()).toLocalDateTime();
+            afterId = cursor.getId();
+        }
+
+        List<ProgramSummaryView> rows = fitnessProgramRepository.findActiveSummariesAfter(
+                categoryId, afterCreatedAt, afterId, PageRequest.of(0, pageSize + 1));
+        logService.log(null, "Overview of all active fitness programs");
+
+        Map<Integer, List<ProgramImageUrlView>> imagesByProgram = loadImageUrls(rows);
+        return CursorPageResponse.of(rows, pageSize,
+                program -> KeysetCursor.encode(Timestamp.valueOf(program.getCreatedAt() != null
+                        ? program.getCreatedAt() : FitnessProgramEntityRepository.CREATED_AT_FALLBACK).getTime(), program.getId()),
+                program -> {
+                    FitnessProgramHomeResponse programResponse = getFitnessProgramHomeResponse(program);
+                    setImages(programResponse, imagesByProgram.getOrDefault(program.getId(), List.of()));
+                    return programResponse;
+                });
+    }
+
+    /**
+     * Retrieves active fitness programs matching a combination of facet filters, together with
+     * facet counts for every attribute value, category, difficulty level and price bucket.
+     * Each filter is an OR-clause of facet keys separated by '|' (e.g. "attributeValue:3|attributeValue:4");
+     * a program must match every clause. Results are ordered by program ID.
+     *
+     * @param filters the OR-clauses to combine, can be null or empty to match all active programs
+     * @param page    the page number to retrieve
+     * @param size    the page size
+     * @return a FacetSearchResponse with the requested page and the facet counts
+     * @throws IllegalArgumentException    if a facet key is malformed
+     * @throws CatalogUnavailableException if the program catalog has not been loaded yet
+     */
+    @Override
+    public FacetSearchResponse searchByFacets(List<String> filters, int page, int size) {
+        if (!programCatalog.isReady()) {
+            throw new CatalogUnavailableException("Program catalog is not loaded yet, try again later.");
+        }
+        List<List<String>> clauses = filters == null ? List.of() : filters.stream()
+                .filter(StringUtils::hasText)
+                .map(filter -> Arrays.stream(filter.split("\\|")).map(String::trim).toList())
+                .collect(Collectors.toList());
+
+        ProgramFacetIndex.Result result = facetIndex.search(clauses);
+        int pageSize = CursorPageResponse.clampSize(size);
+        int offset = (int) Math.min((long) Math.max(page, 0) * pageSize, Integer.MAX_VALUE);
+        List<FitnessProgramHomeResponse> content = programCatalog.findByIds(result.programIds(), offset, pageSize);
+
+        logService.log(null, "View fitness programs by facets");
+        return new FacetSearchResponse(content, page, pageSize, result.programIds().cardinality(), result.facets());
+    }
+
+    /**
+     * Full-text search over active programs by name, description, category, instructor name and lesson titles.
+     * Results are ranked by relevance; the last query word also matches as a prefix and misspelled
+     * words match similar indexed words.
+     *
+     * @param query the free-text query
+     * @param page  the page number to retrieve
+     * @param size  the page size
+     * @return a Page of FitnessProgramHomeResponse objects, best match first
+     * @throws CatalogUnavailableException if the search index or program catalog has not been loaded yet
+     */
+    @Override
+    public Page<FitnessProgramHomeResponse> searchFitnessPrograms(String query, int page, int size) {
+        if (!searchIndex.isReady() || !programCatalog.isReady()) {
+            throw new CatalogUnavailableException("Program search is not available yet, try again later.");
+        }
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), CursorPageResponse.MAX_SIZE));
+        ProgramSearchIndex.Hits hits = searchIndex.search(query, (int) pageable.getOffset() + pageable.getPageSize());
+        List<Integer> pageIds = hits.programIds().subList(
+                (int) Math.min(pageable.getOffset(), hits.programIds().size()), hits.programIds().size());
+
+        logService.log(null, "Search fitness programs");
+        return new PageImpl<>(programCatalog.findAllById(pageIds), pageable, hits.total());
     }
 
     /**
      * Retrieves a specific fitness program by its ID.
+     * The program with its instructor, location, category and images is loaded in one statement,
+     * and its attributes with their values in a second one.
      *
      * @param id the ID of the fitness program to retrieve
      * @return a FitnessProgramResponse object containing the details of the fitness program
@@ -189,7 +300,7 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
      */
     @Override
     public FitnessProgramResponse getFitnessProgram(Integer id) {
-        FitnessProgramEntity programEntity = fitnessProgramRepository.findById(id)
+        FitnessProgramEntity programEntity = fitnessProgramRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new ProgramNotFoundException("Program with ID " + id + " not found."));
 
         // Create a new FitnessProgramResponse
@@ -203,7 +314,7 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
         response.setPrice(programEntity.getPrice());
         response.setDifficultyLevel(programEntity.getDifficultyLevel());
         response.setYoutubeUrl(programEntity.getYoutubeUrl());
-        response.setInstructorName(this.generateInstructorName(programEntity.getUser()));
+        response.setInstructorName(generateInstructorName(programEntity.getUser()));
         response.setInstructorId(programEntity.getUser().getId());
 
         // Map the location
@@ -219,8 +330,8 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
         }
 
         // Map the specific attributes
-        List<AttributeDTO> specificAttributes = programEntity
-                .getProgramAttributes()
+        List<AttributeDTO> specificAttributes = programAttributeRepository
+                .findAllWithValuesByProgramId(id)
                 .stream()
                 .map(this::getAttributeDTO)
                 .collect(Collectors.toList());
@@ -254,8 +365,14 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
      * @throws ImageUploadException            if an error occurs during image upload
      */
     @Override
-    @Transactional
     public FitnessProgramResponse updateFitnessProgram(Integer programId, FitnessProgramRequest fitnessProgramRequest, List<MultipartFile> files, List<String> removedImages) throws IOException {
+        List<String> imageUrls = uploadProgramImages(files);
+        FitnessProgramResponse response = saveWithImages(imageUrls, () -> applyFitnessProgramUpdate(programId, fitnessProgramRequest, imageUrls, removedImages));
+        imageVariantGenerator.generate(imageUrls);
+        return response;
+    }
+
+    private FitnessProgramResponse applyFitnessProgramUpdate(Integer programId, FitnessProgramRequest fitnessProgramRequest, List<String> imageUrls, List<String> removedImages) {
         FitnessProgramEntity fitnessProgramEntity = fitnessProgramRepository.findById(programId)
                 .orElseThrow(() -> new ProgramNotFoundException("Program with ID " + programId + " not found."));
 
@@ -286,27 +403,17 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
         // Image removals
         if (removedImages != null && !removedImages.isEmpty()) {
             for (String imageUrl : removedImages) {
-                ProgramImageEntity imageEntity = programImageRepository.findByImageUrl(imageUrl)
+                ProgramImageEntity imageEntity = programImageRepository.findFirstByFitnessProgramIdAndImageUrl(programId, imageUrl)
                         .orElseThrow(ImageUploadException::new);
                 programImageRepository.delete(imageEntity);
-                try {
-                    this.imageUploadService.deleteImageFile(imageUrl);
-                } catch (IOException ignored) {
-                }
+                // Identical images share one file, which is only deleted once nothing references it
+                uploadReferences.releaseImage(imageUrl);
             }
         }
 
         // New images
-        if (files != null && !files.isEmpty()) {
-            for (MultipartFile file : files) {
-                String fileName = imageUploadService.uploadImage(file);
-                String imageUrl = "/uploads/" + fileName;
-
-                ProgramImageEntity programImage = new ProgramImageEntity();
-                programImage.setFitnessProgram(fitnessProgramEntity);
-                programImage.setImageUrl(imageUrl);
-                programImageRepository.saveAndFlush(programImage);
-            }
+        if (!imageUrls.isEmpty()) {
+            saveProgramImages(fitnessProgramEntity, imageUrls);
         }
 
         // Update attributes - modify if exists, add new if not
@@ -361,9 +468,11 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
      */
     @Override
     public Page<FitnessProgramHomeResponse> getAllFitnessProgramsByAttributeValue(Integer attributeValueId, Pageable pageable) {
-        Page<FitnessProgramEntity> programs = fitnessProgramRepository.findDistinctByProgramAttributes_AttributeValue_Id(attributeValueId, pageable);
         logService.log(null, "View fitness programs with attribute values with ID " + attributeValueId);
-        return programs.map(this::getFitnessProgramHomeResponse);
+        if (programCatalog.isReady()) {
+            return programCatalog.findPage(entry -> entry.getAttributeValueIds().contains(attributeValueId), pageable);
+        }
+        return toHomeResponses(fitnessProgramRepository.findSummariesByAttributeValueId(attributeValueId, pageable));
     }
 
     /**
@@ -375,14 +484,11 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
      */
     @Override
     public Page<FitnessProgramHomeResponse> getAllFitnessProgramsByAttributeId(Integer attributeId, Pageable pageable) {
-        List<AttributeValueEntity> attributeValues = attributeValueRepository.findByAttributeId(attributeId);
-        List<Integer> attributeValueIds = attributeValues
-                .stream()
-                .map(AttributeValueEntity::getId)
-                .collect(Collectors.toList());
-        Page<FitnessProgramEntity> programs = fitnessProgramRepository.findDistinctByProgramAttributes_AttributeValue_IdIn(attributeValueIds, pageable);
         logService.log(null, "View fitness program are attribute are their ID " + attributeId);
-        return programs.map(this::getFitnessProgramHomeResponse);
+        if (programCatalog.isReady()) {
+            return programCatalog.findPage(entry -> entry.getAttributeIds().contains(attributeId), pageable);
+        }
+        return toHomeResponses(fitnessProgramRepository.findSummariesByAttributeId(attributeId, pageable));
     }
 
     /**
@@ -394,26 +500,24 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
      */
     @Override
     public Page<FitnessProgramHomeResponse> getAllFitnessProgramsByCategoryId(Integer categoryId, Pageable pageable) {
-        Page<FitnessProgramEntity> programs = fitnessProgramRepository.findAllByCategoryId(categoryId, pageable);
         logService.log(null, "View fitness programs by category with ID " + categoryId);
-        return programs.map(this::getFitnessProgramHomeResponse);
+        if (programCatalog.isReady()) {
+            return programCatalog.findCategoryPage(categoryId, pageable);
+        }
+        return toHomeResponses(fitnessProgramRepository.findSummariesByCategoryId(categoryId, pageable));
     }
 
     /**
      * Retrieves all categories with their associated attributes and attribute values.
-     * Only categories with non-empty attributes are included in the result.
+     * Only categories with non-empty attributes are included in the result, and every value carries
+     * the number of programs using it. Served from a precomputed snapshot.
      *
      * @return a list of CategoryDTO objects with their attributes and attribute values
      */
     @Override
     public List<CategoryDTO> getAllCategoriesWithAttributesAndValues() {
-        List<CategoryEntity> categories = categoryRepository.findAllWithProgramsAndAttributesAndValues();
         logService.log(null, "Overview of all categories with attributes and values");
-
-        return categories.stream()
-                .map(this::convertToCategoryDTO)
-                .filter(categoryDTO -> !categoryDTO.getAttributes().isEmpty())
-                .collect(Collectors.toList());
+        return categoryFacetTree.get();
     }
 
     @Override
@@ -430,57 +534,20 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
         }
 
         List<ProgramImageEntity> programImages = program.getProgramImages();
-
-        for (ProgramImageEntity imageEntity : programImages) {
-            imageUploadService.deleteImageFile(imageEntity.getImageUrl());
+        if (program.getModules() != null) {
+            // Lesson resources go with the program by cascade; their files are released after commit
+            program.getModules().forEach(module -> uploadReferences.releaseLessonResources(module.getLessons()));
         }
 
         logService.log(principal, "Deleting a fitness program with an ID " + programId);
 
         fitnessProgramRepository.delete(program);
-    }
-
 
-    /**
-     * Converts a CategoryEntity to a CategoryDTO.
-     *
-     * @param categoryEntity the CategoryEntity to convert
-     * @return the converted CategoryDTO
-     */
-    private CategoryDTO convertToCategoryDTO(CategoryEntity categoryEntity) {
-        CategoryDTO categoryDTO = new CategoryDTO();
-        categoryDTO.setId(categoryEntity.getId());
-        categoryDTO.setName(categoryEntity.getName());
-        categoryDTO.setDescription(categoryEntity.getDescription());
-
-        List<AttributeDTO> attributes = categoryEntity.getAttributes().stream()
-                .map(this::convertToAttributeDTO)
-                .filter(attributeDTO -> !attributeDTO.getValues().isEmpty())
-                .collect(Collectors.toList());
-
-        categoryDTO.setAttributes(attributes);
-
-        return categoryDTO;
+        for (ProgramImageEntity imageEntity : programImages) {
+            uploadReferences.releaseImage(imageEntity.getImageUrl());
+        }
     }
 
-    /**
-     * Converts an AttributeEntity to an AttributeDTO.
-     *
-     * @param attributeEntity the AttributeEntity to convert
-     * @return the converted AttributeDTO
-     */
-    private AttributeDTO convertToAttributeDTO(AttributeEntity attributeEntity) {
-        AttributeDTO attributeDTO = modelMapper.map(attributeEntity, AttributeDTO.class);
-
-        attributeDTO.setValues(
-                attributeEntity.getAttributeValues().stream()
-                        .filter(value -> !value.getProgramAttributes().isEmpty())
-                        .map(value -> new AttributeValueDTO(value.getId(), value.getName()))
-                        .collect(Collectors.toList())
-        );
-
-        return attributeDTO;
-    }
 
     /**
      * Converts a ProgramAttributeEntity to an AttributeDTO.
@@ -556,12 +623,98 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
     }
 
     /**
-     * Converts a FitnessProgramEntity to a FitnessProgramHomeResponse.
+     * Converts a page of program summaries to FitnessProgramHomeResponse objects,
+     * loading the image URLs and srcsets for the whole page with a single query.
      *
-     * @param program the FitnessProgramEntity to convert
+     * @param programs the page of ProgramSummaryView rows to convert
+     * @return the converted page
+     */
+    private Page<FitnessProgramHomeResponse> toHomeResponses(Page<ProgramSummaryView> programs) {
+        Map<Integer, List<ProgramImageUrlView>> imagesByProgram = loadImageUrls(programs.getContent());
+        return programs.map(program -> {
+            FitnessProgramHomeResponse programResponse = getFitnessProgramHomeResponse(program);
+            setImages(programResponse, imagesByProgram.getOrDefault(program.getId(), List.of()));
+            return programResponse;
+        });
+    }
+
+    private void setImages(FitnessProgramHomeResponse programResponse, List<ProgramImageUrlView> images) {
+        List<String> imageUrls = new ArrayList<>(images.size());
+        List<String> imageSrcsets = new ArrayList<>(images.size());
+        for (ProgramImageUrlView image : images) {
+            imageUrls.add(image.getImageUrl());
+            imageSrcsets.add(ProgramImageVariantGenerator.srcsetOrUrl(image.getImageUrl(), image.getSrcset()));
+        }
+        programResponse.setImages(imageUrls);
+        programResponse.setImageSrcsets(imageSrcsets);
+    }
+
+    /**
+     * Resizes and stores the uploaded images in parallel and returns their public URLs.
+     *
+     * @param files the uploaded images, can be null
+     * @return the URLs of the stored images, empty if there were none
+     * @throws IOException if any image could not be processed; none of the images are kept in that case
+     */
+    private List<String> uploadProgramImages(List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+        return imageUploadService.uploadImages(files)
+                .stream()
+                .map(fileName -> "/uploads/" + fileName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs the database work for a program in one transaction. If it fails, the stored image files
+     * are released again, since the rows referencing them were rolled back.
+     */
+    private FitnessProgramResponse saveWithImages(List<String> imageUrls, Supplier<FitnessProgramResponse> work) {
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } catch (RuntimeException e) {
+            imageUrls.forEach(uploadReferences::releaseImage);
+            throw e;
+        }
+    }
+
+    private List<ProgramImageEntity> saveProgramImages(FitnessProgramEntity program, List<String> imageUrls) {
+        List<ProgramImageEntity> programImages = new ArrayList<>(imageUrls.size());
+        for (String imageUrl : imageUrls) {
+            ProgramImageEntity programImage = new ProgramImageEntity();
+            programImage.setFitnessProgram(program);
+            programImage.setImageUrl(imageUrl);
+            programImages.add(programImage);
+        }
+        return programImageRepository.saveAll(programImages);
+    }
+
+    /**
+     * Loads the image URLs and srcsets of the given programs with a single query, grouped by program ID.
+     *
+     * @param programs the programs whose images to load
+     * @return a map from program ID to its images
+     */
+    private Map<Integer, List<ProgramImageUrlView>> loadImageUrls(List<ProgramSummaryView> programs) {
+        if (programs.isEmpty()) {
+            return Map.of();
+        }
+        List<Integer> programIds = programs.stream()
+                .map(ProgramSummaryView::getId)
+                .collect(Collectors.toList());
+        return programImageRepository.findImageUrlsByProgramIds(programIds)
+                .stream()
+                .collect(Collectors.groupingBy(ProgramImageUrlView::getProgramId));
+    }
+
+    /**
+     * Converts a ProgramSummaryView to a FitnessProgramHomeResponse without images.
+     *
+     * @param program the ProgramSummaryView to convert
      * @return the converted FitnessProgramHomeResponse
      */
-    private FitnessProgramHomeResponse getFitnessProgramHomeResponse(FitnessProgramEntity program) {
+    private FitnessProgramHomeResponse getFitnessProgramHomeResponse(ProgramSummaryView program) {
         FitnessProgramHomeResponse programResponse = new FitnessProgramHomeResponse();
         programResponse.setId(program.getId());
         programResponse.setName(program.getName());
@@ -569,28 +722,20 @@ public class FitnessProgramServiceImpl implements FitnessProgramService {
         programResponse.setPrice(program.getPrice());
         programResponse.setDuration(program.getDuration());
         programResponse.setDifficultyLevel(program.getDifficultyLevel());
-        programResponse.setInstructorId(program.getUser().getId());
-        programResponse.setInstructorName(generateInstructorName(program.getUser()));
-        
-        if (program.getLocation() != null) {
-            programResponse.setLocationName(program.getLocation().getName());
-        }
-
-        List<String> imageUrls = program
-                .getProgramImages()
-                .stream()
-                .map(ProgramImageEntity::getImageUrl)
-                .collect(Collectors.toList());
-        programResponse.setImages(imageUrls);
-
+        programResponse.setInstructorId(program.getInstructorId());
+        programResponse.setInstructorName(generateInstructorName(
+                program.getInstructorFirstName(), program.getInstructorLastName(), program.getInstructorUsername()));
+        programResponse.setLocationName(program.getLocationName());
+        programResponse.setImages(new ArrayList<>());
+        programResponse.setImageSrcsets(new ArrayList<>());
         return programResponse;
     }
 
-    private String generateInstructorName(UserEntity user) {
-        String firstName = user.getFirstName();
-        String lastName = user.getLastName();
-        String username = user.getUsername();
+    static String generateInstructorName(UserEntity user) {
+        return generateInstructorName(user.getFirstName(), user.getLastName(), user.getUsername());
+    }
 
+    static String generateInstructorName(String firstName, String lastName, String username) {
         String instructorName;
 
         if (firstName != null && !firstName.isEmpty() && lastName != null && !lastName.isEmpty()) {
@@ -0,0 +1,113 @@
+package com.java.moveminds.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+/**
+ * Keeps the contents of small, frequently served upload files (program card images, thumbnails)
+ * in memory, so a hit is answered without touching the file system. Eviction is Caffeine's
+ * size-weighted W-TinyLFU bounded by total bytes; contents live in read-only direct buffers,
+ * outside the heap the garbage collector has to trace.
+ * Entries remember the modification time they were read with and are dropped whenever the
+ * application rewrites, deletes or touches the file; the expiry bounds staleness after changes
+ * made outside the application.
+ */
+@Component
+public class HotFileCache {
+
+    /**
+     * A cached file: its content (share it through duplicate()) and the attributes it was read with.
+     */
+    public record CachedFile(ByteBuffer content, long length, long lastModified) {
+    }
+
+    private final Cache<Path, CachedFile> cache;
+    private final long maxFileSize;
+
+    public HotFileCache(@Value("${app.file.cache.max-size-mb:64}") long maxSizeMb,
+                        @Value("${app.file.cache.max-file-size-kb:256}") long maxFileSizeKb,
+                        @Value("${app.file.cache.expire-after-write-minutes:60}") long expireAfterWriteMinutes,
+                        MeterRegistry meterRegistry) {
+        this.maxFileSize = maxFileSizeKb * 1024;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((Path path, CachedFile file) -> (int) Math.min(Integer.MAX_VALUE, file.length()))
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "files.hot");
+        Gauge.builder("files.hot.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of served upload files answered from memory")
+                .register(meterRegistry);
+        Gauge.builder("files.hot.bytes", cache, c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Bytes of file content held in memory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached content of a file, reading it into the cache first if it is small enough.
+     *
+     * @return null if the file does not exist, is not a regular file or is too large to cache;
+     *         callers then serve it from disk
+     */
+    public CachedFile lookup(Path path) throws IOException {
+        try {
+            return cache.get(normalize(path), this::read);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Drops a file that was rewritten or deleted.
+     */
+    public void invalidate(Path path) {
+        cache.invalidate(normalize(path));
+    }
+
+    private CachedFile read(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile() || attributes.size() > maxFileSize) {
+                return null; // not cached, so it is checked again on the next request
+            }
+            ByteBuffer content;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                content = ByteBuffer.allocateDirect((int) channel.size());
+                while (content.hasRemaining()) {
+                    if (channel.read(content) == -1) {
+                        break; // the file was truncated while being read
+                    }
+                }
+            }
+            content.flip();
+            return new CachedFile(content.asReadOnlyBuffer(), content.limit(), attributes.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
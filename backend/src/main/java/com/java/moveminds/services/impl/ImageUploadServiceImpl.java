@@ -1,31 +1,241 @@
 package com.java.moveminds.services.impl;
 
+import com.java.moveminds.entities.ImageVariant;
+import com.java.moveminds.enums.ImageRendition;
+import com.java.moveminds.exceptions.ImageUploadException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.imgscalr.Scalr;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import com.java.moveminds.services.ImageUploadService;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class ImageUploadServiceImpl implements ImageUploadService {
+    private static final int TARGET_WIDTH = 800;
+    private static final int TARGET_HEIGHT = 600;
+    private static final float VARIANT_JPEG_QUALITY = 0.82f;
+
+    private final ContentAddressedStore contentStore;
 
     @Value("${upload.path}")
     private String uploadPath;
 
+    @Value("${upload.image.threads:0}")
+    private int imageThreads; // 0: one per available processor
+
+    @Value("${upload.image.queue-capacity:64}")
+    private int imageQueueCapacity;
+
+    @Value("${upload.image.max-pixels:40000000}")
+    private long maxPixels; // larger images are rejected from their header, before any pixel data is decoded
+
+    @Value("${upload.image.variant-threads:1}")
+    private int variantThreads;
+
+    @Value("${upload.image.variant-queue-capacity:1000}")
+    private int variantQueueCapacity;
+
+    private ExecutorService imageExecutor;
+    private ExecutorService variantExecutor;
+
+    @PostConstruct
+    void startImageExecutor() {
+        int threads = imageThreads > 0 ? imageThreads : Runtime.getRuntime().availableProcessors();
+        // Decoding and resizing are CPU-bound, so the pool is sized to the cores; when the queue is full the
+        // uploading request thread does the work itself, which throttles uploads instead of rejecting them
+        imageExecutor = newImageExecutor("image-upload-", threads, imageQueueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+        // Variants are background work; when this queue is full they are skipped and the stored image is served instead
+        variantExecutor = newImageExecutor("image-variant-", variantThreads, variantQueueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stopImageExecutor() {
+        imageExecutor.shutdown();
+        variantExecutor.shutdown();
+    }
+
+    private static ExecutorService newImageExecutor(String namePrefix, int threads, int queueCapacity, RejectedExecutionHandler rejectionPolicy) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejectionPolicy);
+    }
+
     public String uploadImage(MultipartFile file) throws IOException {
         ensureUploadPathExists();
+        return contentStore.relativePath(processImage(file).name());
+    }
+
+    /**
+     * Resizes and stores all images in parallel on the image executor.
+     * If any image fails, the first failure is thrown. Images already stored are not deleted here: a
+     * concurrent upload of the same content may be about to reference them, so they are left for the
+     * orphan collector, whose grace period covers exactly that.
+     */
+    public List<String> uploadImages(List<MultipartFile> files) throws IOException {
+        ensureUploadPathExists();
+        List<Future<ContentAddressedStore.StoredContent>> pending = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            pending.add(imageExecutor.submit(() -> {
+                try {
+                    return processImage(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+
+        List<String> fileNames = new ArrayList<>(files.size());
+        Exception failure = null;
+        for (Future<ContentAddressedStore.StoredContent> image : pending) {
+            try {
+                fileNames.add(contentStore.relativePath(image.get().name()));
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    if (e.getCause() instanceof UncheckedIOException io) {
+                        failure = io.getCause();
+                    } else if (e.getCause() instanceof RuntimeException rejected) {
+                        failure = rejected; // e.g. ImageUploadException for an unsupported or oversized image
+                    } else {
+                        failure = new IOException("Image processing failed", e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new InterruptedIOException("Interrupted while processing images");
+                pending.forEach(remaining -> remaining.cancel(true));
+                break;
+            }
+        }
+
+        if (failure != null) {
+            if (failure instanceof RuntimeException rejected) {
+                throw rejected;
+            }
+            throw (IOException) failure;
+        }
+        return fileNames;
+    }
+
+    private ContentAddressedStore.StoredContent processImage(MultipartFile file) throws IOException {
         String fileExtension = getFileExtension(file.getOriginalFilename());
         BufferedImage resizedImage = resizeImage(file);
-        return saveResizedImage(file, resizedImage, fileExtension);
+        return saveResizedImage(resizedImage, fileExtension);
+    }
+
+    /**
+     * Writes every ImageRendition of a stored image as a progressive JPEG on the background variant executor.
+     * The returned future fails if the image cannot be read or the variant queue is full.
+     */
+    public CompletableFuture<Map<ImageRendition, ImageVariant>> createVariants(String imageUrl) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return writeVariants(imageUrl);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, variantExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Map<ImageRendition, ImageVariant> writeVariants(String imageUrl) throws IOException {
+        String fileName = imageUrl.substring("/uploads/".length());
+        BufferedImage source = ImageIO.read(Paths.get(uploadPath, fileName).toFile());
+        if (source == null) {
+            throw new IOException("Unsupported image format: " + imageUrl);
+        }
+        BufferedImage opaque = toRgb(source);
+
+        Map<ImageRendition, ImageVariant> variants = new EnumMap<>(ImageRendition.class);
+        for (ImageRendition rendition : ImageRendition.values()) {
+            // Renditions are never upscaled, small sources are re-encoded at their own width
+            BufferedImage scaled = opaque.getWidth() > rendition.getWidth()
+                    ? Scalr.resize(opaque, Scalr.Method.QUALITY, Scalr.Mode.FIT_TO_WIDTH, rendition.getWidth())
+                    : opaque;
+            String variantName = rendition.fileName(fileName);
+            contentStore.writeAtomically(Paths.get(uploadPath), variantName, out -> writeProgressiveJpeg(scaled, out));
+            variants.put(rendition, new ImageVariant("/uploads/" + variantName, scaled.getWidth()));
+        }
+        return variants;
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static void writeProgressiveJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(VARIANT_JPEG_QUALITY);
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
     }
 
     private void ensureUploadPathExists() throws IOException {
@@ -36,17 +246,56 @@ public class ImageUploadServiceImpl implements ImageUploadService {
     }
 
     private BufferedImage resizeImage(MultipartFile file) throws IOException {
-        BufferedImage srcImage = ImageIO.read(file.getInputStream());
-        return Scalr.resize(srcImage, Scalr.Method.QUALITY, 800, 600);
+        BufferedImage srcImage = readImage(file);
+        return Scalr.resize(srcImage, Scalr.Method.QUALITY, TARGET_WIDTH, TARGET_HEIGHT);
     }
 
-    private String saveResizedImage(MultipartFile file, BufferedImage resizedImage, String fileExtension) throws IOException {
-        String originalFilename = Objects.requireNonNull(file.getOriginalFilename(), "Invalid image name.");
-        String modifiedFilename = originalFilename.replaceAll("\\s+", "_");
-        String fileName = UUID.randomUUID() + "_" + modifiedFilename;
-        Path destFile = Paths.get(uploadPath).resolve(fileName);
-        ImageIO.write(resizedImage, Objects.requireNonNull(fileExtension), destFile.toFile());
-        return fileName;
+    /**
+     * Decodes an upload at roughly the resolution it is scaled to, so heap use per upload stays bounded.
+     * The dimensions are probed from the image header first; images above the pixel budget are rejected
+     * and large ones are subsampled while decoding instead of being read at full resolution.
+     *
+     * @throws ImageUploadException if the format is not supported or the image exceeds the pixel budget
+     */
+    private BufferedImage readImage(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream();
+             ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = imageIn != null ? ImageIO.getImageReaders(imageIn) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new ImageUploadException("Unsupported image format: " + file.getOriginalFilename());
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new ImageUploadException("Image of " + width + "x" + height + " exceeds the limit of " + maxPixels + " pixels");
+                }
+
+                // Scalr fits landscape images to the target width and portrait ones to the target height;
+                // twice the target resolution is kept so the QUALITY resize still has detail to work with
+                int subsampling = width >= height ? width / (TARGET_WIDTH * 2) : height / (TARGET_HEIGHT * 2);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private ContentAddressedStore.StoredContent saveResizedImage(BufferedImage resizedImage, String fileExtension) throws IOException {
+        String format = Objects.requireNonNull(fileExtension, "Invalid image name.").toLowerCase();
+        // Resizing is deterministic, so uploading the same image again yields the already stored file
+        return contentStore.store(Paths.get(uploadPath), "." + format, out -> {
+            if (!ImageIO.write(resizedImage, format, out)) {
+                throw new ImageUploadException("Unsupported image format: " + format);
+            }
+        });
     }
 
     public static String getFileExtension(String fileName) {
@@ -56,10 +305,20 @@ public class ImageUploadServiceImpl implements ImageUploadService {
         return fileName.substring(fileName.lastIndexOf('.') + 1);
     }
 
-    public void deleteImageFile(String imageUrl) throws IOException {
-        Path filePath = Paths.get(uploadPath, imageUrl.substring("/uploads/".length()));
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
+    /**
+     * Deletes a stored image and its renditions, unless the image was modified after the cutoff
+     * (stored or reused recently, see ContentAddressedStore.deleteIfUnmodifiedSince).
+     *
+     * @return whether the image was deleted
+     */
+    public boolean deleteImageFile(String imageUrl, long unmodifiedSinceMillis) throws IOException {
+        String fileName = imageUrl.substring("/uploads/".length());
+        if (!contentStore.deleteIfUnmodifiedSince(Paths.get(uploadPath, fileName), unmodifiedSinceMillis)) {
+            return false;
+        }
+        for (ImageRendition rendition : ImageRendition.values()) {
+            contentStore.delete(Paths.get(uploadPath, rendition.fileName(fileName)));
         }
+        return true;
     }
 }
@@ -63,7 +63,6 @@ public class InstructorServiceImpl implements InstructorService {
     }
 
     @Override
-    @Transactional
     @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
     public FitnessProgramResponse createProgram(Principal principal, FitnessProgramRequest programRequest, List<MultipartFile> files) throws IOException {
         validateInstructorAccess(principal);
@@ -71,7 +70,6 @@ public class InstructorServiceImpl implements InstructorService {
     }
 
     @Override
-    @Transactional
     @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
     public FitnessProgramResponse updateProgram(Principal principal, Integer programId, FitnessProgramRequest programRequest, List<MultipartFile> files, List<String> removedImages) throws IOException {
         validateInstructorAccess(principal);
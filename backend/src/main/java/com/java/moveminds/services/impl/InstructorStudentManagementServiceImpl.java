@@ -1,6 +1,7 @@
 package com.java.moveminds.services.impl;
 
 import com.java.moveminds.dto.requests.instructor.InstructorStudentManagementRequest;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.dto.response.ProgramEnrollmentResponse;
 import com.java.moveminds.entities.UserEntity;
 import com.java.moveminds.entities.UserProgramEntity;
@@ -8,16 +9,21 @@ import com.java.moveminds.exceptions.UnauthorizedAccessException;
 import com.java.moveminds.repositories.UserEntityRepository;
 import com.java.moveminds.repositories.UserProgramEntityRepository;
 import com.java.moveminds.services.instructor.InstructorStudentManagementService;
+import com.java.moveminds.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.security.Principal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -92,6 +98,30 @@ public class InstructorStudentManagementServiceImpl implements InstructorStudent
         return enrollments.map(this::convertToProgramEnrollmentResponse);
     }
     
+    @Override
+    @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProgramEnrollmentResponse> getEnrollmentsAfter(Principal principal, String after, int size) {
+        UserEntity instructor = userRepository.findByUsername(principal.getName())
+                .orElseThrow(() -> new UnauthorizedAccessException("Instructor not found"));
+        
+        int pageSize = CursorPageResponse.clampSize(size);
+        LocalDateTime afterCreatedAt = null;
+        Integer afterId = null;
+        if (StringUtils.hasText(after)) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            afterCreatedAt = new Timestamp(cursor.getEpochMillis()).toLocalDateTime();
+            afterId = cursor.getId();
+        }
+        
+        List<UserProgramEntity> rows = enrollmentRepository.findPageByInstructorId(
+                instructor.getId(), afterCreatedAt, afterId, PageRequest.of(0, pageSize + 1));
+        
+        return CursorPageResponse.of(rows, pageSize,
+                enrollment -> KeysetCursor.encode(Timestamp.valueOf(enrollment.getCreatedAt()).getTime(), enrollment.getId()),
+                this::convertToProgramEnrollmentResponse);
+    }
+    
     @Override
     @PreAuthorize("hasRole('ROLE_INSTRUCTOR') or hasRole('ROLE_ADMIN')")
     public ProgramEnrollmentResponse updateEnrollmentStatus(Principal principal, Integer enrollmentId, String status) {
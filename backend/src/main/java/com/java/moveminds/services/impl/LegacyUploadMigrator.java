@@ -0,0 +1,212 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.entities.ImageVariant;
+import com.java.moveminds.entities.ProgramImageEntity;
+import com.java.moveminds.entities.ProgramResourceEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.ImageRendition;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.repositories.ProgramResourceEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves uploads stored under legacy flat names (before the sharded, content-addressed layout) into the
+ * store and points their rows at the new URLs, one batch per transaction, on a background thread after
+ * startup. A file is linked under its new name before its rows change and the legacy name is left in
+ * place, so old URLs in cached pages and responses keep resolving; once nothing references a legacy
+ * name, the OrphanedUploadCollector reclaims it after its grace period. Unreferenced legacy files are
+ * left to the collector. The migration is idempotent and simply resumes on the next start.
+ */
+@Slf4j
+@Component
+public class LegacyUploadMigrator {
+
+    private final ContentAddressedStore contentStore;
+    private final FileStorageService fileStorageService;
+    private final ProgramImageEntityRepository programImageRepository;
+    private final ProgramResourceEntityRepository resourceRepository;
+    private final UserEntityRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${upload.path}")
+    private String uploadPath;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${upload.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${upload.migration.batch-size:200}")
+    private int batchSize;
+
+    @Value("${upload.migration.pause-ms:100}")
+    private long pauseMs; // between batches, so the migration never competes with requests for long
+
+    public LegacyUploadMigrator(ContentAddressedStore contentStore,
+                                FileStorageService fileStorageService,
+                                ProgramImageEntityRepository programImageRepository,
+                                ProgramResourceEntityRepository resourceRepository,
+                                UserEntityRepository userRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.contentStore = contentStore;
+        this.fileStorageService = fileStorageService;
+        this.programImageRepository = programImageRepository;
+        this.resourceRepository = resourceRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::migrate, "legacy-upload-migrator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void migrate() {
+        try {
+            int images = migrateDirectory(Paths.get(uploadPath), true);
+            int resources = migrateDirectory(Paths.get(uploadDir, UploadReferences.RESOURCES_DIRECTORY), false);
+            if (images + resources > 0) {
+                log.info("Moved {} legacy images and {} legacy resources into the sharded upload layout", images, resources);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Legacy upload migration stopped, it resumes on the next start", e);
+        }
+    }
+
+    private int migrateDirectory(Path root, boolean images) throws IOException, InterruptedException {
+        if (Files.notExists(root)) {
+            return 0;
+        }
+        int migrated = 0;
+        List<Path> batch = new ArrayList<>();
+        // Legacy files only live at the top level, which is listed lazily
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, file -> isLegacyFile(file, images))) {
+            for (Path file : files) {
+                batch.add(file);
+                if (batch.size() >= batchSize) {
+                    migrated += migrateBatch(root, batch, images);
+                    batch.clear();
+                    Thread.sleep(pauseMs);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrated += migrateBatch(root, batch, images);
+        }
+        return migrated;
+    }
+
+    private boolean isLegacyFile(Path file, boolean images) {
+        String name = file.getFileName().toString();
+        if (!Files.isRegularFile(file) || contentStore.isContentName(name)) {
+            return false;
+        }
+        // Renditions move together with their image
+        return !images || ImageRendition.sourceBaseName(name) == null;
+    }
+
+    private int migrateBatch(Path root, List<Path> files, boolean images) throws IOException {
+        Map<String, Path> legacyFiles = new LinkedHashMap<>();
+        for (Path file : files) {
+            legacyFiles.put(urlOf(file.getFileName().toString(), images), file);
+        }
+        Set<String> referenced = new HashSet<>();
+        if (images) {
+            referenced.addAll(programImageRepository.findReferencedImageUrls(legacyFiles.keySet()));
+            referenced.addAll(userRepository.findReferencedAvatarUrls(legacyFiles.keySet()));
+        } else {
+            referenced.addAll(resourceRepository.findReferencedFileUrls(legacyFiles.keySet()));
+        }
+
+        Map<String, String> newUrls = new HashMap<>();
+        for (String url : referenced) {
+            Path file = legacyFiles.get(url);
+            String legacyName = file.getFileName().toString();
+            ContentAddressedStore.StoredContent stored = contentStore.link(root, ContentAddressedStore.extensionOf(legacyName), file);
+            if (images) {
+                for (ImageRendition rendition : ImageRendition.values()) {
+                    Path renditionFile = root.resolve(rendition.fileName(legacyName));
+                    if (Files.exists(renditionFile)) {
+                        contentStore.linkAs(root, rendition.fileName(stored.name()), renditionFile);
+                    }
+                }
+            }
+            newUrls.put(url, urlOf(stored.name(), images));
+        }
+        if (newUrls.isEmpty()) {
+            return 0;
+        }
+
+        // Entity updates rather than bulk SQL, so the catalog and ETags hear about the new image URLs
+        transactionTemplate.executeWithoutResult(status -> {
+            if (images) {
+                rewriteImageUrls(newUrls);
+            } else {
+                for (ProgramResourceEntity resource : resourceRepository.findAllByFileUrlIn(newUrls.keySet())) {
+                    resource.setFileUrl(newUrls.get(resource.getFileUrl()));
+                }
+            }
+        });
+        return newUrls.size();
+    }
+
+    private void rewriteImageUrls(Map<String, String> newUrls) {
+        for (ProgramImageEntity image : programImageRepository.findAllByImageUrlIn(newUrls.keySet())) {
+            String oldUrl = image.getImageUrl();
+            String newUrl = newUrls.get(oldUrl);
+            // Rendition URLs are the image URL without extension plus "_<rendition>.jpg"
+            String oldPrefix = stripExtension(oldUrl) + "_";
+            String newPrefix = stripExtension(newUrl) + "_";
+            image.setImageUrl(newUrl);
+            if (image.getSrcset() != null) {
+                image.setSrcset(image.getSrcset().replace(oldPrefix, newPrefix));
+            }
+            image.getVariants().replaceAll((rendition, variant) ->
+                    new ImageVariant(variant.getUrl().replace(oldPrefix, newPrefix), variant.getWidth()));
+        }
+        for (UserEntity user : userRepository.findAllByAvatarUrlIn(newUrls.keySet())) {
+            user.setAvatarUrl(newUrls.get(user.getAvatarUrl()));
+        }
+    }
+
+    private String urlOf(String name, boolean images) {
+        if (images) {
+            return "/uploads/" + (contentStore.isContentName(name) ? contentStore.relativePath(name) : name);
+        }
+        return fileStorageService.getFileUrl(name, UploadReferences.RESOURCES_DIRECTORY);
+    }
+
+    private static String stripExtension(String url) {
+        int dot = url.lastIndexOf('.');
+        return dot > url.lastIndexOf('/') ? url.substring(0, dot) : url;
+    }
+}
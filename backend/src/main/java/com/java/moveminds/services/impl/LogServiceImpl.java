@@ -1,57 +1,224 @@
 package com.java.moveminds.services.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import com.java.moveminds.exceptions.UserNotFoundException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import com.java.moveminds.config.AuditProperties;
+import com.java.moveminds.dto.response.CursorPageResponse;
+import com.java.moveminds.dto.response.admin.AuditLogResponse;
 import com.java.moveminds.entities.LogEntity;
-import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.AuditMode;
 import com.java.moveminds.repositories.LogEntityRepository;
 import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.repositories.specifications.LogSpecification;
 import com.java.moveminds.services.LogService;
+import com.java.moveminds.util.KeysetCursor;
 
 import java.security.Principal;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
 public class LogServiceImpl implements LogService {
 
-    private final UserEntityRepository userRepository;
+    private static final Logger logger = LoggerFactory.getLogger(LogServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final AuditLogWriter auditLogWriter;
+    private final AuditProperties auditProperties;
     private final LogEntityRepository logRepository;
+    private final UserEntityRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // SAMPLED: per-event counters, bounded by the configured events; unmatched actions share the default counter
+    private final Map<String, AtomicLong> sampleCounters = new ConcurrentHashMap<>();
+    private final AtomicLong defaultSampleCounter = new AtomicLong();
+    // COALESCED: "event|user" -> time the event was last recorded
+    private final Cache<String, Long> lastRecorded = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
 
     @Override
     public void log(Principal principal, String action) {
-        String displayName = "System user";
-        if (principal != null) {
-            UserEntity user = userRepository.findByUsername(principal.getName())
-                    .orElseThrow(UserNotFoundException::new);
-            displayName = getDisplayName(user);
+        // Decide before queueing so skipped events cost nothing
+        if (!shouldRecord(principal, action)) {
+            return;
         }
 
-        LogEntity newLog = new LogEntity();
-        newLog.setUser(displayName);
-        newLog.setAction(action);
-        newLog.setTimestamp(new Timestamp(System.currentTimeMillis()));
-
-        logRepository.saveAndFlush(newLog);
+        // Display name resolution and the insert happen on the writer thread, off the request path
+        auditLogWriter.enqueue(principal != null ? principal.getName() : null, action);
+    }
 
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * ?}")
+    public void purgeExpiredLogs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(auditProperties.getRetention().getDays());
+        int deleted = purgeOlderThan(cutoff);
+        logger.info("Audit log retention removed {} entries older than {}", deleted, cutoff);
+    }
 
+    @Override
+    public int purgeOlderThan(LocalDateTime cutoff) {
+        // Deletes in small, separately committed chunks so no single statement holds locks on the table for long
+        AuditProperties.Retention retention = auditProperties.getRetention();
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Integer> ids = logRepository.findIdsOlderThan(cutoffTimestamp, PageRequest.of(0, retention.getChunkSize()));
+                if (!ids.isEmpty()) {
+                    logRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            total += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < retention.getChunkSize()) {
+                return total;
+            }
+            try {
+                Thread.sleep(retention.getPauseMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
     }
 
-    private static String getDisplayName(UserEntity user) {
-        if (user == null) {
-            return "";
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditLogResponse> searchLogs(String user, String action, LocalDateTime from,
+                                                           LocalDateTime to, String after, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Timestamp afterTimestamp = null;
+        Integer afterId = null;
+        if (StringUtils.hasText(after)) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            afterTimestamp = new Timestamp(cursor.getEpochMillis());
+            afterId = cursor.getId();
         }
-        String displayName;
-        if (user.getFirstName() != null && user.getLastName() != null) {
-            displayName = user.getFirstName() + " " + user.getLastName();
-        } else if (user.getFirstName() != null) {
-            displayName = user.getFirstName();
-        } else if (user.getLastName() != null) {
-            displayName = user.getLastName();
+
+        Specification<LogEntity> spec = LogSpecification.buildSpecification(
+                StringUtils.hasText(user) ? storedUserNames(user) : null,
+                StringUtils.hasText(action) ? action : null,
+                from != null ? Timestamp.valueOf(from) : null,
+                to != null ? Timestamp.valueOf(to) : null,
+                afterTimestamp,
+                afterId);
+
+        // Fetch one extra row to know whether another page exists, without a COUNT query
+        List<LogEntity> rows = logRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "timestamp").and(Sort.by(Sort.Direction.DESC, "id")))
+                .limit(pageSize + 1)
+                .all());
+
+        return CursorPageResponse.of(rows, pageSize,
+                entry -> KeysetCursor.encode(entry.getTimestamp().getTime(), entry.getId()),
+                entry -> AuditLogResponse.builder()
+                        .id(entry.getId())
+                        .user(entry.getUser())
+                        .action(entry.getAction())
+                        .timestamp(entry.getTimestamp() != null ? entry.getTimestamp().toLocalDateTime() : null)
+                        .build());
+    }
+
+    /**
+     * Entries store the user's display name, so a username also matches the user's current display name;
+     * the value itself is always matched literally (SYSTEM, or a display name typed in directly).
+     */
+    private List<String> storedUserNames(String user) {
+        return userRepository.findByUsername(user)
+                .map(AuditLogWriter::getDisplayName)
+                .filter(displayName -> !displayName.equals(user))
+                .map(displayName -> List.of(user, displayName))
+                .orElseGet(() -> List.of(user));
+    }
+
+    private boolean shouldRecord(Principal principal, String action) {
+        String event = action != null ? findEvent(action) : null;
+        AuditProperties.EventPolicy policy = event != null ? auditProperties.getEvents().get(event) : null;
+        AtomicLong sampleCounter;
+        if (policy == null) {
+            // Unmatched actions use the default mode with the default sample rate and window. They are sampled
+            // with one shared counter, since arbitrary action strings would grow the counter map without bound,
+            // and coalesced per action in the size-bounded lastRecorded cache
+            policy = defaultPolicy();
+            event = String.valueOf(action);
+            sampleCounter = defaultSampleCounter;
         } else {
-            displayName = user.getUsername();
+            sampleCounter = policy.getMode() == AuditMode.SAMPLED
+                    ? sampleCounters.computeIfAbsent(event, e -> new AtomicLong())
+                    : null;
+        }
+
+        switch (policy.getMode()) {
+            case OFF:
+                return false;
+            case SAMPLED:
+                long count = sampleCounter.getAndIncrement();
+                return count % Math.max(1, policy.getSampleRate()) == 0;
+            case COALESCED:
+                String key = event + "|" + userKey(principal);
+                long now = System.currentTimeMillis();
+                long windowMillis = policy.getWindowSeconds() * 1000;
+                long[] recorded = new long[1];
+                lastRecorded.asMap().compute(key, (k, last) -> {
+                    if (last == null || now - last >= windowMillis) {
+                        recorded[0] = 1;
+                        return now;
+                    }
+                    return last;
+                });
+                return recorded[0] == 1;
+            default:
+                return true;
+        }
+    }
+
+    private AuditProperties.EventPolicy defaultPolicy() {
+        AuditProperties.EventPolicy policy = new AuditProperties.EventPolicy();
+        policy.setMode(auditProperties.getDefaultMode());
+        return policy;
+    }
+
+    // Callers that log without a principal still coalesce per user when the request is authenticated
+    private static String userKey(Principal principal) {
+        if (principal != null) {
+            return principal.getName();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return "";
+    }
+
+    // Longest configured event name that prefixes the action, e.g. "View fitness programs" for "View fitness programs with ID 5"
+    private String findEvent(String action) {
+        String match = null;
+        for (String event : auditProperties.getEvents().keySet()) {
+            if (action.startsWith(event) && (match == null || event.length() > match.length())) {
+                match = event;
+            }
         }
-        return displayName;
+        return match;
     }
 }
@@ -0,0 +1,298 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.config.UploadCleanupProperties;
+import com.java.moveminds.dto.response.admin.UploadCleanupReport;
+import com.java.moveminds.enums.ImageRendition;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.repositories.ProgramResourceEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.ImageUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes stored uploads that nothing references any more: files left behind by cascade deletes,
+ * failed deletes or crashes. The upload directories are walked without listing them up front, and
+ * file names are checked against program images, avatars and program resources one batch at a time.
+ * Files modified within the grace period are never touched, which covers uploads whose row is not
+ * committed yet and content that was just reused (see ContentAddressedStore). Image renditions are
+ * kept as long as their source image exists in the same directory.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrphanedUploadCollector {
+
+    private final UploadCleanupProperties properties;
+    private final ProgramImageEntityRepository programImageRepository;
+    private final ProgramResourceEntityRepository resourceRepository;
+    private final UserEntityRepository userRepository;
+    private final ImageUploadService imageUploadService;
+    private final FileStorageService fileStorageService;
+    private final ContentAddressedStore contentStore;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${upload.path}")
+    private String uploadPath;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Scheduled(cron = "${upload.cleanup.cron:0 0 4 * * ?}")
+    public void collectScheduled() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        UploadCleanupReport report = collect(properties.isDryRun());
+        log.info("Orphaned upload collection{}: scanned {} files, {} orphaned ({} bytes), {} deleted, {} failed in {} ms",
+                report.isDryRun() ? " (dry run)" : "", report.getScannedFiles(), report.getOrphanedFiles(),
+                report.getOrphanedBytes(), report.getDeletedFiles(), report.getFailedDeletes(), report.getDurationMs());
+    }
+
+    /**
+     * Walks the image and resource stores once and deletes (or, in a dry run, only reports) every orphan.
+     *
+     * @throws IllegalStateException if a collection is already running
+     */
+    public UploadCleanupReport collect(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An orphaned upload collection is already running");
+        }
+        try {
+            UploadCleanupReport report = new UploadCleanupReport();
+            report.setDryRun(dryRun);
+            report.setStartedAt(LocalDateTime.now());
+            long started = System.nanoTime();
+
+            long cutoff = System.currentTimeMillis() - Duration.ofHours(properties.getGracePeriodHours()).toMillis();
+            Sweep images = new Sweep(Paths.get(uploadPath), true, cutoff, dryRun, report);
+            if (images.run()) {
+                new Sweep(Paths.get(uploadDir, UploadReferences.RESOURCES_DIRECTORY), false, cutoff, dryRun, report).run();
+            }
+
+            report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private record Candidate(Path path, String url, long size) {
+    }
+
+    /**
+     * One walk over a store. Files old enough to be collected are buffered and checked against the
+     * database in batches; renditions are matched against their directory's source images once the
+     * directory has been walked.
+     */
+    private final class Sweep extends SimpleFileVisitor<Path> {
+        private final Path root;
+        private final boolean images;
+        private final long cutoff;
+        private final boolean dryRun;
+        private final UploadCleanupReport report;
+        private final long deleteIntervalNanos;
+        private final List<Candidate> batch = new ArrayList<>();
+        private final Deque<DirectoryState> directories = new ArrayDeque<>();
+        private long nextDeleteAt = System.nanoTime();
+        private boolean interrupted;
+
+        Sweep(Path root, boolean images, long cutoff, boolean dryRun, UploadCleanupReport report) {
+            this.root = root;
+            this.images = images;
+            this.cutoff = cutoff;
+            this.dryRun = dryRun;
+            this.report = report;
+            this.deleteIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, properties.getMaxDeletesPerSecond());
+        }
+
+        /**
+         * @return false if the collection was interrupted
+         */
+        boolean run() {
+            if (Files.notExists(root)) {
+                return true;
+            }
+            try {
+                Files.walkFileTree(root, this);
+                if (!interrupted) {
+                    flushBatch();
+                }
+            } catch (IOException e) {
+                log.warn("Orphaned upload collection of {} stopped early", root, e);
+            }
+            return !interrupted;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (dir.getFileName().toString().equals(ContentAddressedStore.TEMP_DIRECTORY)) {
+                // Uploads in progress; chunked upload sessions purge their own temp files
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            directories.push(new DirectoryState());
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (!attrs.isRegularFile()) {
+                return FileVisitResult.CONTINUE;
+            }
+            report.setScannedFiles(report.getScannedFiles() + 1);
+
+            String name = file.getFileName().toString();
+            String sourceName = images ? ImageRendition.sourceBaseName(name) : null;
+            if (images && sourceName == null) {
+                directories.element().sourceNames.add(stripExtension(name));
+            }
+            if (attrs.lastModifiedTime().toMillis() > cutoff) {
+                report.setRecentFiles(report.getRecentFiles() + 1);
+                return FileVisitResult.CONTINUE;
+            }
+
+            Candidate candidate = new Candidate(file, urlOf(file), attrs.size());
+            if (sourceName != null) {
+                directories.element().renditions.put(candidate, sourceName);
+                return FileVisitResult.CONTINUE;
+            }
+            batch.add(candidate);
+            if (batch.size() >= properties.getBatchSize()) {
+                flushBatch();
+            }
+            return interrupted ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            if (!(exc instanceof NoSuchFileException)) {
+                // Renditions deleted together with their source image disappear mid-walk; anything else is worth a warning
+                log.warn("Could not inspect stored file {}", file, exc);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            DirectoryState state = directories.pop();
+            for (Map.Entry<Candidate, String> rendition : state.renditions.entrySet()) {
+                if (!state.sourceNames.contains(rendition.getValue())) {
+                    collect(rendition.getKey());
+                }
+            }
+            return interrupted ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+
+        private void flushBatch() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<String> urls = batch.stream().map(Candidate::url).toList();
+            Set<String> referenced = new HashSet<>();
+            if (images) {
+                referenced.addAll(programImageRepository.findReferencedImageUrls(urls));
+                referenced.addAll(userRepository.findReferencedAvatarUrls(urls));
+            } else {
+                referenced.addAll(resourceRepository.findReferencedFileUrls(urls));
+            }
+            for (Candidate candidate : batch) {
+                if (!referenced.contains(candidate.url())) {
+                    collect(candidate);
+                }
+            }
+            batch.clear();
+        }
+
+        private void collect(Candidate orphan) {
+            if (interrupted) {
+                return;
+            }
+            report.setOrphanedFiles(report.getOrphanedFiles() + 1);
+            report.setOrphanedBytes(report.getOrphanedBytes() + orphan.size());
+            if (report.getOrphans().size() < properties.getReportLimit()) {
+                report.getOrphans().add(orphan.url());
+            }
+            if (dryRun || !pace()) {
+                return;
+            }
+            try {
+                if (delete(orphan)) {
+                    report.setDeletedFiles(report.getDeletedFiles() + 1);
+                }
+            } catch (IOException e) {
+                report.setFailedDeletes(report.getFailedDeletes() + 1);
+                log.warn("Could not delete orphaned upload {}", orphan.path(), e);
+            }
+        }
+
+        /**
+         * Deletes an orphan unless it was reused since it was visited (its modification time is checked again).
+         *
+         * @return whether the file was deleted
+         */
+        private boolean delete(Candidate orphan) throws IOException {
+            if (images && ImageRendition.sourceBaseName(orphan.path().getFileName().toString()) == null) {
+                return imageUploadService.deleteImageFile(orphan.url(), cutoff); // also removes its renditions
+            }
+            return contentStore.deleteIfUnmodifiedSince(orphan.path(), cutoff);
+        }
+
+        private boolean pace() {
+            long wait = nextDeleteAt - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                    return false;
+                }
+            }
+            nextDeleteAt = Math.max(nextDeleteAt, System.nanoTime()) + deleteIntervalNanos;
+            return true;
+        }
+
+        private String urlOf(Path file) {
+            if (images) {
+                return "/uploads/" + root.relativize(file).toString().replace('\\', '/');
+            }
+            return fileStorageService.getFileUrl(file.getFileName().toString(), UploadReferences.RESOURCES_DIRECTORY);
+        }
+    }
+
+    private static final class DirectoryState {
+        private final Set<String> sourceNames = new HashSet<>();
+        private final Map<Candidate, String> renditions = new HashMap<>();
+    }
+
+    private static String stripExtension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
@@ -0,0 +1,566 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.response.FitnessProgramHomeResponse;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.LocationEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.events.AggregateVersions;
+import com.java.moveminds.events.EntityChangedEvent;
+import com.java.moveminds.repositories.FitnessProgramEntityRepository;
+import com.java.moveminds.repositories.ProgramAttributeEntityRepository;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.repositories.projections.ProgramAttributeValueView;
+import com.java.moveminds.repositories.projections.ProgramImageUrlView;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory, denormalized copy of the public program listing. Each program is stored as a ready-made
+ * FitnessProgramHomeResponse together with the ids the listing endpoints filter on, so listing pages
+ * are served without loading entities. The snapshot keeps the active programs and each category's
+ * programs in id order, and caches a few sorted views of them, so the common listings are served
+ * without filtering or sorting the whole catalog. It is built on startup and patched after every
+ * committed change to a program, its images or attributes, its instructor or its location.
+ * A failed patch keeps the previous snapshot and marks the programs dirty; they are reloaded with the
+ * next change or by the repair task, which also retries a failed full build with exponential backoff.
+ */
+@Component
+public class ProgramCatalogReadModel {
+    private static final Logger logger = LoggerFactory.getLogger(ProgramCatalogReadModel.class);
+    // Sorted views cached per snapshot; beyond this, further sort orders are sorted per request
+    private static final int MAX_SORTED_VIEWS = 64;
+
+    private final FitnessProgramEntityRepository fitnessProgramRepository;
+    private final ProgramImageEntityRepository programImageRepository;
+    private final ProgramAttributeEntityRepository programAttributeRepository;
+    private final ProgramFacetIndex facetIndex;
+    private final TransactionTemplate readTransaction;
+    private final AggregateVersions aggregateVersions;
+
+    private final long repairIntervalMs;
+    private final long maxRepairBackoffMs;
+
+    private volatile Snapshot snapshot; // null until the first full build succeeds
+    // Programs whose last refresh failed; only changed while holding this object's monitor
+    private final Set<Integer> dirtyProgramIds = ConcurrentHashMap.newKeySet();
+    // Events delivered while a full build runs, replayed once it finishes; guarded by bufferLock
+    private final Object bufferLock = new Object();
+    private List<EntityChangedEvent> bufferedEvents;
+    // Only touched by the repair task
+    private int failedRepairs;
+    private long nextRepairAt;
+
+    public ProgramCatalogReadModel(FitnessProgramEntityRepository fitnessProgramRepository,
+                                   ProgramImageEntityRepository programImageRepository,
+                                   ProgramAttributeEntityRepository programAttributeRepository,
+                                   ProgramFacetIndex facetIndex,
+                                   PlatformTransactionManager transactionManager,
+                                   AggregateVersions aggregateVersions,
+                                   @Value("${catalog.repair.interval-ms:5000}") long repairIntervalMs,
+                                   @Value("${catalog.repair.max-backoff-ms:300000}") long maxRepairBackoffMs) {
+        this.fitnessProgramRepository = fitnessProgramRepository;
+        this.programImageRepository = programImageRepository;
+        this.programAttributeRepository = programAttributeRepository;
+        this.facetIndex = facetIndex;
+        this.aggregateVersions = aggregateVersions;
+        this.repairIntervalMs = repairIntervalMs;
+        this.maxRepairBackoffMs = maxRepairBackoffMs;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // Refreshes run from afterCommit callbacks, so they need a transaction of their own
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Returns one page of the active programs, sorted by the pageable's sort (id, name, price, duration,
+     * difficultyLevel or createdAt) with id as the tie-breaker.
+     *
+     * @throws IllegalArgumentException if the sort references an unsupported property
+     */
+    public Page<FitnessProgramHomeResponse> findActivePage(Pageable pageable) {
+        Snapshot current = current();
+        return page(current.sorted("active", current.active, pageable.getSort()), pageable);
+    }
+
+    /**
+     * Returns one page of the programs in the given category, sorted like {@link #findActivePage}.
+     *
+     * @throws IllegalArgumentException if the sort references an unsupported property
+     */
+    public Page<FitnessProgramHomeResponse> findCategoryPage(Integer categoryId, Pageable pageable) {
+        Snapshot current = current();
+        List<CatalogEntry> entries = current.byCategory.getOrDefault(categoryId, List.of());
+        return page(current.sorted("category:" + categoryId, entries, pageable.getSort()), pageable);
+    }
+
+    /**
+     * Returns one page of the catalog entries that match the filter, sorted like {@link #findActivePage}.
+     * Scans the whole catalog, so listings that are requested often get a pre-sorted list of their own.
+     *
+     * @throws IllegalArgumentException if the sort references an unsupported property
+     */
+    public Page<FitnessProgramHomeResponse> findPage(Predicate<CatalogEntry> filter, Pageable pageable) {
+        Snapshot current = current();
+        Comparator<CatalogEntry> comparator = comparatorFor(pageable.getSort());
+        List<CatalogEntry> matching = current.ordered.stream()
+                .filter(filter)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (comparator != null) {
+            matching.sort(comparator);
+        }
+        return page(matching, pageable);
+    }
+
+    private static Page<FitnessProgramHomeResponse> page(List<CatalogEntry> matching, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matching.stream().map(CatalogEntry::getResponse).toList(), pageable, matching.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = Math.min(from + pageable.getPageSize(), matching.size());
+        List<FitnessProgramHomeResponse> content = matching.subList(from, to).stream()
+                .map(CatalogEntry::getResponse)
+                .toList();
+        return new PageImpl<>(content, pageable, matching.size());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Program catalog is not loaded yet");
+        }
+        return current;
+    }
+
+    /**
+     * Returns the catalog responses for the given program ids in ascending id order,
+     * skipping {@code offset} matches and returning at most {@code limit}.
+     */
+    public List<FitnessProgramHomeResponse> findByIds(BitSet programIds, int offset, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Program catalog is not loaded yet");
+        }
+
+        List<FitnessProgramHomeResponse> content = new ArrayList<>();
+        int skipped = 0;
+        for (int id = programIds.nextSetBit(0); id >= 0 && content.size() < limit; id = programIds.nextSetBit(id + 1)) {
+            CatalogEntry entry = current.byId.get(id);
+            if (entry == null) {
+                continue;
+            }
+            if (skipped++ >= offset) {
+                content.add(entry.getResponse());
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Returns the catalog responses for the given program ids in the given order, skipping ids
+     * that are not (or no longer) in the catalog.
+     */
+    public List<FitnessProgramHomeResponse> findAllById(List<Integer> programIds) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Program catalog is not loaded yet");
+        }
+        return programIds.stream()
+                .map(current.byId::get)
+                .filter(Objects::nonNull)
+                .map(CatalogEntry::getResponse)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Listings fall back to the database until the repair task has built the catalog
+            logger.warn("Program catalog could not be built, serving listings from the database", e);
+        }
+    }
+
+    /**
+     * Loads the whole catalog again. Changes delivered while it loads are buffered and applied to the
+     * new snapshot afterwards, since the load may or may not have seen them.
+     */
+    public synchronized void rebuild() {
+        synchronized (bufferLock) {
+            bufferedEvents = new ArrayList<>();
+        }
+        List<EntityChangedEvent> missed;
+        try {
+            long start = System.currentTimeMillis();
+            Map<Integer, CatalogEntry> entries = readTransaction.execute(status -> load(
+                    fitnessProgramRepository.findAllForCatalog(),
+                    programImageRepository.findAllImageUrls(),
+                    programAttributeRepository.findAllAttributeValues()));
+            facetIndex.rebuild(entries.values());
+            snapshot = new Snapshot(entries);
+            dirtyProgramIds.clear();
+            logger.info("Program catalog built with {} programs in {} ms", entries.size(), System.currentTimeMillis() - start);
+        } finally {
+            synchronized (bufferLock) {
+                missed = bufferedEvents;
+                bufferedEvents = null;
+            }
+            // Already announced to AggregateVersions when they were delivered, so applying them bumps the programs again
+            missed.forEach(event -> apply(event, false));
+        }
+    }
+
+    /**
+     * Builds the catalog if no build has succeeded yet and reloads programs whose refresh failed.
+     * Consecutive failures back off exponentially up to the configured maximum.
+     */
+    @Scheduled(fixedDelayString = "${catalog.repair.interval-ms:5000}")
+    public void repair() {
+        long now = System.currentTimeMillis();
+        if (now < nextRepairAt || (snapshot != null && dirtyProgramIds.isEmpty())) {
+            return;
+        }
+        try {
+            if (snapshot == null) {
+                rebuild();
+            } else {
+                refresh(Set.of(), false);
+            }
+            failedRepairs = 0;
+            nextRepairAt = 0;
+        } catch (RuntimeException e) {
+            failedRepairs++;
+            long backoff = Math.min(maxRepairBackoffMs, repairIntervalMs << Math.min(failedRepairs, 20));
+            nextRepairAt = now + backoff;
+            logger.warn("Program catalog repair failed {} time(s), retrying in {} ms", failedRepairs, backoff, e);
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntityChanged(EntityChangedEvent event) {
+        synchronized (bufferLock) {
+            if (bufferedEvents != null) {
+                bufferedEvents.add(event);
+                return;
+            }
+        }
+        apply(event, true);
+    }
+
+    /**
+     * @param announced whether AggregateVersions bumps the versions for this event after the read models have applied it
+     */
+    private void apply(EntityChangedEvent event, boolean announced) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return; // the pending full build reads everything this change touched
+        }
+
+        Set<Integer> programIds = new HashSet<>(event.getIds(FitnessProgramEntity.class));
+        if (event.contains(UserEntity.class)) {
+            Set<Integer> instructorIds = event.getIds(UserEntity.class);
+            current.ordered.stream()
+                    .filter(entry -> instructorIds.contains(entry.getInstructorId()))
+                    .forEach(entry -> programIds.add(entry.getId()));
+        }
+        if (event.contains(LocationEntity.class)) {
+            Set<Integer> locationIds = event.getIds(LocationEntity.class);
+            current.ordered.stream()
+                    .filter(entry -> entry.getLocationId() != null && locationIds.contains(entry.getLocationId()))
+                    .forEach(entry -> programIds.add(entry.getId()));
+        }
+
+        if (!programIds.isEmpty()) {
+            try {
+                refresh(programIds, announced);
+            } catch (RuntimeException e) {
+                // The programs stay dirty and are retried with the next change or by the repair task
+                logger.error("Program catalog refresh failed for programs {}, keeping the previous entries", programIds, e);
+            }
+        }
+    }
+
+    /**
+     * Reloads the given programs together with any programs left dirty by an earlier failure.
+     * Programs the refresh brings up to date beyond an announced change get their versions bumped.
+     * On failure all of them are (still) dirty and the current snapshot is kept.
+     */
+    private synchronized void refresh(Set<Integer> changedIds, boolean announced) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        Set<Integer> programIds = new HashSet<>(changedIds);
+        programIds.addAll(dirtyProgramIds);
+        if (programIds.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, CatalogEntry> reloaded;
+        try {
+            reloaded = readTransaction.execute(status -> load(
+                    fitnessProgramRepository.findAllForCatalogByIdIn(programIds),
+                    programImageRepository.findImageUrlsByProgramIds(programIds),
+                    programAttributeRepository.findAttributeValuesByProgramIds(programIds)));
+        } catch (RuntimeException e) {
+            dirtyProgramIds.addAll(programIds);
+            throw e;
+        }
+
+        Map<Integer, CatalogEntry> previous = new HashMap<>();
+        for (Integer programId : programIds) {
+            CatalogEntry old = current.byId.get(programId);
+            if (old != null) {
+                previous.put(programId, old);
+            }
+        }
+        facetIndex.update(previous, reloaded);
+        snapshot = current.patch(programIds, reloaded); // programs missing from reloaded were deleted
+        dirtyProgramIds.removeAll(programIds);
+        Set<Integer> unannounced = new HashSet<>(programIds);
+        if (announced) {
+            unannounced.removeAll(changedIds);
+        }
+        aggregateVersions.bumpPrograms(unannounced);
+        logger.debug("Program catalog refreshed for programs {}", programIds);
+    }
+
+    private Map<Integer, CatalogEntry> load(List<FitnessProgramEntity> programs,
+                                            List<ProgramImageUrlView> images,
+                                            List<ProgramAttributeValueView> attributes) {
+        Map<Integer, List<ProgramImageUrlView>> imagesByProgram = images.stream()
+                .collect(Collectors.groupingBy(ProgramImageUrlView::getProgramId));
+        Map<Integer, List<ProgramAttributeValueView>> attributesByProgram = attributes.stream()
+                .collect(Collectors.groupingBy(ProgramAttributeValueView::getProgramId));
+
+        Map<Integer, CatalogEntry> entries = new HashMap<>();
+        for (FitnessProgramEntity program : programs) {
+            List<ProgramAttributeValueView> programAttributes = attributesByProgram.getOrDefault(program.getId(), List.of());
+            entries.put(program.getId(), new CatalogEntry(
+                    toResponse(program, imagesByProgram.getOrDefault(program.getId(), List.of())),
+                    Boolean.TRUE.equals(program.getIsActive()),
+                    program.getCategory() != null ? program.getCategory().getId() : null,
+                    program.getUser().getId(),
+                    program.getLocation() != null ? program.getLocation().getId() : null,
+                    programAttributes.stream().map(ProgramAttributeValueView::getAttributeId).collect(Collectors.toUnmodifiableSet()),
+                    programAttributes.stream().map(ProgramAttributeValueView::getAttributeValueId).collect(Collectors.toUnmodifiableSet()),
+                    program.getCreatedAt()));
+        }
+        return entries;
+    }
+
+    private FitnessProgramHomeResponse toResponse(FitnessProgramEntity program, List<ProgramImageUrlView> images) {
+        FitnessProgramHomeResponse response = new FitnessProgramHomeResponse();
+        response.setId(program.getId());
+        response.setName(program.getName());
+        response.setDescription(program.getDescription());
+        response.setPrice(program.getPrice());
+        response.setDuration(program.getDuration());
+        response.setDifficultyLevel(program.getDifficultyLevel());
+        response.setInstructorId(program.getUser().getId());
+        response.setInstructorName(FitnessProgramServiceImpl.generateInstructorName(program.getUser()));
+        if (program.getLocation() != null) {
+            response.setLocationName(program.getLocation().getName());
+        }
+        response.setImages(images.stream().map(ProgramImageUrlView::getImageUrl).toList());
+        response.setImageSrcsets(images.stream()
+                .map(image -> ProgramImageVariantGenerator.srcsetOrUrl(image.getImageUrl(), image.getSrcset()))
+                .toList());
+        return response;
+    }
+
+    private static Comparator<CatalogEntry> comparatorFor(Sort sort) {
+        if (sort.isUnsorted()) {
+            return null; // snapshot is already ordered by id
+        }
+        Comparator<CatalogEntry> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<CatalogEntry> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(CatalogEntry::getId);
+                case "name" -> Comparator.comparing(e -> e.getResponse().getName(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+                case "price" -> Comparator.comparing(e -> e.getResponse().getPrice(), Comparator.nullsLast(Comparator.naturalOrder()));
+                case "duration" -> Comparator.comparing(e -> e.getResponse().getDuration(), Comparator.nullsLast(Comparator.naturalOrder()));
+                case "difficultyLevel" -> Comparator.comparing(e -> e.getResponse().getDifficultyLevel(), Comparator.nullsLast(Comparator.naturalOrder()));
+                case "createdAt" -> Comparator.comparing(CatalogEntry::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparing(CatalogEntry::getId);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class CatalogEntry {
+        private final FitnessProgramHomeResponse response;
+        private final boolean active;
+        private final Integer categoryId;
+        private final Integer instructorId;
+        private final Integer locationId;
+        private final Set<Integer> attributeIds;
+        private final Set<Integer> attributeValueIds;
+        private final LocalDateTime createdAt;
+
+        public Integer getId() {
+            return response.getId();
+        }
+    }
+
+    /**
+     * Immutable catalog state. Every list is in id order; a patch rebuilds only the lists the changed
+     * programs were or are in, by binary-search removal and insertion, and shares the others.
+     */
+    private static final class Snapshot {
+        private static final Comparator<CatalogEntry> BY_ID = Comparator.comparing(CatalogEntry::getId);
+
+        private final Map<Integer, CatalogEntry> byId;
+        private final List<CatalogEntry> ordered;
+        private final List<CatalogEntry> active;
+        private final Map<Integer, List<CatalogEntry>> byCategory;
+        // Selection and sort -> sorted copy of that selection, filled on first use
+        private final Map<String, List<CatalogEntry>> sortedViews = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<Integer, CatalogEntry> byId) {
+            this.byId = Map.copyOf(byId);
+            this.ordered = byId.values().stream().sorted(BY_ID).toList();
+            this.active = ordered.stream().filter(CatalogEntry::isActive).toList();
+            Map<Integer, List<CatalogEntry>> categories = new HashMap<>();
+            for (CatalogEntry entry : ordered) {
+                if (entry.getCategoryId() != null) {
+                    categories.computeIfAbsent(entry.getCategoryId(), id -> new ArrayList<>()).add(entry);
+                }
+            }
+            categories.replaceAll((id, entries) -> Collections.unmodifiableList(entries));
+            this.byCategory = categories;
+        }
+
+        private Snapshot(Map<Integer, CatalogEntry> byId, List<CatalogEntry> ordered, List<CatalogEntry> active,
+                         Map<Integer, List<CatalogEntry>> byCategory) {
+            this.byId = byId;
+            this.ordered = ordered;
+            this.active = active;
+            this.byCategory = byCategory;
+        }
+
+        /**
+         * Returns a snapshot in which the given programs are replaced by their reloaded entries,
+         * or removed when they have none.
+         */
+        private Snapshot patch(Set<Integer> programIds, Map<Integer, CatalogEntry> reloaded) {
+            Map<Integer, CatalogEntry> entries = new HashMap<>(byId);
+            Set<Integer> touchedCategories = new HashSet<>();
+            for (Integer programId : programIds) {
+                CatalogEntry entry = reloaded.get(programId);
+                CatalogEntry old = entry != null ? entries.put(programId, entry) : entries.remove(programId);
+                if (old != null && old.getCategoryId() != null) {
+                    touchedCategories.add(old.getCategoryId());
+                }
+                if (entry != null && entry.getCategoryId() != null) {
+                    touchedCategories.add(entry.getCategoryId());
+                }
+            }
+
+            Collection<CatalogEntry> added = reloaded.values();
+            Map<Integer, List<CatalogEntry>> categories = new HashMap<>(byCategory);
+            for (Integer categoryId : touchedCategories) {
+                List<CatalogEntry> patched = patched(categories.getOrDefault(categoryId, List.of()), programIds,
+                        added.stream().filter(entry -> categoryId.equals(entry.getCategoryId())).toList());
+                if (patched.isEmpty()) {
+                    categories.remove(categoryId);
+                } else {
+                    categories.put(categoryId, patched);
+                }
+            }
+            return new Snapshot(Collections.unmodifiableMap(entries),
+                    patched(ordered, programIds, added),
+                    patched(active, programIds, added.stream().filter(CatalogEntry::isActive).toList()),
+                    categories);
+        }
+
+        /**
+         * Copy of an id-ordered list without the given programs and with the additions inserted in order.
+         */
+        private static List<CatalogEntry> patched(List<CatalogEntry> entries, Set<Integer> removedIds, Collection<CatalogEntry> additions) {
+            List<CatalogEntry> patched = new ArrayList<>(entries.size() + additions.size());
+            patched.addAll(entries);
+            for (Integer programId : removedIds) {
+                int index = indexOf(patched, programId);
+                if (index >= 0) {
+                    patched.remove(index);
+                }
+            }
+            for (CatalogEntry entry : additions) {
+                patched.add(-indexOf(patched, entry.getId()) - 1, entry);
+            }
+            return Collections.unmodifiableList(patched);
+        }
+
+        // Collections.binarySearch contract over the ids of an id-ordered list
+        private static int indexOf(List<CatalogEntry> entries, int programId) {
+            int low = 0;
+            int high = entries.size() - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int id = entries.get(middle).getId();
+                if (id < programId) {
+                    low = middle + 1;
+                } else if (id > programId) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * The selection in the requested order: the list itself when unsorted, otherwise a sorted copy
+         * that is kept for later requests (up to MAX_SORTED_VIEWS per snapshot).
+         */
+        private List<CatalogEntry> sorted(String selection, List<CatalogEntry> entries, Sort sort) {
+            Comparator<CatalogEntry> comparator = comparatorFor(sort);
+            if (comparator == null) {
+                return entries;
+            }
+            String key = selection + "|" + sort;
+            List<CatalogEntry> sorted = sortedViews.get(key);
+            if (sorted == null) {
+                sorted = entries.stream().sorted(comparator).toList();
+                if (sortedViews.size() < MAX_SORTED_VIEWS) {
+                    sortedViews.putIfAbsent(key, sorted);
+                }
+            }
+            return sorted;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.java.moveminds.services.impl;
 
+import com.java.moveminds.dto.request.CurriculumBatchRequest;
 import com.java.moveminds.dto.request.ProgramLessonRequest;
 import com.java.moveminds.dto.request.ProgramModuleRequest;
 import com.java.moveminds.dto.request.ProgramResourceRequest;
+import com.java.moveminds.dto.response.CurriculumBatchResponse;
 import com.java.moveminds.dto.response.ProgramLearningContentResponse;
 import com.java.moveminds.dto.response.ProgramLessonResponse;
 import com.java.moveminds.dto.response.ProgramModuleResponse;
@@ -15,13 +17,21 @@ import com.java.moveminds.services.FileStorageService;
 import com.java.moveminds.services.ProgramContentManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.security.Principal;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,13 +47,17 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
     private final UserEntityRepository userRepository;
     private final UserProgramEntityRepository userProgramRepository;
     private final FileStorageService fileStorageService;
+    private final UploadReferences uploadReferences;
+    private final UserProgressEntityRepository userProgressRepository;
+    private final ProgramCurriculumCache curriculumCache;
     
     @Override
-    @Transactional(readOnly = true)
+    // No surrounding transaction: a curriculum cache miss loads in a transaction of its own on the same connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProgramLearningContentResponse getProgramLearningContent(Integer programId, Principal principal) {
         log.info("Fetching program learning content for program ID: {}", programId);
         
-        FitnessProgramEntity program = programRepository.findById(programId)
+        FitnessProgramEntity program = programRepository.findWithDetailsById(programId)
                 .orElseThrow(() -> new IllegalArgumentException("Program not found with ID: " + programId));
         log.info("Found program: {} (name: {})", program.getId(), program.getName());
         
@@ -58,105 +72,36 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
         }
         log.info("Access granted for user: {} to program: {}", user.getUsername(), program.getName());
         
-        List<ProgramModuleEntity> modules;
-        try {
-            log.info("Fetching published modules for program ID: {}", programId);
-            modules = moduleRepository.findPublishedByProgramIdOrderByOrderIndex(programId);
-            log.info("Found {} published modules", modules != null ? modules.size() : 0);
-            
-            // Fetch resources for all lessons separately to avoid MultipleBagFetchException
-            if (modules != null && !modules.isEmpty()) {
-                List<Integer> lessonIds = modules.stream()
-                        .filter(module -> module.getLessons() != null)
-                        .flatMap(module -> module.getLessons().stream())
-                        .map(ProgramLessonEntity::getId)
-                        .collect(Collectors.toList());
-                
-                if (!lessonIds.isEmpty()) {
-                    log.info("Fetching resources for {} lessons", lessonIds.size());
-                    List<ProgramLessonEntity> lessonsWithResources = lessonRepository.findByIdsWithResources(lessonIds);
-                    
-                    // Update the lessons in modules with the fetched resources
-                    modules.forEach(module -> {
-                        if (module.getLessons() != null) {
-                            module.getLessons().forEach(lesson -> {
-                                lessonsWithResources.stream()
-                                        .filter(lessonWithResources -> lessonWithResources.getId().equals(lesson.getId()))
-                                        .findFirst()
-                                        .ifPresent(lessonWithResources -> {
-                                            lesson.setResources(lessonWithResources.getResources());
-                                        });
-                            });
-                        }
-                    });
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to fetch published modules, trying fallback query: {}", e.getMessage(), e);
-            // Fallback to simple query without eager loading
-            modules = moduleRepository.findByProgramIdOrderByOrderIndex(programId)
-                    .stream()
-                    .filter(module -> module.getIsPublished() != null && module.getIsPublished())
-                    .collect(Collectors.toList());
-            log.info("Fallback query found {} published modules", modules.size());
-        }
+        // The curriculum is shared by all learners; only their progress is looked up per request
+        ProgramCurriculumCache.CurriculumSnapshot curriculum =
+                curriculumCache.get(programId, () -> buildCurriculumSnapshot(programId));
         
-        // Calculate progress for enrolled users
         Integer completedLessons = 0;
         Double progressPercentage = 0.0;
-        
-        if (user.getRole() == Roles.USER) {
-            boolean isEnrolled = userProgramRepository.existsByUserByUserIdAndFitnessProgramByProgramId(user, program);
-            if (isEnrolled) {
-                // TODO: Implement lesson completion tracking
-                // For now, we'll use a placeholder
-                completedLessons = 0;
-                int totalLessons = modules != null ? modules.stream()
-                        .mapToInt(module -> module.getLessons() != null ? module.getLessons().size() : 0)
-                        .sum() : 0;
-                progressPercentage = totalLessons > 0 ? (double) completedLessons / totalLessons * 100 : 0.0;
-            }
-        }
-        
-        int totalLessons = modules != null ? modules.stream()
-                .mapToInt(module -> module.getLessons() != null ? module.getLessons().size() : 0)
-                .sum() : 0;
-        
-        int totalDurationMinutes = modules != null ? modules.stream()
-                .filter(module -> module.getLessons() != null)
-                .flatMap(module -> module.getLessons().stream())
-                .mapToInt(lesson -> lesson.getDurationMinutes() != null ? lesson.getDurationMinutes() : 0)
-                .sum() : 0;
-        
-        log.info("Building response for program: {} with {} modules, {} total lessons", 
-                program.getName(), modules != null ? modules.size() : 0, totalLessons);
-        
-        try {
-            ProgramLearningContentResponse response = ProgramLearningContentResponse.builder()
-                    .id(program.getId())
-                    .name(program.getName())
-                    .description(program.getDescription())
-                    .difficultyLevel(program.getDifficultyLevel().toString())
-                    .duration(program.getDuration())
-                    .price(program.getPrice())
-                    .instructorName(program.getUser().getFirstName() + " " + program.getUser().getLastName())
-                    .instructorAvatarUrl(program.getUser().getAvatarUrl())
-                    .categoryName(program.getCategory() != null ? program.getCategory().getName() : null)
-                    .locationName(program.getLocation() != null ? program.getLocation().getName() : null)
-                    .createdAt(program.getCreatedAt())
-                    .modules(modules != null ? modules.stream().map(this::mapToModuleResponse).collect(Collectors.toList()) : List.of())
-                    .totalLessons(totalLessons)
-                    .totalDurationMinutes(totalDurationMinutes)
-                    .completedLessons(completedLessons)
-                    .progressPercentage(progressPercentage)
-                    .build();
-            
-            log.info("Successfully built response for program: {}", program.getName());
-            return response;
-        } catch (Exception e) {
-            log.error("Error building response for program: {} - {}", program.getName(), e.getMessage(), e);
-            throw e;
-        }
+        if (user.getRole() == Roles.USER && curriculum.totalLessons() > 0) {
+            Long completed = userProgressRepository.countCompletedLessonsByUserAndProgram(user, program);
+            completedLessons = (int) Math.min(completed != null ? completed : 0, curriculum.totalLessons());
+            progressPercentage = (double) completedLessons / curriculum.totalLessons() * 100;
+        }
+        
+        return ProgramLearningContentResponse.builder()
+                .id(program.getId())
+                .name(program.getName())
+                .description(program.getDescription())
+                .difficultyLevel(program.getDifficultyLevel().toString())
+                .duration(program.getDuration())
+                .price(program.getPrice())
+                .instructorName(program.getUser().getFirstName() + " " + program.getUser().getLastName())
+                .instructorAvatarUrl(program.getUser().getAvatarUrl())
+                .categoryName(program.getCategory() != null ? program.getCategory().getName() : null)
+                .locationName(program.getLocation() != null ? program.getLocation().getName() : null)
+                .createdAt(program.getCreatedAt())
+                .modules(curriculum.modules())
+                .totalLessons(curriculum.totalLessons())
+                .totalDurationMinutes(curriculum.totalDurationMinutes())
+                .completedLessons(completedLessons)
+                .progressPercentage(progressPercentage)
+                .build();
     }
     
     @Override
@@ -227,6 +172,8 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
             throw new UnauthorizedAccessException("You don't have permission to delete this module");
         }
         
+        // Released after commit; the lessons and their resources are read while the module is still managed
+        uploadReferences.releaseLessonResources(module.getLessons());
         moduleRepository.delete(module);
     }
     
@@ -330,6 +277,7 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
             throw new UnauthorizedAccessException("You don't have permission to delete this lesson");
         }
         
+        uploadReferences.releaseLessonResources(List.of(lesson));
         lessonRepository.delete(lesson);
     }
     
@@ -415,6 +363,7 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
             throw new UnauthorizedAccessException("You don't have permission to modify this resource");
         }
         
+        String previousFileUrl = resource.getFileUrl();
         resource.setTitle(request.getTitle());
         resource.setDescription(request.getDescription());
         resource.setFileUrl(request.getFileUrl());
@@ -425,6 +374,9 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
         }
         
         resource = resourceRepository.save(resource);
+        if (!Objects.equals(previousFileUrl, resource.getFileUrl())) {
+            uploadReferences.releaseResource(previousFileUrl);
+        }
         
         return mapToResourceResponse(resource);
     }
@@ -444,6 +396,7 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
         }
         
         resourceRepository.delete(resource);
+        uploadReferences.releaseResource(resource.getFileUrl());
     }
     
     @Override
@@ -482,13 +435,10 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
             throw new UnauthorizedAccessException("You don't have permission to reorder modules");
         }
         
+        Map<Integer, ProgramModuleEntity> modules = loadInProgram(new HashSet<>(moduleIds),
+                ids -> moduleRepository.findAllByIdInProgram(ids, programId), ProgramModuleEntity::getId, "Module");
         for (int i = 0; i < moduleIds.size(); i++) {
-            final int orderIndex = i;
-            final Integer moduleId = moduleIds.get(i);
-            ProgramModuleEntity module = moduleRepository.findById(moduleId)
-                    .orElseThrow(() -> new IllegalArgumentException("Module not found with ID: " + moduleId));
-            module.setOrderIndex(orderIndex);
-            moduleRepository.save(module);
+            modules.get(moduleIds.get(i)).setOrderIndex(i);
         }
     }
     
@@ -506,13 +456,14 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
             throw new UnauthorizedAccessException("You don't have permission to reorder lessons");
         }
         
+        Integer programId = module.getFitnessProgram().getId();
+        Map<Integer, ProgramLessonEntity> lessons = loadInProgram(new HashSet<>(lessonIds),
+                ids -> lessonRepository.findAllByIdInProgram(ids, programId).stream()
+                        .filter(lesson -> lesson.getProgramModule().getId().equals(moduleId))
+                        .toList(),
+                ProgramLessonEntity::getId, "Lesson");
         for (int i = 0; i < lessonIds.size(); i++) {
-            final int orderIndex = i;
-            final Integer lessonId = lessonIds.get(i);
-            ProgramLessonEntity lesson = lessonRepository.findById(lessonId)
-                    .orElseThrow(() -> new IllegalArgumentException("Lesson not found with ID: " + lessonId));
-            lesson.setOrderIndex(orderIndex);
-            lessonRepository.save(lesson);
+            lessons.get(lessonIds.get(i)).setOrderIndex(i);
         }
     }
     
@@ -530,16 +481,119 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
             throw new UnauthorizedAccessException("You don't have permission to reorder resources");
         }
         
+        Integer programId = lesson.getProgramModule().getFitnessProgram().getId();
+        Map<Integer, ProgramResourceEntity> resources = loadInProgram(new HashSet<>(resourceIds),
+                ids -> resourceRepository.findAllByIdInProgram(ids, programId).stream()
+                        .filter(resource -> resource.getProgramLesson().getId().equals(lessonId))
+                        .toList(),
+                ProgramResourceEntity::getId, "Resource");
         for (int i = 0; i < resourceIds.size(); i++) {
-            final int orderIndex = i;
-            final Integer resourceId = resourceIds.get(i);
-            ProgramResourceEntity resource = resourceRepository.findById(resourceId)
-                    .orElseThrow(() -> new IllegalArgumentException("Resource not found with ID: " + resourceId));
-            resource.setOrderIndex(orderIndex);
-            resourceRepository.save(resource);
+            resources.get(resourceIds.get(i)).setOrderIndex(i);
         }
     }
     
+    @Override
+    public CurriculumBatchResponse updateCurriculum(Integer programId, CurriculumBatchRequest request, Principal principal) {
+        log.info("Applying curriculum batch to program ID: {}", programId);
+        
+        FitnessProgramEntity program = programRepository.findById(programId)
+                .orElseThrow(() -> new IllegalArgumentException("Program not found with ID: " + programId));
+        
+        UserEntity user = userRepository.findByUsername(principal.getName())
+                .orElseThrow(() -> new UnauthorizedAccessException("User not found"));
+        
+        if (!isProgramOwner(user, program)) {
+            throw new UnauthorizedAccessException("You don't have permission to modify this program");
+        }
+        
+        Map<Integer, CurriculumBatchRequest.ModuleEdit> moduleEdits =
+                indexEdits(request.getModules(), CurriculumBatchRequest.ModuleEdit::getId, "Module");
+        Map<Integer, CurriculumBatchRequest.LessonEdit> lessonEdits =
+                indexEdits(request.getLessons(), CurriculumBatchRequest.LessonEdit::getId, "Lesson");
+        Map<Integer, CurriculumBatchRequest.ResourceEdit> resourceEdits =
+                indexEdits(request.getResources(), CurriculumBatchRequest.ResourceEdit::getId, "Resource");
+        
+        // One query per item type, covering edited items and move targets; anything outside the program is not found
+        Set<Integer> moduleIds = new HashSet<>(moduleEdits.keySet());
+        lessonEdits.values().stream().map(CurriculumBatchRequest.LessonEdit::getModuleId).filter(Objects::nonNull).forEach(moduleIds::add);
+        Set<Integer> lessonIds = new HashSet<>(lessonEdits.keySet());
+        resourceEdits.values().stream().map(CurriculumBatchRequest.ResourceEdit::getLessonId).filter(Objects::nonNull).forEach(lessonIds::add);
+        
+        Map<Integer, ProgramModuleEntity> modules = loadInProgram(moduleIds,
+                ids -> moduleRepository.findAllByIdInProgram(ids, programId), ProgramModuleEntity::getId, "Module");
+        Map<Integer, ProgramLessonEntity> lessons = loadInProgram(lessonIds,
+                ids -> lessonRepository.findAllByIdInProgram(ids, programId), ProgramLessonEntity::getId, "Lesson");
+        Map<Integer, ProgramResourceEntity> resources = loadInProgram(resourceEdits.keySet(),
+                ids -> resourceRepository.findAllByIdInProgram(ids, programId), ProgramResourceEntity::getId, "Resource");
+        
+        moduleEdits.values().forEach(edit -> {
+            ProgramModuleEntity module = modules.get(edit.getId());
+            checkVersion(ProgramModuleEntity.class, "Module", edit.getId(), edit.getVersion(), module.getVersion());
+            if (edit.getTitle() != null) {
+                module.setTitle(edit.getTitle());
+            }
+            if (edit.getDescription() != null) {
+                module.setDescription(edit.getDescription());
+            }
+            if (edit.getOrderIndex() != null) {
+                module.setOrderIndex(edit.getOrderIndex());
+            }
+            if (edit.getIsPublished() != null) {
+                module.setIsPublished(edit.getIsPublished());
+            }
+        });
+        lessonEdits.values().forEach(edit -> {
+            ProgramLessonEntity lesson = lessons.get(edit.getId());
+            checkVersion(ProgramLessonEntity.class, "Lesson", edit.getId(), edit.getVersion(), lesson.getVersion());
+            if (edit.getModuleId() != null) {
+                lesson.setProgramModule(modules.get(edit.getModuleId()));
+            }
+            if (edit.getTitle() != null) {
+                lesson.setTitle(edit.getTitle());
+            }
+            if (edit.getDescription() != null) {
+                lesson.setDescription(edit.getDescription());
+            }
+            if (edit.getDurationMinutes() != null) {
+                lesson.setDurationMinutes(edit.getDurationMinutes());
+            }
+            if (edit.getOrderIndex() != null) {
+                lesson.setOrderIndex(edit.getOrderIndex());
+            }
+            if (edit.getIsPublished() != null) {
+                lesson.setIsPublished(edit.getIsPublished());
+            }
+            if (edit.getIsPreview() != null) {
+                lesson.setIsPreview(edit.getIsPreview());
+            }
+        });
+        resourceEdits.values().forEach(edit -> {
+            ProgramResourceEntity resource = resources.get(edit.getId());
+            checkVersion(ProgramResourceEntity.class, "Resource", edit.getId(), edit.getVersion(), resource.getVersion());
+            if (edit.getLessonId() != null) {
+                resource.setProgramLesson(lessons.get(edit.getLessonId()));
+            }
+            if (edit.getTitle() != null) {
+                resource.setTitle(edit.getTitle());
+            }
+            if (edit.getDescription() != null) {
+                resource.setDescription(edit.getDescription());
+            }
+            if (edit.getOrderIndex() != null) {
+                resource.setOrderIndex(edit.getOrderIndex());
+            }
+        });
+        
+        // Dirty rows go out as batched "UPDATE ... WHERE id = ? AND version = ?"; a row changed concurrently fails the whole batch
+        moduleRepository.flush();
+        
+        return CurriculumBatchResponse.builder()
+                .moduleVersions(versionsOf(moduleEdits.keySet(), modules, ProgramModuleEntity::getVersion))
+                .lessonVersions(versionsOf(lessonEdits.keySet(), lessons, ProgramLessonEntity::getVersion))
+                .resourceVersions(versionsOf(resourceEdits.keySet(), resources, ProgramResourceEntity::getVersion))
+                .build();
+    }
+    
     // Helper methods
     private boolean hasAccessToProgram(UserEntity user, FitnessProgramEntity program) {
         log.info("Checking access for user: {} (role: {}) to program: {} (id: {})", 
@@ -575,6 +629,45 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
         return user.getRole() == Roles.ADMIN || program.getUser().getId().equals(user.getId());
     }
     
+    private static <E> Map<Integer, E> indexEdits(List<E> edits, Function<E, Integer> idOf, String type) {
+        Map<Integer, E> indexed = new LinkedHashMap<>();
+        if (edits != null) {
+            for (E edit : edits) {
+                if (indexed.put(idOf.apply(edit), edit) != null) {
+                    throw new IllegalArgumentException(type + " with ID " + idOf.apply(edit) + " is edited more than once");
+                }
+            }
+        }
+        return indexed;
+    }
+    
+    private static <T> Map<Integer, T> loadInProgram(Set<Integer> ids, Function<Set<Integer>, List<T>> loader,
+                                                     Function<T, Integer> idOf, String type) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, T> found = loader.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+        for (Integer id : ids) {
+            if (!found.containsKey(id)) {
+                throw new IllegalArgumentException(type + " not found with ID: " + id);
+            }
+        }
+        return found;
+    }
+    
+    private static void checkVersion(Class<?> entityType, String type, Integer id, Integer expected, Integer current) {
+        if (expected != null && !expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(entityType, id,
+                    type + " with ID " + id + " was changed since version " + expected, null);
+        }
+    }
+    
+    private static <T> Map<Integer, Integer> versionsOf(Set<Integer> ids, Map<Integer, T> items, Function<T, Integer> versionOf) {
+        Map<Integer, Integer> versions = new LinkedHashMap<>();
+        ids.forEach(id -> versions.put(id, versionOf.apply(items.get(id))));
+        return versions;
+    }
+    
     private Integer getNextModuleOrder(Integer programId) {
         Integer maxOrder = moduleRepository.findMaxOrderIndexByProgramId(programId);
         return maxOrder != null ? maxOrder + 1 : 0;
@@ -590,6 +683,38 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
         return maxOrder != null ? maxOrder + 1 : 0;
     }
     
+    /**
+     * Loads the published modules with their lessons, then the resources of all those lessons in one query,
+     * and maps the tree once for the curriculum cache.
+     */
+    private ProgramCurriculumCache.CurriculumSnapshot buildCurriculumSnapshot(Integer programId) {
+        List<ProgramModuleEntity> modules = moduleRepository.findPublishedByProgramIdOrderByOrderIndex(programId);
+        List<ProgramLessonEntity> lessons = modules.stream()
+                .filter(module -> module.getLessons() != null)
+                .flatMap(module -> module.getLessons().stream())
+                .collect(Collectors.toList());
+        
+        // Fetched separately to avoid MultipleBagFetchException; indexed by id instead of searched per lesson
+        Map<Integer, ProgramLessonEntity> lessonsWithResources = lessons.isEmpty() ? Map.of() :
+                lessonRepository.findByIdsWithResources(lessons.stream().map(ProgramLessonEntity::getId).collect(Collectors.toList()))
+                        .stream()
+                        .collect(Collectors.toMap(ProgramLessonEntity::getId, Function.identity(), (first, duplicate) -> first));
+        lessons.forEach(lesson -> {
+            ProgramLessonEntity lessonWithResources = lessonsWithResources.get(lesson.getId());
+            if (lessonWithResources != null) {
+                lesson.setResources(lessonWithResources.getResources());
+            }
+        });
+        
+        int totalDurationMinutes = lessons.stream()
+                .mapToInt(lesson -> lesson.getDurationMinutes() != null ? lesson.getDurationMinutes() : 0)
+                .sum();
+        log.info("Built curriculum snapshot for program ID: {} with {} modules, {} lessons", programId, modules.size(), lessons.size());
+        
+        return new ProgramCurriculumCache.CurriculumSnapshot(
+                modules.stream().map(this::mapToModuleResponse).toList(), lessons.size(), totalDurationMinutes);
+    }
+    
     private ProgramModuleResponse mapToModuleResponse(ProgramModuleEntity module) {
         List<ProgramLessonResponse> lessons = module.getLessons() != null ?
                 module.getLessons().stream()
@@ -604,6 +729,7 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
                 .isPublished(module.getIsPublished())
                 .createdAt(module.getCreatedAt())
                 .updatedAt(module.getUpdatedAt())
+                .version(module.getVersion())
                 .lessons(lessons)
                 .build();
     }
@@ -626,6 +752,7 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
                 .isPreview(lesson.getIsPreview())
                 .createdAt(lesson.getCreatedAt())
                 .updatedAt(lesson.getUpdatedAt())
+                .version(lesson.getVersion())
                 .resources(resources)
                 .build();
     }
@@ -641,6 +768,7 @@ public class ProgramContentManagementServiceImpl implements ProgramContentManage
                 .orderIndex(resource.getOrderIndex())
                 .createdAt(resource.getCreatedAt())
                 .updatedAt(resource.getUpdatedAt())
+                .version(resource.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,69 @@
+package com.java.moveminds.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.moveminds.dto.response.ProgramModuleResponse;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.events.EntityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Published curriculum (modules, their lessons and resources) per program, built once and shared by
+ * every learner of the program until the next committed change to one of its modules, lessons or
+ * resources. Callers look snapshots up outside a transaction, so a snapshot is loaded in a transaction
+ * that starts after the miss and never sees a view older than the change that last invalidated it; an
+ * invalidation that arrives while a snapshot is being built waits for it and then drops it.
+ */
+@Component
+public class ProgramCurriculumCache {
+
+    /**
+     * The published curriculum of one program. Shared between requests, so neither the list nor the
+     * responses in it may be modified.
+     */
+    public record CurriculumSnapshot(List<ProgramModuleResponse> modules, int totalLessons, int totalDurationMinutes) {
+    }
+
+    private final Cache<Integer, CurriculumSnapshot> cache;
+    private final TransactionTemplate readTransaction;
+
+    public ProgramCurriculumCache(@Value("${catalog.curriculum.max-programs:1000}") long maxPrograms,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxPrograms)
+                .recordStats()
+                .build();
+        // Joins a surrounding transaction rather than suspending it, which would need a second pooled connection
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "curriculum.snapshots");
+    }
+
+    /**
+     * Returns the cached snapshot of a program's curriculum, building it with the loader if needed.
+     * Call it outside a transaction, so a miss reads the current curriculum.
+     */
+    public CurriculumSnapshot get(Integer programId, Supplier<CurriculumSnapshot> loader) {
+        return cache.get(programId, id -> readTransaction.execute(status -> loader.get()));
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntityChanged(EntityChangedEvent event) {
+        // Module, lesson and resource changes are all reported under ProgramModuleEntity with the program id
+        cache.invalidateAll(event.getIds(ProgramModuleEntity.class));
+    }
+}
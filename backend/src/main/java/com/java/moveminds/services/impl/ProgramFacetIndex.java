@@ -0,0 +1,221 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.services.impl.ProgramCatalogReadModel.CatalogEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Bitmap index over the active programs in the catalog. Every facet value (attribute value, category,
+ * difficulty level and price bucket) maps to a bitmap of program ids, so filters and facet counts are
+ * bitwise operations instead of DISTINCT joins through program_attribute.
+ * Facet keys have the form {@code type:value}, e.g. {@code attributeValue:12}, {@code category:3},
+ * {@code difficulty:BEGINNER} or {@code price:25-50}.
+ * Facet counts are disjunctive: the values of a facet type are counted against the filter without
+ * the clauses on that type, so selecting one value still shows how many programs its siblings have.
+ * The index is maintained by ProgramCatalogReadModel whenever its snapshot changes.
+ */
+@Component
+public class ProgramFacetIndex {
+    public static final String ATTRIBUTE_VALUE = "attributeValue";
+    public static final String CATEGORY = "category";
+    public static final String DIFFICULTY = "difficulty";
+    public static final String PRICE = "price";
+
+    private final BigDecimal[] priceBuckets; // ascending lower bounds
+
+    private volatile State state = new State(Map.of(), new BitSet()); // published states are never mutated
+
+    public ProgramFacetIndex(@Value("${catalog.facets.price-buckets:0,25,50,100,200}") BigDecimal[] priceBuckets) {
+        this.priceBuckets = priceBuckets.clone();
+        Arrays.sort(this.priceBuckets);
+    }
+
+    /**
+     * Replaces the index with one built from the given catalog entries.
+     */
+    synchronized void rebuild(Collection<CatalogEntry> entries) {
+        Map<String, BitSet> next = new HashMap<>();
+        BitSet nextActive = new BitSet();
+        for (CatalogEntry entry : entries) {
+            if (entry.isActive()) {
+                add(next, nextActive, entry);
+            }
+        }
+        publish(next, nextActive);
+    }
+
+    /**
+     * Moves the given programs from their previous entries to their current ones.
+     * Only the bitmaps the programs were or are in are copied; all others are shared with the previous index.
+     *
+     * @param previous the entries before the change, by program id (absent for new programs)
+     * @param current  the entries after the change, by program id (absent for deleted programs)
+     */
+    synchronized void update(Map<Integer, CatalogEntry> previous, Map<Integer, CatalogEntry> current) {
+        State published = state;
+        Map<String, BitSet> next = new HashMap<>(published.bitmaps());
+        BitSet nextActive = (BitSet) published.active().clone();
+        Set<String> copied = new HashSet<>();
+
+        for (CatalogEntry entry : previous.values()) {
+            for (String key : keysOf(entry)) {
+                writable(next, copied, key).clear(entry.getId());
+            }
+            nextActive.clear(entry.getId());
+        }
+        for (CatalogEntry entry : current.values()) {
+            if (entry.isActive()) {
+                for (String key : keysOf(entry)) {
+                    writable(next, copied, key).set(entry.getId());
+                }
+                nextActive.set(entry.getId());
+            }
+        }
+        for (String key : copied) {
+            if (next.get(key).isEmpty()) {
+                next.remove(key);
+            }
+        }
+        publish(next, nextActive);
+    }
+
+    /**
+     * Evaluates a filter in conjunctive normal form: a program matches when, for every clause,
+     * it has at least one of the clause's facet keys. An empty filter matches all active programs.
+     *
+     * @param clauses the OR-clauses to AND together
+     * @return the matching program ids and, for every facet key, how many programs it would match
+     *         with the clauses on its own facet type left out
+     * @throws IllegalArgumentException if a facet key is malformed
+     */
+    public Result search(List<? extends Collection<String>> clauses) {
+        State current = state;
+        List<BitSet> clauseMatches = new ArrayList<>();
+        List<Set<String>> clauseTypes = new ArrayList<>();
+        for (Collection<String> clause : clauses) {
+            BitSet any = new BitSet();
+            Set<String> types = new HashSet<>();
+            for (String key : clause) {
+                types.add(validate(key));
+                BitSet bitmap = current.bitmaps().get(key);
+                if (bitmap != null) {
+                    any.or(bitmap);
+                }
+            }
+            clauseMatches.add(any);
+            clauseTypes.add(types);
+        }
+        BitSet matches = matching(current.active(), clauseMatches, clauseTypes, null);
+
+        Map<String, BitSet> matchesByType = new HashMap<>();
+        Map<String, Map<String, Integer>> facets = new TreeMap<>();
+        for (Map.Entry<String, BitSet> facet : current.bitmaps().entrySet()) {
+            int separator = facet.getKey().indexOf(':');
+            String type = facet.getKey().substring(0, separator);
+            BitSet base = matchesByType.computeIfAbsent(type, t -> clauseTypes.stream().anyMatch(types -> types.contains(t))
+                    ? matching(current.active(), clauseMatches, clauseTypes, t)
+                    : matches);
+            BitSet intersection = (BitSet) facet.getValue().clone();
+            intersection.and(base);
+            int count = intersection.cardinality();
+            if (count > 0) {
+                facets.computeIfAbsent(type, t -> new TreeMap<>())
+                        .put(facet.getKey().substring(separator + 1), count);
+            }
+        }
+        return new Result(matches, facets);
+    }
+
+    /**
+     * ANDs the clauses together, skipping those with a key of the excluded type (none if null).
+     */
+    private static BitSet matching(BitSet active, List<BitSet> clauseMatches, List<Set<String>> clauseTypes, String excludedType) {
+        BitSet result = (BitSet) active.clone();
+        for (int i = 0; i < clauseMatches.size(); i++) {
+            if (excludedType == null || !clauseTypes.get(i).contains(excludedType)) {
+                result.and(clauseMatches.get(i));
+            }
+        }
+        return result;
+    }
+
+    private void publish(Map<String, BitSet> next, BitSet nextActive) {
+        state = new State(Collections.unmodifiableMap(next), nextActive);
+    }
+
+    private void add(Map<String, BitSet> index, BitSet activeIds, CatalogEntry entry) {
+        for (String key : keysOf(entry)) {
+            index.computeIfAbsent(key, k -> new BitSet()).set(entry.getId());
+        }
+        activeIds.set(entry.getId());
+    }
+
+    private static BitSet writable(Map<String, BitSet> index, Set<String> copied, String key) {
+        if (copied.add(key)) {
+            BitSet existing = index.get(key);
+            index.put(key, existing != null ? (BitSet) existing.clone() : new BitSet());
+        }
+        return index.get(key);
+    }
+
+    private List<String> keysOf(CatalogEntry entry) {
+        List<String> keys = new ArrayList<>();
+        for (Integer attributeValueId : entry.getAttributeValueIds()) {
+            keys.add(ATTRIBUTE_VALUE + ":" + attributeValueId);
+        }
+        if (entry.getCategoryId() != null) {
+            keys.add(CATEGORY + ":" + entry.getCategoryId());
+        }
+        if (entry.getResponse().getDifficultyLevel() != null) {
+            keys.add(DIFFICULTY + ":" + entry.getResponse().getDifficultyLevel().name());
+        }
+        String priceBucket = priceBucket(entry.getResponse().getPrice());
+        if (priceBucket != null) {
+            keys.add(PRICE + ":" + priceBucket);
+        }
+        return keys;
+    }
+
+    private String priceBucket(BigDecimal price) {
+        if (price == null || priceBuckets.length == 0 || price.compareTo(priceBuckets[0]) < 0) {
+            return null;
+        }
+        for (int i = priceBuckets.length - 1; i >= 0; i--) {
+            if (price.compareTo(priceBuckets[i]) >= 0) {
+                return i == priceBuckets.length - 1
+                        ? priceBuckets[i].toPlainString() + "+"
+                        : priceBuckets[i].toPlainString() + "-" + priceBuckets[i + 1].toPlainString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the facet type of the key
+     */
+    private static String validate(String key) {
+        int separator = key.indexOf(':');
+        String type = separator > 0 ? key.substring(0, separator) : "";
+        if (separator == key.length() - 1
+                || !(type.equals(ATTRIBUTE_VALUE) || type.equals(CATEGORY) || type.equals(DIFFICULTY) || type.equals(PRICE))) {
+            throw new IllegalArgumentException("Invalid facet filter: " + key);
+        }
+        return type;
+    }
+
+    /**
+     * The facet bitmaps and the active programs, published together so a search never pairs one
+     * version's bitmaps with another's active set.
+     */
+    private record State(Map<String, BitSet> bitmaps, BitSet active) {
+    }
+
+    /**
+     * Matching program ids and facet counts, grouped by facet type.
+     */
+    public record Result(BitSet programIds, Map<String, Map<String, Integer>> facets) {
+    }
+}
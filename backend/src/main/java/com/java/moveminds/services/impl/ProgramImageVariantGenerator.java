@@ -0,0 +1,100 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.entities.ImageVariant;
+import com.java.moveminds.entities.ProgramImageEntity;
+import com.java.moveminds.enums.ImageRendition;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.services.ImageUploadService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Generates the responsive renditions of newly stored program images in the background and records them,
+ * together with a ready-made srcset, on the ProgramImageEntity. Until that happens listings fall back to the
+ * stored image. The update is reported like any other image change, so the catalog picks up the srcset.
+ */
+@Slf4j
+@Component
+public class ProgramImageVariantGenerator {
+
+    private final ImageUploadService imageUploadService;
+    private final ProgramImageEntityRepository programImageRepository;
+    private final UploadReferences uploadReferences;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProgramImageVariantGenerator(ImageUploadService imageUploadService,
+                                        ProgramImageEntityRepository programImageRepository,
+                                        UploadReferences uploadReferences,
+                                        PlatformTransactionManager transactionManager) {
+        this.imageUploadService = imageUploadService;
+        this.programImageRepository = programImageRepository;
+        this.uploadReferences = uploadReferences;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Schedules variant generation for images whose rows have been committed. Returns immediately.
+     */
+    public void generate(List<String> imageUrls) {
+        for (String imageUrl : imageUrls) {
+            imageUploadService.createVariants(imageUrl).whenComplete((variants, failure) -> {
+                if (failure != null) {
+                    log.warn("Could not create variants for {}, serving the stored image only", imageUrl, failure);
+                    return;
+                }
+                try {
+                    saveVariants(imageUrl, variants);
+                } catch (RuntimeException e) {
+                    log.warn("Could not save variants for {}", imageUrl, e);
+                }
+            });
+        }
+    }
+
+    private void saveVariants(String imageUrl, Map<ImageRendition, ImageVariant> variants) {
+        // Rows holding the same content share the image and therefore its variants
+        boolean saved = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            List<ProgramImageEntity> images = programImageRepository.findAllByImageUrl(imageUrl);
+            for (ProgramImageEntity image : images) {
+                image.getVariants().putAll(variants);
+                image.setSrcset(srcset(variants));
+            }
+            return !images.isEmpty();
+        }));
+
+        if (!saved) {
+            // The image was removed while its variants were being generated
+            uploadReferences.releaseImage(imageUrl);
+        }
+    }
+
+    /**
+     * Builds a srcset with one candidate per distinct width, e.g. "/uploads/a_thumbnail.jpg 320w, /uploads/a_card.jpg 640w".
+     */
+    static String srcset(Map<ImageRendition, ImageVariant> variants) {
+        StringJoiner srcset = new StringJoiner(", ");
+        Set<Integer> widths = new HashSet<>();
+        variants.values().stream()
+                .sorted(Comparator.comparing(ImageVariant::getWidth))
+                .filter(variant -> widths.add(variant.getWidth())) // renditions of a narrow source share its width
+                .forEach(variant -> srcset.add(variant.getUrl() + " " + variant.getWidth() + "w"));
+        return srcset.toString();
+    }
+
+    /**
+     * Returns the srcset to send for an image: its generated srcset, or just the image URL until the variants exist.
+     */
+    static String srcsetOrUrl(String imageUrl, String srcset) {
+        return Objects.requireNonNullElse(srcset, imageUrl);
+    }
+}
@@ -0,0 +1,556 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.events.AggregateVersions;
+import com.java.moveminds.events.EntityChangedEvent;
+import com.java.moveminds.repositories.FitnessProgramEntityRepository;
+import com.java.moveminds.repositories.ProgramLessonEntityRepository;
+import com.java.moveminds.repositories.projections.ProgramLessonTitleView;
+import com.java.moveminds.repositories.projections.ProgramSummaryView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-process inverted index for full-text program search over name, description, category,
+ * instructor name and lesson titles. Documents are ranked with BM25 over field-weighted term
+ * frequencies. The last query token also matches as a prefix, and tokens with no exact match fall
+ * back to the closest, most common terms within a small edit distance. The index is built on startup
+ * and updated per program after every committed change to the program, its curriculum, category or
+ * instructor. A failed update leaves the programs dirty until the next change or the repair task
+ * reloads them; the repair task also retries a failed build with exponential backoff.
+ */
+@Component
+public class ProgramSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProgramSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field weights applied to term frequencies (BM25F-style)
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float INSTRUCTOR_WEIGHT = 2.0f;
+    private static final float LESSON_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Score multipliers for expanded query terms
+    private static final double PREFIX_PENALTY = 0.8;
+    private static final double TYPO_PENALTY = 0.6;
+    private static final int MAX_EXPANSIONS = 50;
+    private static final int MAX_TYPO_EXPANSIONS = 10;
+    // Longer terms are not typo-matched, which bounds the deletion variants kept per term
+    private static final int MAX_TYPO_TERM_LENGTH = 24;
+
+    private final FitnessProgramEntityRepository fitnessProgramRepository;
+    private final ProgramLessonEntityRepository programLessonRepository;
+    private final TransactionTemplate readTransaction;
+    private final AggregateVersions aggregateVersions;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Integer, Float>> postings = new HashMap<>(); // term -> program id -> weighted tf
+    private final NavigableSet<String> dictionary = new TreeSet<>(); // terms in order, for prefix lookups
+    private final Map<String, Set<String>> deletions = new HashMap<>(); // deletion variant -> terms, for typo lookups
+    private final Map<Integer, IndexedProgram> programs = new HashMap<>();
+    private double totalLength;
+    private volatile boolean ready;
+
+    private final long repairIntervalMs;
+    private final long maxRepairBackoffMs;
+    // Programs whose last refresh failed; only changed while holding this object's monitor
+    private final Set<Integer> dirtyProgramIds = ConcurrentHashMap.newKeySet();
+    // Events delivered while a full build runs, replayed once it finishes; guarded by bufferLock
+    private final Object bufferLock = new Object();
+    private List<EntityChangedEvent> bufferedEvents;
+    // Only touched by the repair task
+    private int failedRepairs;
+    private long nextRepairAt;
+
+    public ProgramSearchIndex(FitnessProgramEntityRepository fitnessProgramRepository,
+                              ProgramLessonEntityRepository programLessonRepository,
+                              PlatformTransactionManager transactionManager,
+                              AggregateVersions aggregateVersions,
+                              @Value("${catalog.repair.interval-ms:5000}") long repairIntervalMs,
+                              @Value("${catalog.repair.max-backoff-ms:300000}") long maxRepairBackoffMs) {
+        this.fitnessProgramRepository = fitnessProgramRepository;
+        this.programLessonRepository = programLessonRepository;
+        this.aggregateVersions = aggregateVersions;
+        this.repairIntervalMs = repairIntervalMs;
+        this.maxRepairBackoffMs = maxRepairBackoffMs;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // Refreshes run from afterCommit callbacks, so they need a transaction of their own
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Searches active programs and returns their ids, best match first.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of ids to return
+     * @return the ranked ids and the total number of matching programs
+     */
+    public Hits search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            double averageLength = programs.isEmpty() ? 1.0 : Math.max(totalLength / programs.size(), 1.0);
+            for (int i = 0; i < tokens.size(); i++) {
+                // Best score per program for this token, so expansions of one token don't add up
+                Map<Integer, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Double> term : expand(tokens.get(i), i == tokens.size() - 1).entrySet()) {
+                    scoreTerm(term.getKey(), term.getValue(), averageLength, tokenScores);
+                }
+                tokenScores.forEach((programId, score) -> scores.merge(programId, score, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+            top.offer(score);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return new Hits(ranked, scores.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Program search index could not be built, search is unavailable until the repair task builds it", e);
+        }
+    }
+
+    /**
+     * Loads the whole index again. Changes delivered while it loads are buffered and applied
+     * afterwards, since the load may or may not have seen them.
+     */
+    public synchronized void rebuild() {
+        synchronized (bufferLock) {
+            bufferedEvents = new ArrayList<>();
+        }
+        List<EntityChangedEvent> missed;
+        try {
+            long start = System.currentTimeMillis();
+            List<IndexedProgram> documents = readTransaction.execute(status -> load(
+                    fitnessProgramRepository.findAllSummaries(),
+                    programLessonRepository.findAllTitles()));
+
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                dictionary.clear();
+                deletions.clear();
+                programs.clear();
+                totalLength = 0;
+                documents.forEach(this::add);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            dirtyProgramIds.clear();
+            logger.info("Program search index built with {} programs and {} terms in {} ms",
+                    documents.size(), dictionary.size(), System.currentTimeMillis() - start);
+        } finally {
+            synchronized (bufferLock) {
+                missed = bufferedEvents;
+                bufferedEvents = null;
+            }
+            // Already announced to AggregateVersions when they were delivered, so applying them bumps the programs again
+            missed.forEach(event -> apply(event, false));
+        }
+    }
+
+    /**
+     * Builds the index if no build has succeeded yet and reloads programs whose refresh failed.
+     * Consecutive failures back off exponentially up to the configured maximum.
+     */
+    @Scheduled(fixedDelayString = "${catalog.repair.interval-ms:5000}")
+    public void repair() {
+        long now = System.currentTimeMillis();
+        if (now < nextRepairAt || (ready && dirtyProgramIds.isEmpty())) {
+            return;
+        }
+        try {
+            if (!ready) {
+                rebuild();
+            } else {
+                refresh(Set.of(), false);
+            }
+            failedRepairs = 0;
+            nextRepairAt = 0;
+        } catch (RuntimeException e) {
+            failedRepairs++;
+            long backoff = Math.min(maxRepairBackoffMs, repairIntervalMs << Math.min(failedRepairs, 20));
+            nextRepairAt = now + backoff;
+            logger.warn("Program search index repair failed {} time(s), retrying in {} ms", failedRepairs, backoff, e);
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntityChanged(EntityChangedEvent event) {
+        synchronized (bufferLock) {
+            if (bufferedEvents != null) {
+                bufferedEvents.add(event);
+                return;
+            }
+        }
+        apply(event, true);
+    }
+
+    /**
+     * @param announced whether AggregateVersions bumps the versions for this event after the read models have applied it
+     */
+    private void apply(EntityChangedEvent event, boolean announced) {
+        if (!ready) {
+            return; // the pending full build reads everything this change touched
+        }
+
+        Set<Integer> programIds = new HashSet<>(event.getIds(FitnessProgramEntity.class));
+        programIds.addAll(event.getIds(ProgramModuleEntity.class));
+        if (event.contains(UserEntity.class) || event.contains(CategoryEntity.class)) {
+            Set<Integer> instructorIds = event.getIds(UserEntity.class);
+            Set<Integer> categoryIds = event.getIds(CategoryEntity.class);
+            lock.readLock().lock();
+            try {
+                programs.values().stream()
+                        .filter(program -> instructorIds.contains(program.instructorId)
+                                || (program.categoryId != null && categoryIds.contains(program.categoryId)))
+                        .forEach(program -> programIds.add(program.id));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        if (!programIds.isEmpty()) {
+            try {
+                refresh(programIds, announced);
+            } catch (RuntimeException e) {
+                // The programs stay dirty and are retried with the next change or by the repair task
+                logger.error("Program search index refresh failed for programs {}, keeping their previous entries", programIds, e);
+            }
+        }
+    }
+
+    /**
+     * Reloads the given programs together with any programs left dirty by an earlier failure.
+     * Programs the refresh brings up to date beyond an announced change get their versions bumped.
+     * On failure all of them are (still) dirty and the index is left as it was.
+     */
+    private synchronized void refresh(Set<Integer> changedIds, boolean announced) {
+        Set<Integer> programIds = new HashSet<>(changedIds);
+        programIds.addAll(dirtyProgramIds);
+        if (programIds.isEmpty()) {
+            return;
+        }
+
+        List<IndexedProgram> documents;
+        try {
+            documents = readTransaction.execute(status -> load(
+                    fitnessProgramRepository.findSummariesByIdIn(programIds),
+                    programLessonRepository.findTitlesByProgramIds(programIds)));
+        } catch (RuntimeException e) {
+            dirtyProgramIds.addAll(programIds);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            programIds.forEach(this::remove);
+            documents.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirtyProgramIds.removeAll(programIds);
+        Set<Integer> unannounced = new HashSet<>(programIds);
+        if (announced) {
+            unannounced.removeAll(changedIds);
+        }
+        aggregateVersions.bumpPrograms(unannounced);
+        logger.debug("Program search index refreshed for programs {}", programIds);
+    }
+
+    private List<IndexedProgram> load(List<ProgramSummaryView> summaries, List<ProgramLessonTitleView> lessons) {
+        Map<Integer, List<String>> lessonTitles = lessons.stream()
+                .collect(Collectors.groupingBy(ProgramLessonTitleView::getProgramId,
+                        Collectors.mapping(ProgramLessonTitleView::getTitle, Collectors.toList())));
+
+        List<IndexedProgram> documents = new ArrayList<>(summaries.size());
+        for (ProgramSummaryView summary : summaries) {
+            Map<String, Float> frequencies = new HashMap<>();
+            addField(frequencies, summary.getName(), NAME_WEIGHT);
+            addField(frequencies, summary.getDescription(), DESCRIPTION_WEIGHT);
+            addField(frequencies, summary.getCategoryName(), CATEGORY_WEIGHT);
+            addField(frequencies, summary.getInstructorFirstName(), INSTRUCTOR_WEIGHT);
+            addField(frequencies, summary.getInstructorLastName(), INSTRUCTOR_WEIGHT);
+            addField(frequencies, summary.getInstructorUsername(), INSTRUCTOR_WEIGHT);
+            for (String title : lessonTitles.getOrDefault(summary.getId(), List.of())) {
+                addField(frequencies, title, LESSON_WEIGHT);
+            }
+            documents.add(new IndexedProgram(summary.getId(), Boolean.TRUE.equals(summary.getActive()),
+                    summary.getInstructorId(), summary.getCategoryId(), frequencies));
+        }
+        return documents;
+    }
+
+    private void add(IndexedProgram program) {
+        programs.put(program.id, program);
+        totalLength += program.length;
+        for (Map.Entry<String, Float> term : program.frequencies.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> {
+                dictionary.add(key);
+                for (String variant : deletionVariants(key, indexedDistance(key))) {
+                    deletions.computeIfAbsent(variant, k -> new HashSet<>()).add(key);
+                }
+                return new HashMap<>();
+            }).put(program.id, term.getValue());
+        }
+    }
+
+    private void remove(Integer programId) {
+        IndexedProgram program = programs.remove(programId);
+        if (program == null) {
+            return;
+        }
+        totalLength -= program.length;
+        for (String term : program.frequencies.keySet()) {
+            Map<Integer, Float> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(programId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                    dictionary.remove(term);
+                    for (String variant : deletionVariants(term, indexedDistance(term))) {
+                        Set<String> terms = deletions.get(variant);
+                        if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                            deletions.remove(variant);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a query token to the indexed terms it should match, each with a score multiplier:
+     * the exact term, terms it is a prefix of (last token only) and, if neither exists, the closest
+     * terms within one edit (two for tokens of 8+ characters), ties going to the terms in most programs.
+     * Typo candidates are the terms sharing a deletion variant with the token (symmetric delete), so
+     * the lookup costs a few hundred map probes however large the dictionary grows.
+     * Must be called with the read lock held.
+     */
+    private Map<String, Double> expand(String token, boolean allowPrefix) {
+        Map<String, Double> terms = new HashMap<>();
+        if (postings.containsKey(token)) {
+            terms.put(token, 1.0);
+        }
+        if (allowPrefix) {
+            for (String term : dictionary.subSet(token, false, token + Character.MAX_VALUE, false)) {
+                if (terms.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                terms.put(term, PREFIX_PENALTY);
+            }
+        }
+        if (terms.isEmpty() && token.length() >= 4 && token.length() <= MAX_TYPO_TERM_LENGTH) {
+            int maxDistance = token.length() >= 8 ? 2 : 1;
+            Set<String> neighbours = new HashSet<>();
+            for (String variant : deletionVariants(token, maxDistance)) {
+                neighbours.addAll(deletions.getOrDefault(variant, Set.of()));
+            }
+            List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+            for (String term : neighbours) {
+                int distance = editDistance(token, term, maxDistance);
+                if (distance <= maxDistance) {
+                    candidates.add(Map.entry(term, distance));
+                }
+            }
+            candidates.sort(Map.Entry.<String, Integer>comparingByValue()
+                    .thenComparing(candidate -> postings.get(candidate.getKey()).size(), Comparator.reverseOrder()));
+            for (Map.Entry<String, Integer> candidate : candidates.subList(0, Math.min(candidates.size(), MAX_TYPO_EXPANSIONS))) {
+                terms.put(candidate.getKey(), TYPO_PENALTY / candidate.getValue());
+            }
+        }
+        return terms;
+    }
+
+    private void scoreTerm(String term, double multiplier, double averageLength, Map<Integer, Double> tokenScores) {
+        Map<Integer, Float> postingList = postings.get(term);
+        if (postingList == null) {
+            return;
+        }
+        double documentFrequency = postingList.size();
+        double idf = Math.log(1 + (programs.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        for (Map.Entry<Integer, Float> posting : postingList.entrySet()) {
+            IndexedProgram program = programs.get(posting.getKey());
+            if (program == null || !program.active) {
+                continue;
+            }
+            double tf = posting.getValue();
+            double score = multiplier * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * program.length / averageLength));
+            tokenScores.merge(posting.getKey(), score, Math::max);
+        }
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Lower-cases, strips diacritics and splits on anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * How many deletions of an indexed term are kept: enough for every token that may be typo-matched
+     * against it (tokens of 4+ characters within one edit, of 8+ within two).
+     */
+    private static int indexedDistance(String term) {
+        if (term.length() < 3 || term.length() > MAX_TYPO_TERM_LENGTH) {
+            return -1;
+        }
+        return term.length() >= 6 ? 2 : 1;
+    }
+
+    /**
+     * The term itself and every string obtained by deleting up to {@code maxDeletions} of its characters;
+     * empty for a negative {@code maxDeletions}.
+     */
+    private static Set<String> deletionVariants(String term, int maxDeletions) {
+        Set<String> variants = new HashSet<>();
+        if (maxDeletions < 0) {
+            return variants;
+        }
+        variants.add(term);
+        Set<String> frontier = Set.of(term);
+        for (int deleted = 0; deleted < maxDeletions; deleted++) {
+            Set<String> next = new HashSet<>();
+            for (String variant : frontier) {
+                for (int i = 0; i < variant.length(); i++) {
+                    String shorter = variant.substring(0, i) + variant.substring(i + 1);
+                    if (!shorter.isEmpty() && variants.add(shorter)) {
+                        next.add(shorter);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * giving up early once every alignment exceeds {@code maxDistance}.
+     */
+    private static int editDistance(String a, String b, int maxDistance) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previousPrevious[j - 2] + 1);
+                }
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Ranked program ids (best first, at most the requested limit) and the total number of matches.
+     */
+    public record Hits(List<Integer> programIds, int total) {
+    }
+
+    private static final class IndexedProgram {
+        private final int id;
+        private final boolean active;
+        private final Integer instructorId;
+        private final Integer categoryId;
+        private final Map<String, Float> frequencies;
+        private final double length;
+
+        private IndexedProgram(int id, boolean active, Integer instructorId, Integer categoryId, Map<String, Float> frequencies) {
+            this.id = id;
+            this.active = active;
+            this.instructorId = instructorId;
+            this.categoryId = categoryId;
+            this.frequencies = frequencies;
+            this.length = frequencies.values().stream().mapToDouble(Float::doubleValue).sum();
+        }
+    }
+}
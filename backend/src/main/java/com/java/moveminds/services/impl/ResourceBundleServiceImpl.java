@@ -0,0 +1,238 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.ProgramLessonEntity;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.entities.ProgramResourceEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.Roles;
+import com.java.moveminds.exceptions.UnauthorizedAccessException;
+import com.java.moveminds.repositories.FitnessProgramEntityRepository;
+import com.java.moveminds.repositories.ProgramLessonEntityRepository;
+import com.java.moveminds.repositories.ProgramModuleEntityRepository;
+import com.java.moveminds.repositories.ProgramResourceEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.repositories.UserProgramEntityRepository;
+import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.ResourceBundleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceBundleServiceImpl implements ResourceBundleService {
+
+    // Formats that are compressed already; deflating them again only costs CPU
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            ".jpg", ".jpeg", ".png", ".gif", ".webp", ".mp4", ".webm", ".mov", ".mp3",
+            ".zip", ".rar", ".docx", ".xlsx", ".pptx");
+    private static final Pattern STORED_NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final Pattern UNSAFE_CHARACTERS = Pattern.compile("[\\\\/:*?\"<>|\\p{Cntrl}]");
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final FitnessProgramEntityRepository programRepository;
+    private final ProgramModuleEntityRepository moduleRepository;
+    private final ProgramLessonEntityRepository lessonRepository;
+    private final ProgramResourceEntityRepository resourceRepository;
+    private final UserEntityRepository userRepository;
+    private final UserProgramEntityRepository userProgramRepository;
+    private final FileStorageService fileStorageService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceBundle prepareProgramBundle(Integer programId, Principal principal) {
+        log.info("Preparing resource bundle for program ID: {}", programId);
+
+        FitnessProgramEntity program = programRepository.findById(programId)
+                .orElseThrow(() -> new IllegalArgumentException("Program not found with ID: " + programId));
+        boolean owner = checkAccess(program, principal);
+
+        return bundle(program.getName(), resourceRepository.findByProgramIdInCurriculumOrder(programId), owner, 2);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceBundle prepareModuleBundle(Integer moduleId, Principal principal) {
+        log.info("Preparing resource bundle for module ID: {}", moduleId);
+
+        ProgramModuleEntity module = moduleRepository.findById(moduleId)
+                .orElseThrow(() -> new IllegalArgumentException("Module not found with ID: " + moduleId));
+        boolean owner = checkAccess(module.getFitnessProgram(), principal);
+        if (!owner && !isPublished(module)) {
+            throw new IllegalArgumentException("Module not found with ID: " + moduleId);
+        }
+
+        return bundle(module.getFitnessProgram().getName() + " - " + module.getTitle(),
+                resourceRepository.findByModuleIdInCurriculumOrder(moduleId), owner, 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceBundle prepareLessonBundle(Integer lessonId, Principal principal) {
+        log.info("Preparing resource bundle for lesson ID: {}", lessonId);
+
+        ProgramLessonEntity lesson = lessonRepository.findById(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found with ID: " + lessonId));
+        ProgramModuleEntity module = lesson.getProgramModule();
+        boolean owner = checkAccess(module.getFitnessProgram(), principal);
+        if (!owner && !(isPublished(module) && isPublished(lesson))) {
+            throw new IllegalArgumentException("Lesson not found with ID: " + lessonId);
+        }
+
+        return bundle(module.getFitnessProgram().getName() + " - " + lesson.getTitle(),
+                resourceRepository.findByLessonIdOrderByOrderIndex(lessonId), owner, 0);
+    }
+
+    @Override
+    public void writeBundle(ResourceBundle bundle, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        WritableByteChannel zipChannel = Channels.newChannel(zip);
+
+        for (BundleFile file : bundle.files()) {
+            FileChannel source;
+            try {
+                source = FileChannel.open(file.path(), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                log.warn("Skipping missing resource file {} in bundle {}", file.path(), bundle.fileName());
+                continue;
+            }
+            try (source) {
+                String extension = ContentAddressedStore.extensionOf(file.entryName());
+                zip.setLevel(COMPRESSED_EXTENSIONS.contains(extension) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                zip.putNextEntry(new ZipEntry(file.entryName()));
+                // Copied through the channel's small transfer buffer, never held in memory as a whole
+                long position = 0;
+                long size = source.size();
+                while (position < size) {
+                    long sent = source.transferTo(position, size - position, zipChannel);
+                    if (sent <= 0) {
+                        break; // the file was truncated while being bundled
+                    }
+                    position += sent;
+                }
+                zip.closeEntry();
+            }
+        }
+
+        if (!bundle.links().isEmpty()) {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry("links.txt"));
+            zip.write((String.join("\n", bundle.links()) + "\n").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * Checks that the user may download the program's resources: admins, the owning instructor and
+     * enrolled users.
+     *
+     * @return whether the user manages the program and therefore also gets unpublished content
+     */
+    private boolean checkAccess(FitnessProgramEntity program, Principal principal) {
+        UserEntity user = userRepository.findByUsername(principal.getName())
+                .orElseThrow(() -> new UnauthorizedAccessException("User not found"));
+
+        if (user.getRole() == Roles.ADMIN || program.getUser().getId().equals(user.getId())) {
+            return true;
+        }
+        if (user.getRole() == Roles.USER && userProgramRepository.existsByUserByUserIdAndFitnessProgramByProgramId(user, program)) {
+            return false;
+        }
+        throw new UnauthorizedAccessException("You don't have access to this program");
+    }
+
+    /**
+     * Lays the resources out in folders: "01 Module/02 Lesson/" for a program (depth 2),
+     * "02 Lesson/" for a module (depth 1) and flat for a lesson (depth 0).
+     */
+    private ResourceBundle bundle(String title, List<ProgramResourceEntity> resources, boolean owner, int depth) {
+        String storePrefix = fileStorageService.getFileUrl("", UploadReferences.RESOURCES_DIRECTORY);
+        List<BundleFile> files = new ArrayList<>();
+        List<String> links = new ArrayList<>();
+        Set<String> entryNames = new HashSet<>();
+
+        for (ProgramResourceEntity resource : resources) {
+            ProgramLessonEntity lesson = resource.getProgramLesson();
+            ProgramModuleEntity module = lesson.getProgramModule();
+            if (!owner && !(isPublished(module) && isPublished(lesson))) {
+                continue;
+            }
+
+            String folder = switch (depth) {
+                case 2 -> folderName(module.getOrderIndex(), module.getTitle()) + "/" + folderName(lesson.getOrderIndex(), lesson.getTitle()) + "/";
+                case 1 -> folderName(lesson.getOrderIndex(), lesson.getTitle()) + "/";
+                default -> "";
+            };
+            String fileUrl = resource.getFileUrl();
+            if (fileUrl == null || fileUrl.isBlank()) {
+                continue;
+            }
+            String storedName = fileUrl.startsWith(storePrefix) ? fileUrl.substring(storePrefix.length()) : null;
+            if (storedName != null && STORED_NAME.matcher(storedName).matches()) {
+                String entryName = uniqueEntryName(entryNames, folder, resource.getTitle(), ContentAddressedStore.extensionOf(storedName));
+                files.add(new BundleFile(entryName, fileStorageService.getFilePath(storedName, UploadReferences.RESOURCES_DIRECTORY)));
+            } else {
+                // External links (and anything that is not a plain stored name) are listed, never read from disk
+                links.add(folder + resource.getTitle() + ": " + fileUrl);
+            }
+        }
+
+        log.info("Bundle {} has {} files and {} links", title, files.size(), links.size());
+        return new ResourceBundle(sanitize(title) + ".zip", files, links);
+    }
+
+    private static boolean isPublished(ProgramModuleEntity module) {
+        return Boolean.TRUE.equals(module.getIsPublished());
+    }
+
+    private static boolean isPublished(ProgramLessonEntity lesson) {
+        return Boolean.TRUE.equals(lesson.getIsPublished());
+    }
+
+    private static String folderName(Integer orderIndex, String title) {
+        return String.format("%02d %s", (orderIndex != null ? orderIndex : 0) + 1, sanitize(title));
+    }
+
+    private static String uniqueEntryName(Set<String> entryNames, String folder, String title, String extension) {
+        String baseName = sanitize(title);
+        if (!extension.isEmpty() && baseName.toLowerCase().endsWith(extension)) {
+            baseName = baseName.substring(0, baseName.length() - extension.length());
+        }
+        String entryName = folder + baseName + extension;
+        for (int copy = 2; !entryNames.add(entryName); copy++) {
+            entryName = folder + baseName + " (" + copy + ")" + extension;
+        }
+        return entryName;
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = name == null ? "" : UNSAFE_CHARACTERS.matcher(name).replaceAll("_").trim();
+        if (sanitized.length() > MAX_NAME_LENGTH) {
+            sanitized = sanitized.substring(0, MAX_NAME_LENGTH).trim();
+        }
+        return sanitized.isEmpty() || sanitized.chars().allMatch(c -> c == '.') ? "untitled" : sanitized;
+    }
+}
@@ -0,0 +1,327 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.request.ProgramResourceRequest;
+import com.java.moveminds.dto.request.ResourceUploadRequest;
+import com.java.moveminds.dto.response.ProgramResourceResponse;
+import com.java.moveminds.dto.response.ResourceUploadResponse;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.ProgramLessonEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.Roles;
+import com.java.moveminds.exceptions.UnauthorizedAccessException;
+import com.java.moveminds.repositories.ProgramLessonEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.ProgramContentManagementService;
+import com.java.moveminds.services.ResourceUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chunked uploads are assembled in a temp file of the resource store: every chunk is streamed from the
+ * request body straight to its offset with FileChannel.transferFrom, so no chunk is held in memory and a
+ * request thread is only busy while its chunk is in flight. Completion moves the file into the store
+ * through FileStorageService and creates the resource. A session counts the chunk writes in flight:
+ * completion is refused while any are, and once it has started no further chunk is accepted, so the
+ * file is never hashed and renamed while a re-sent chunk is still writing to it.
+ * Sessions live in memory; idle ones are discarded together with their temp file after the expiry, and
+ * each user may only have a limited number open at once, so abandoned uploads cannot pile up temp files.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceUploadServiceImpl implements ResourceUploadService {
+
+    private final FileStorageService fileStorageService;
+    private final ProgramContentManagementService programContentService;
+    private final ProgramLessonEntityRepository lessonRepository;
+    private final UserEntityRepository userRepository;
+    private final UploadReferences uploadReferences;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${app.file.chunked-upload.chunk-size:8388608}")
+    private int chunkSize;
+
+    @Value("${app.file.chunked-upload.max-file-size:1073741824}")
+    private long maxFileSize;
+
+    @Value("${app.file.chunked-upload.expiry-hours:24}")
+    private long expiryHours;
+
+    @Value("${app.file.chunked-upload.max-sessions-per-user:10}")
+    private int maxSessionsPerUser;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceUploadResponse initiateUpload(Integer lessonId, ResourceUploadRequest request, Principal principal) throws IOException {
+        log.info("Initiating chunked upload of {} ({} bytes) for lesson ID: {}", request.getFileName(), request.getFileSize(), lessonId);
+
+        ProgramLessonEntity lesson = lessonRepository.findById(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found with ID: " + lessonId));
+
+        UserEntity user = userRepository.findByUsername(principal.getName())
+                .orElseThrow(() -> new UnauthorizedAccessException("User not found"));
+
+        if (!isProgramOwner(user, lesson.getProgramModule().getFitnessProgram())) {
+            throw new UnauthorizedAccessException("You don't have permission to modify this lesson");
+        }
+        if (request.getFileSize() > maxFileSize) {
+            throw new IllegalArgumentException("File size exceeds the limit of " + maxFileSize + " bytes");
+        }
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), lessonId, principal.getName(), request,
+                chunkSize, fileStorageService.createTempFile(UploadReferences.RESOURCES_DIRECTORY));
+        // transferFrom writes nothing past the end of the file, so it is sized up front (sparse where supported)
+        // for chunks to arrive in any order
+        try (RandomAccessFile file = new RandomAccessFile(session.tempFile.toFile(), "rw")) {
+            file.setLength(session.fileSize);
+        }
+        if (!register(session)) {
+            Files.deleteIfExists(session.tempFile);
+            throw new IllegalArgumentException("You already have " + maxSessionsPerUser
+                    + " uploads in progress, complete or abort one of them first");
+        }
+        return toResponse(session);
+    }
+
+    /**
+     * Adds the session unless its user already has the maximum number of sessions open.
+     * Serialized so concurrent initiations cannot both take the last free slot.
+     */
+    private synchronized boolean register(UploadSession session) {
+        long open = sessions.values().stream()
+                .filter(existing -> existing.username.equals(session.username))
+                .count();
+        if (open >= maxSessionsPerUser) {
+            return false;
+        }
+        sessions.put(session.id, session);
+        return true;
+    }
+
+    @Override
+    public ResourceUploadResponse uploadChunk(String uploadId, int chunkIndex, InputStream content, Principal principal) throws IOException {
+        UploadSession session = getSession(uploadId, principal);
+        if (chunkIndex < 0 || chunkIndex >= session.totalChunks) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.totalChunks - 1));
+        }
+
+        if (!session.beginWrite()) {
+            throw new IllegalArgumentException("Upload " + uploadId + " is already being completed");
+        }
+        try {
+            long position = (long) chunkIndex * session.chunkSize;
+            long expected = Math.min(session.chunkSize, session.fileSize - position);
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(session.tempFile, StandardOpenOption.WRITE)) {
+                ReadableByteChannel in = Channels.newChannel(content);
+                while (written < expected) {
+                    long transferred = channel.transferFrom(in, position + written, expected - written);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+            }
+            if (written != expected || content.read() != -1) {
+                // The chunk stays missing, the client re-sends it
+                throw new IllegalArgumentException("Chunk " + chunkIndex + " must be exactly " + expected + " bytes");
+            }
+            session.markReceived(chunkIndex);
+        } finally {
+            session.endWrite();
+        }
+        return toResponse(session);
+    }
+
+    @Override
+    public ResourceUploadResponse getUploadStatus(String uploadId, Principal principal) {
+        return toResponse(getSession(uploadId, principal));
+    }
+
+    @Override
+    public ProgramResourceResponse completeUpload(String uploadId, Principal principal) throws IOException {
+        UploadSession session = getSession(uploadId, principal);
+        session.closeForCompletion();
+        if (!sessions.remove(uploadId, session)) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+
+        String filename = fileStorageService.storeFile(session.tempFile, session.fileName, UploadReferences.RESOURCES_DIRECTORY);
+        String fileUrl = fileStorageService.getFileUrl(filename, UploadReferences.RESOURCES_DIRECTORY);
+        log.info("Chunked upload {} stored as {}", uploadId, filename);
+
+        ProgramResourceRequest request = new ProgramResourceRequest();
+        request.setTitle(session.title);
+        request.setDescription(session.description);
+        request.setOrderIndex(session.orderIndex);
+        request.setFileUrl(fileUrl);
+        request.setFileType(session.contentType != null ? session.contentType : session.fileName);
+        request.setFileSizeBytes(session.fileSize);
+        try {
+            return programContentService.createResource(session.lessonId, request, null, principal);
+        } catch (RuntimeException e) {
+            uploadReferences.releaseResource(fileUrl);
+            throw e;
+        }
+    }
+
+    @Override
+    public void abortUpload(String uploadId, Principal principal) throws IOException {
+        UploadSession session = getSession(uploadId, principal);
+        if (sessions.remove(uploadId, session)) {
+            Files.deleteIfExists(session.tempFile);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.file.chunked-upload.cleanup-interval-ms:3600000}")
+    public void purgeExpiredUploads() {
+        long cutoff = System.currentTimeMillis() - Duration.ofHours(expiryHours).toMillis();
+        sessions.values().removeIf(session -> {
+            if (session.lastActivity >= cutoff) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(session.tempFile);
+            } catch (IOException e) {
+                log.warn("Could not delete temp file of expired upload {}", session.id, e);
+            }
+            log.info("Discarded expired chunked upload {} of {}", session.id, session.fileName);
+            return true;
+        });
+    }
+
+    private UploadSession getSession(String uploadId, Principal principal) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+        if (!session.username.equals(principal.getName())) {
+            throw new UnauthorizedAccessException("You don't have permission to access this upload");
+        }
+        session.lastActivity = System.currentTimeMillis();
+        return session;
+    }
+
+    private boolean isProgramOwner(UserEntity user, FitnessProgramEntity program) {
+        return user.getRole() == Roles.ADMIN || program.getUser().getId().equals(user.getId());
+    }
+
+    private ResourceUploadResponse toResponse(UploadSession session) {
+        BitSet received = session.receivedChunks();
+        long receivedBytes = (long) received.cardinality() * session.chunkSize;
+        if (received.get(session.totalChunks - 1)) {
+            // The last chunk is usually shorter
+            receivedBytes -= (long) session.totalChunks * session.chunkSize - session.fileSize;
+        }
+        return ResourceUploadResponse.builder()
+                .uploadId(session.id)
+                .lessonId(session.lessonId)
+                .fileName(session.fileName)
+                .fileSize(session.fileSize)
+                .chunkSize(session.chunkSize)
+                .totalChunks(session.totalChunks)
+                .receivedChunks(received.stream().boxed().toList())
+                .receivedBytes(receivedBytes)
+                .complete(received.cardinality() == session.totalChunks)
+                .build();
+    }
+
+    private static final class UploadSession {
+        private final String id;
+        private final Integer lessonId;
+        private final String username;
+        private final String title;
+        private final String description;
+        private final Integer orderIndex;
+        private final String fileName;
+        private final String contentType;
+        private final long fileSize;
+        private final int chunkSize;
+        private final int totalChunks;
+        private final Path tempFile;
+        private final BitSet received; // guarded by this
+        private int writesInFlight; // guarded by this
+        private boolean closed; // guarded by this; set once completion has started
+        private volatile long lastActivity;
+
+        UploadSession(String id, Integer lessonId, String username, ResourceUploadRequest request, int chunkSize, Path tempFile) {
+            this.id = id;
+            this.lessonId = lessonId;
+            this.username = username;
+            this.title = request.getTitle();
+            this.description = request.getDescription();
+            this.orderIndex = request.getOrderIndex();
+            this.fileName = request.getFileName();
+            this.contentType = request.getContentType();
+            this.fileSize = request.getFileSize();
+            this.chunkSize = chunkSize;
+            this.totalChunks = (int) ((fileSize + chunkSize - 1) / chunkSize);
+            this.tempFile = tempFile;
+            this.received = new BitSet(totalChunks);
+            this.lastActivity = System.currentTimeMillis();
+        }
+
+        /**
+         * @return false if completion has started and the chunk must not be written
+         */
+        synchronized boolean beginWrite() {
+            if (closed) {
+                return false;
+            }
+            writesInFlight++;
+            return true;
+        }
+
+        synchronized void endWrite() {
+            writesInFlight--;
+        }
+
+        /**
+         * Stops accepting chunks so the temp file can be moved into the store.
+         *
+         * @throws IllegalArgumentException if completion already started, a chunk is still being written or chunks are missing
+         */
+        synchronized void closeForCompletion() {
+            if (closed) {
+                throw new IllegalArgumentException("Upload " + id + " is already being completed");
+            }
+            if (writesInFlight > 0) {
+                throw new IllegalArgumentException("Upload " + id + " still has " + writesInFlight + " chunks in flight");
+            }
+            if (received.cardinality() != totalChunks) {
+                throw new IllegalArgumentException("Upload " + id + " is missing " + (totalChunks - received.cardinality()) + " chunks");
+            }
+            closed = true;
+        }
+
+        synchronized void markReceived(int chunkIndex) {
+            received.set(chunkIndex);
+        }
+
+        synchronized BitSet receivedChunks() {
+            return (BitSet) received.clone();
+        }
+    }
+}
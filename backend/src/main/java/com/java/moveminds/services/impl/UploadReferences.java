@@ -0,0 +1,124 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.config.UploadCleanupProperties;
+import com.java.moveminds.entities.ProgramLessonEntity;
+import com.java.moveminds.entities.ProgramResourceEntity;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.repositories.ProgramResourceEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.ImageUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Reference counting for content-addressed uploads. Identical uploads share one file, so a file is
+ * only deleted once no program image, avatar or program resource points at it any more. The count is
+ * taken after the surrounding transaction commits, so a rollback never leaves a row without its file.
+ * A concurrent upload of the same content may reuse the file before its own row commits, which the
+ * count cannot see; reuse refreshes the file's modification time, so files modified within the
+ * collector's grace period are left for the OrphanedUploadCollector instead of being deleted here.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadReferences {
+    static final String RESOURCES_DIRECTORY = "resources";
+
+    private final ProgramImageEntityRepository programImageRepository;
+    private final ProgramResourceEntityRepository resourceRepository;
+    private final UserEntityRepository userRepository;
+    private final ImageUploadService imageUploadService;
+    private final FileStorageService fileStorageService;
+    private final ContentAddressedStore contentStore;
+    private final UploadCleanupProperties cleanupProperties;
+
+    /**
+     * Deletes an image under /uploads and its renditions once nothing references its URL.
+     */
+    public void releaseImage(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith("/uploads/")) {
+            return;
+        }
+        afterCommit(() -> {
+            if (programImageRepository.existsByImageUrl(imageUrl) || userRepository.existsByAvatarUrl(imageUrl)) {
+                return;
+            }
+            try {
+                if (!imageUploadService.deleteImageFile(imageUrl, graceCutoff())) {
+                    log.debug("Unreferenced image {} is recent or already gone, leaving it to the collector", imageUrl);
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced image {}", imageUrl, e);
+            }
+        });
+    }
+
+    /**
+     * Deletes a stored lesson resource once no program resource references its URL.
+     * External links and URLs outside the resource store are ignored.
+     */
+    public void releaseResource(String fileUrl) {
+        String prefix = fileStorageService.getFileUrl("", RESOURCES_DIRECTORY);
+        if (fileUrl == null || !fileUrl.startsWith(prefix)) {
+            return;
+        }
+        String filename = fileUrl.substring(prefix.length());
+        afterCommit(() -> {
+            if (resourceRepository.existsByFileUrl(fileUrl)) {
+                return;
+            }
+            try {
+                if (!contentStore.deleteIfUnmodifiedSince(fileStorageService.getFilePath(filename, RESOURCES_DIRECTORY), graceCutoff())) {
+                    log.debug("Unreferenced resource {} is recent or already gone, leaving it to the collector", fileUrl);
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced resource {}", fileUrl, e);
+            }
+        });
+    }
+
+    /**
+     * Releases the stored resources of lessons that a module or program delete removes by cascade.
+     */
+    public void releaseLessonResources(Collection<ProgramLessonEntity> lessons) {
+        if (lessons == null) {
+            return;
+        }
+        for (ProgramLessonEntity lesson : lessons) {
+            if (lesson.getResources() != null) {
+                for (ProgramResourceEntity resource : lesson.getResources()) {
+                    releaseResource(resource.getFileUrl());
+                }
+            }
+        }
+    }
+
+    private long graceCutoff() {
+        return System.currentTimeMillis() - Duration.ofHours(cleanupProperties.getGracePeriodHours()).toMillis();
+    }
+
+    private static void afterCommit(Runnable release) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    release.run();
+                } catch (RuntimeException e) {
+                    log.warn("Could not release an upload after commit", e);
+                }
+            }
+        });
+    }
+}
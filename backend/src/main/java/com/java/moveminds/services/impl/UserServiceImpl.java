@@ -20,6 +20,7 @@ import com.java.moveminds.enums.Roles;
 import com.java.moveminds.repositories.UserEntityRepository;
 import com.java.moveminds.services.LogService;
 import com.java.moveminds.services.UserService;
+import com.java.moveminds.util.JwtPrincipalCache;
 
 import java.security.Principal;
 import java.util.List;
@@ -33,6 +34,7 @@ public class UserServiceImpl implements UserService {
     private final CityServiceImpl cityService;
     private final PasswordEncoder passwordEncoder;
     private final LogService logService;
+    private final JwtPrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
@@ -46,7 +48,6 @@ public class UserServiceImpl implements UserService {
 
         UserEntity user = userOptional.orElseThrow(() -> new UsernameNotFoundException("User not found: " + usernameOrEmail));
         List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
-        logService.log(null, "User acquisition");
         return new CustomUserDetails(user.getUsername(), user.getPassword(), user.getEmail(), authorities);
     }
 
@@ -117,6 +118,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(updatePasswordRequest.getNewPassword()));
         logService.log(null, "Password update");
         userRepository.saveAndFlush(user);
+        principalCache.invalidate(user.getUsername());
     }
 
     @Override
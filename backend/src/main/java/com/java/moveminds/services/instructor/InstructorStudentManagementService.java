@@ -1,6 +1,7 @@
 package com.java.moveminds.services.instructor;
 
 import com.java.moveminds.dto.requests.instructor.InstructorStudentManagementRequest;
+import com.java.moveminds.dto.response.CursorPageResponse;
 import com.java.moveminds.dto.response.ProgramEnrollmentResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -31,6 +32,11 @@ public interface InstructorStudentManagementService {
     Page<ProgramEnrollmentResponse> getAllEnrollments(Principal principal, Pageable pageable, 
                                                     String search, String status, String program);
     
+    /**
+     * Get enrollments across instructor's programs, newest first, using keyset pagination
+     */
+    CursorPageResponse<ProgramEnrollmentResponse> getEnrollmentsAfter(Principal principal, String after, int size);
+    
     /**
      * Update enrollment status with validation
      */
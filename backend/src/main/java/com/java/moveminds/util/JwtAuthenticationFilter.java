@@ -1,7 +1,6 @@
 package com.java.moveminds.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,6 +21,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import com.java.moveminds.dto.CustomUserDetails;
+import com.java.moveminds.dto.ParsedJwtToken;
 import com.java.moveminds.dto.response.ErrorResponse;
 import com.java.moveminds.services.JwtService;
 import com.java.moveminds.services.UserService;
@@ -36,6 +38,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService; // Service for working with JWT tokens
     private final UserService userService; // Service for working with user details
     private final ObjectMapper objectMapper; // Mapper for converting objects to/from JSON
+    private final JwtPrincipalCache principalCache; // Cache of principals built from verified tokens
+
+    @Value("${security.jwt.stateless-auth.enabled:false}")
+    private boolean statelessAuthentication; // Builds the principal from token claims instead of loading the user
 
     @Override
     protected void doFilterInternal(
@@ -45,40 +51,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             final String authHeader = request.getHeader("Authorization");
             // Retrieves the Authorization header from the request
-            String jwt = null; // Variable to store the JWT token
+            ParsedJwtToken token = null; // Verified JWT token, parsed once per request
             String userEmail = null; // Variable to store the user email
 
             if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
                 // Checks if the Authorization header is not empty and starts with "Bearer "
-                jwt = authHeader.substring(7); // Extracts the JWT token from the header
-                userEmail = jwtService.extractUserName(jwt); // Extracts the username (email) from the JWT token
+                token = jwtService.parseToken(authHeader.substring(7)); // Verifies and parses the JWT token from the header
+                userEmail = token.getSubject(); // Extracts the username (email) from the JWT token
                 logger.info("JWT token found for user: {}", userEmail); // Logs the extracted user email
             }
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // Checks if the user email is not null and the user is not already authenticated
-                UserDetails userDetails = userService.loadUserByUsername(userEmail);
-                // Loads the user details using the email
-                logger.info("User details loaded for user: {}", userEmail); // Logs that user details are loaded
-
-                if (jwtService.isTokenValid(jwt, userDetails)) { // Checks if the JWT token is valid
-                    Claims claims = jwtService.extractAllClaims(jwt); // Extracts all claims from the JWT token
-                    @SuppressWarnings("unchecked")
-                    List<String> roles = claims.get("roles", List.class); // Retrieves the roles from the JWT claims
-                    List<GrantedAuthority> authorities = roles.stream()
-                            .map(SimpleGrantedAuthority::new) // Converts roles to GrantedAuthority objects
-                            .collect(Collectors.toList());
-
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
-                    // Creates an authentication token
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    // Sets the authentication details from the request
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    // Sets the authentication token in the config context
-                    logger.info("User {} authenticated with roles: {}", userEmail, roles); // Logs successful authentication
+                if (statelessAuthentication) {
+                    authenticateFromClaims(request, token, userEmail);
                 } else {
-                    logger.warn("Invalid JWT token for user: {}", userEmail); // Logs invalid JWT token
+                    authenticateFromDatabase(request, token, userEmail);
                 }
             }
         } catch (JwtException e) { // Handles JWT exceptions
@@ -90,6 +78,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticateFromDatabase(HttpServletRequest request, ParsedJwtToken token, String userEmail) {
+        UserDetails userDetails = userService.loadUserByUsername(userEmail);
+        // Loads the user details using the email
+        logger.info("User details loaded for user: {}", userEmail); // Logs that user details are loaded
+
+        if (jwtService.isTokenValid(token, userDetails)) { // Checks if the JWT token is valid
+            setAuthentication(request, userDetails, token.getRoles());
+        } else {
+            logger.warn("Invalid JWT token for user: {}", userEmail); // Logs invalid JWT token
+        }
+    }
+
+    private void authenticateFromClaims(HttpServletRequest request, ParsedJwtToken token, String username) {
+        // Signature and expiry are verified by the parser, so the claims can be trusted as-is
+        CustomUserDetails principal = principalCache.get(username);
+
+        if (principal == null) {
+            if (principalCache.isStale(username, token.getIssuedAt())) {
+                // Role, status or password changed after this token was issued - fall back to the database
+                UserDetails userDetails = userService.loadUserByUsername(username);
+                principal = (CustomUserDetails) userDetails;
+            } else {
+                List<GrantedAuthority> authorities = token.getRoles().stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
+                principal = new CustomUserDetails(username, "", token.getEmail(), authorities);
+            }
+            principalCache.put(username, principal);
+        }
+
+        List<String> roles = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        setAuthentication(request, principal, roles);
+    }
+
+    private void setAuthentication(HttpServletRequest request, UserDetails userDetails, List<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new) // Converts roles to GrantedAuthority objects
+                .collect(Collectors.toList());
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+        // Creates an authentication token
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        // Sets the authentication details from the request
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        // Sets the authentication token in the config context
+        logger.info("User {} authenticated with roles: {}", userDetails.getUsername(), roles); // Logs successful authentication
+    }
+
     private void handleException(HttpServletRequest request, HttpServletResponse response) throws IOException {
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpServletResponse.SC_UNAUTHORIZED,
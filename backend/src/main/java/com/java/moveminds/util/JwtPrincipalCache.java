@@ -0,0 +1,84 @@
+package com.java.moveminds.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.moveminds.dto.CustomUserDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals used by the stateless JWT path.
+ * Entries are evicted when a user's role, status or password changes, and tokens issued
+ * before that change are no longer trusted on their claims alone.
+ */
+@Component
+public class JwtPrincipalCache {
+    private static final Logger logger = LoggerFactory.getLogger(JwtPrincipalCache.class);
+
+    private final Cache<String, CustomUserDetails> principals; // username -> principal
+    private final Cache<String, Long> invalidations; // username -> time of the last security-relevant change
+
+    public JwtPrincipalCache(
+            @Value("${security.jwt.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.jwt.principal-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${security.jwt.expiration-time}") long jwtExpiration) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        // Invalidation markers only need to outlive the tokens they revoke
+        this.invalidations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(jwtExpiration))
+                .build();
+    }
+
+    public CustomUserDetails get(String username) {
+        return principals.getIfPresent(username);
+    }
+
+    public void put(String username, CustomUserDetails principal) {
+        principals.put(username, principal);
+    }
+
+    /**
+     * Returns true if the user's role, status or password changed after the token was issued,
+     * meaning the token's claims can no longer be trusted without a database lookup.
+     */
+    public boolean isStale(String username, Date issuedAt) {
+        Long invalidatedAt = invalidations.getIfPresent(username);
+        return invalidatedAt != null && (issuedAt == null || issuedAt.getTime() <= invalidatedAt);
+    }
+
+    /**
+     * Evicts the user's principal. Inside a transaction the eviction is repeated after commit: a request
+     * racing the transaction could otherwise reload the pre-change user and cache it until the TTL expires.
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        invalidations.put(username, System.currentTimeMillis());
+        principals.invalidate(username);
+        logger.debug("Principal cache invalidated for user: {}", username);
+    }
+}
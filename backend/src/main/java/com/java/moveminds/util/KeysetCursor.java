@@ -0,0 +1,43 @@
+package com.java.moveminds.util;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination over a (timestamp, id) sort key.
+ * Clients pass it back unchanged as {@code after} to fetch the next page.
+ */
+@Getter
+public final class KeysetCursor {
+    private final long epochMillis;
+    private final int id;
+
+    private KeysetCursor(long epochMillis, int id) {
+        this.epochMillis = epochMillis;
+        this.id = id;
+    }
+
+    public static String encode(long epochMillis, int id) {
+        String raw = epochMillis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encodes a cursor for listings keyed by id alone.
+     */
+    public static String encode(int id) {
+        return encode(0L, id);
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new KeysetCursor(Long.parseLong(raw.substring(0, separator)), Integer.parseInt(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
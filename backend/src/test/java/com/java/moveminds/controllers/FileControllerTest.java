@@ -0,0 +1,105 @@
+package com.java.moveminds.controllers;
+
+import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.impl.ContentAddressedStore;
+import com.java.moveminds.services.impl.HotFileCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileControllerTest {
+
+    private static final String FILENAME = "guide.pdf";
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path uploadRoot;
+
+    private FileController controller;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.writeString(uploadRoot.resolve(FILENAME), CONTENT);
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.getFilePath(FILENAME, "resources")).thenReturn(file);
+        HotFileCache hotFileCache = new HotFileCache(64, 256, 60, new SimpleMeterRegistry());
+        controller = new FileController(fileStorageService, hotFileCache, new ContentAddressedStore(hotFileCache));
+        ReflectionTestUtils.setField(controller, "privateSubdirectories", Set.of("resources"));
+    }
+
+    @Test
+    void rangeWithMatchingIfRangeIsPartial() throws IOException {
+        String eTag = serve(new MockHttpServletRequest("GET", "/files/resources/" + FILENAME)).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = rangeRequest();
+        request.addHeader(HttpHeaders.IF_RANGE, eTag);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void rangeWithChangedEntityTagGetsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = rangeRequest();
+        request.addHeader(HttpHeaders.IF_RANGE, "\"0-0\"");
+
+        assertWholeFile(serve(request));
+    }
+
+    @Test
+    void rangeWithWeakEntityTagGetsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = rangeRequest();
+        request.addHeader(HttpHeaders.IF_RANGE, "W/\"0-0\"");
+
+        assertWholeFile(serve(request));
+    }
+
+    @Test
+    void rangeWithMalformedIfRangeGetsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = rangeRequest();
+        request.addHeader(HttpHeaders.IF_RANGE, "yesterday");
+
+        assertWholeFile(serve(request));
+    }
+
+    @Test
+    void rangeWithOlderIfRangeDateGetsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = rangeRequest();
+        request.addHeader(HttpHeaders.IF_RANGE, "Thu, 01 Jan 2015 00:00:00 GMT");
+
+        assertWholeFile(serve(request));
+    }
+
+    private static MockHttpServletRequest rangeRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/resources/" + FILENAME);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        return request;
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serveFile("resources", FILENAME, request, response);
+        return response;
+    }
+
+    private static void assertWholeFile(MockHttpServletResponse response) throws IOException {
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+}
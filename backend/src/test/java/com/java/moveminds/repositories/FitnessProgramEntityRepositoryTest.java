@@ -0,0 +1,200 @@
+package com.java.moveminds.repositories;
+
+import com.java.moveminds.entities.AttributeEntity;
+import com.java.moveminds.entities.AttributeValueEntity;
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.CityEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.LocationEntity;
+import com.java.moveminds.entities.ProgramAttributeEntity;
+import com.java.moveminds.entities.ProgramImageEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.DifficultyLevel;
+import com.java.moveminds.enums.Roles;
+import com.java.moveminds.repositories.projections.ProgramSummaryView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts of the program listing and detail queries, so a lazy association touched by the
+ * response mapping shows up as a failing test instead of an N+1 in production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // "user" and "timestamp" are keywords in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+class FitnessProgramEntityRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private FitnessProgramEntityRepository fitnessProgramRepository;
+    @Autowired
+    private ProgramAttributeEntityRepository programAttributeRepository;
+
+    private Statistics statistics;
+    private Integer programId;
+
+    @BeforeEach
+    void setUp() {
+        CityEntity city = entityManager.persist(new CityEntity("Banja Luka"));
+        UserEntity instructor = new UserEntity();
+        instructor.setUsername("instructor");
+        instructor.setPassword("secret");
+        instructor.setEmail("instructor@example.com");
+        instructor.setFirstName("Ana");
+        instructor.setLastName("Petrović");
+        instructor.setRole(Roles.INSTRUCTOR);
+        instructor.setCity(city);
+        entityManager.persist(instructor);
+
+        LocationEntity location = new LocationEntity();
+        location.setName("Gym");
+        entityManager.persist(location);
+        CategoryEntity category = new CategoryEntity();
+        category.setName("Strength");
+        entityManager.persist(category);
+
+        FitnessProgramEntity program = new FitnessProgramEntity();
+        program.setName("Full body");
+        program.setDescription("Three sessions a week");
+        program.setDifficultyLevel(DifficultyLevel.BEGINNER);
+        program.setDuration(30);
+        program.setPrice(new BigDecimal("40.00"));
+        program.setIsActive(true);
+        program.setUser(instructor);
+        program.setLocation(location);
+        program.setCategory(category);
+        entityManager.persist(program);
+        programId = program.getId();
+
+        for (int i = 0; i < 3; i++) {
+            ProgramImageEntity image = new ProgramImageEntity();
+            image.setImageUrl("image-" + i + ".jpg");
+            image.setFitnessProgram(program);
+            entityManager.persist(image);
+        }
+        for (String attributeName : List.of("Equipment", "Intensity")) {
+            AttributeEntity attribute = new AttributeEntity();
+            attribute.setName(attributeName);
+            attribute.setCategory(category);
+            entityManager.persist(attribute);
+            AttributeValueEntity selected = null;
+            for (String valueName : List.of("Low", "High")) {
+                AttributeValueEntity value = new AttributeValueEntity();
+                value.setName(valueName);
+                value.setAttribute(attribute);
+                entityManager.persist(value);
+                selected = value;
+            }
+            ProgramAttributeEntity programAttribute = new ProgramAttributeEntity();
+            programAttribute.setFitnessProgram(program);
+            programAttribute.setAttributeValue(selected);
+            entityManager.persist(programAttribute);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void detailLoadsProgramWithAssociationsAndImagesInOneStatement() {
+        FitnessProgramEntity program = fitnessProgramRepository.findWithDetailsById(programId).orElseThrow();
+
+        assertThat(program.getUser().getFirstName()).isEqualTo("Ana");
+        assertThat(program.getLocation().getName()).isEqualTo("Gym");
+        assertThat(program.getCategory().getName()).isEqualTo("Strength");
+        assertThat(program.getProgramImages()).extracting(ProgramImageEntity::getImageUrl)
+                .containsExactlyInAnyOrder("image-0.jpg", "image-1.jpg", "image-2.jpg");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void detailLoadsAttributesWithAllTheirValuesInOneStatement() {
+        List<ProgramAttributeEntity> attributes = programAttributeRepository.findAllWithValuesByProgramId(programId);
+
+        assertThat(attributes).hasSize(2);
+        for (ProgramAttributeEntity attribute : attributes) {
+            assertThat(attribute.getAttributeValue().getName()).isEqualTo("High");
+            assertThat(attribute.getAttributeValue().getAttribute().getAttributeValues()).hasSize(2);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listingPageIsOneStatement() {
+        List<ProgramSummaryView> page = fitnessProgramRepository.findActiveSummariesAfter(
+                null, null, null, PageRequest.of(0, 10));
+
+        assertThat(page).singleElement().satisfies(summary -> {
+            assertThat(summary.getInstructorFirstName()).isEqualTo("Ana");
+            assertThat(summary.getLocationName()).isEqualTo("Gym");
+            assertThat(summary.getCategoryName()).isEqualTo("Strength");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keysetPagesVisitEveryActiveProgramOnceIncludingThoseWithoutCreatedAt() {
+        FitnessProgramEntity first = entityManager.find(FitnessProgramEntity.class, programId);
+        List<Integer> expected = new ArrayList<>(List.of(programId));
+        for (int i = 0; i < 5; i++) {
+            FitnessProgramEntity program = new FitnessProgramEntity();
+            program.setName("Program " + i);
+            program.setDescription("Description");
+            program.setDifficultyLevel(DifficultyLevel.BEGINNER);
+            program.setDuration(30);
+            program.setPrice(BigDecimal.TEN);
+            program.setIsActive(true);
+            program.setUser(first.getUser());
+            entityManager.persist(program);
+            expected.add(program.getId());
+        }
+        entityManager.flush();
+        // Seed rows leave created_at unset
+        entityManager.getEntityManager()
+                .createQuery("UPDATE FitnessProgramEntity p SET p.createdAt = NULL WHERE p.id IN :ids")
+                .setParameter("ids", expected.subList(1, 4))
+                .executeUpdate();
+        entityManager.clear();
+
+        List<Integer> visited = new ArrayList<>();
+        LocalDateTime afterCreatedAt = null;
+        Integer afterId = null;
+        List<ProgramSummaryView> page;
+        do {
+            page = fitnessProgramRepository.findActiveSummariesAfter(null, afterCreatedAt, afterId, PageRequest.of(0, 2));
+            for (ProgramSummaryView summary : page) {
+                visited.add(summary.getId());
+                afterCreatedAt = summary.getCreatedAt() != null
+                        ? summary.getCreatedAt() : FitnessProgramEntityRepository.CREATED_AT_FALLBACK;
+                afterId = summary.getId();
+            }
+        } while (!page.isEmpty());
+
+        assertThat(visited).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+        // Programs without created_at come last, newest id first
+        assertThat(visited.subList(3, 6)).containsExactly(expected.get(3), expected.get(2), expected.get(1));
+    }
+}
@@ -0,0 +1,189 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.AttributeDTO;
+import com.java.moveminds.dto.AttributeValueDTO;
+import com.java.moveminds.dto.CategoryDTO;
+import com.java.moveminds.entities.AttributeEntity;
+import com.java.moveminds.entities.AttributeValueEntity;
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.CityEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.LocationEntity;
+import com.java.moveminds.entities.ProgramAttributeEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.DifficultyLevel;
+import com.java.moveminds.enums.Roles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // "user" and "timestamp" are keywords in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@Import(CategoryFacetTree.class)
+class CategoryFacetTreeTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private CategoryFacetTree categoryFacetTree;
+
+    @BeforeEach
+    void setUp() {
+        CityEntity city = entityManager.persist(new CityEntity("Banja Luka"));
+        UserEntity instructor = new UserEntity();
+        instructor.setUsername("instructor");
+        instructor.setPassword("secret");
+        instructor.setEmail("instructor@example.com");
+        instructor.setFirstName("Ana");
+        instructor.setLastName("Petrović");
+        instructor.setRole(Roles.INSTRUCTOR);
+        instructor.setCity(city);
+        entityManager.persist(instructor);
+        LocationEntity location = new LocationEntity();
+        location.setName("Gym");
+        entityManager.persist(location);
+
+        CategoryEntity strength = category("Strength");
+        AttributeValueEntity dumbbells = value(attribute(strength, "Equipment"), "Dumbbells");
+        AttributeValueEntity barbell = value(strength.getAttributes().get(0), "Barbell");
+        value(strength.getAttributes().get(0), "Kettlebell"); // used by no program
+        AttributeEntity intensity = attribute(strength, "Intensity");
+        AttributeValueEntity low = value(intensity, "Low");
+        AttributeValueEntity high = value(intensity, "High");
+        // A category with attributes but no programs using them
+        value(attribute(category("Yoga"), "Style"), "Vinyasa");
+
+        program("Full body", true, strength, instructor, location, dumbbells, high);
+        program("Power lifting", true, strength, instructor, location, dumbbells, barbell);
+        program("Deload week", false, strength, instructor, location, low, high);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void treeHasTheSameCategoriesAttributesAndValuesAsTheJoinItReplaced() {
+        assertThat(outline(categoryFacetTree.get())).containsExactlyInAnyOrderElementsOf(outline(baselineTree()));
+    }
+
+    @Test
+    void valuesCountOnlyActivePrograms() {
+        List<CategoryDTO> tree = categoryFacetTree.get();
+
+        assertThat(tree).extracting(CategoryDTO::getName).containsExactly("Strength");
+        Map<String, Long> counts = tree.get(0).getAttributes().stream()
+                .flatMap(attribute -> attribute.getValues().stream())
+                .collect(Collectors.toMap(AttributeValueDTO::getName, AttributeValueDTO::getProgramCount));
+        // "Low" is only used by the inactive program
+        assertThat(counts).isEqualTo(Map.of("Dumbbells", 2L, "Barbell", 1L, "Low", 0L, "High", 1L));
+    }
+
+    /**
+     * The tree as it was built before CategoryFacetTree: categories joined to their programs' attribute
+     * values, keeping the attributes and values that at least one program uses.
+     */
+    private List<CategoryDTO> baselineTree() {
+        List<CategoryEntity> categories = entityManager.getEntityManager().createQuery(
+                "SELECT DISTINCT c FROM CategoryEntity c " +
+                        "JOIN c.fitnessPrograms fp " +
+                        "JOIN fp.programAttributes pa " +
+                        "JOIN pa.attributeValue av " +
+                        "JOIN av.attribute a " +
+                        "WHERE fp.id IS NOT NULL", CategoryEntity.class).getResultList();
+        List<CategoryDTO> tree = new ArrayList<>();
+        for (CategoryEntity category : categories) {
+            List<AttributeDTO> attributes = new ArrayList<>();
+            for (AttributeEntity attribute : category.getAttributes()) {
+                AttributeDTO attributeDTO = new AttributeDTO();
+                attributeDTO.setId(attribute.getId());
+                attributeDTO.setName(attribute.getName());
+                attributeDTO.setValues(attribute.getAttributeValues().stream()
+                        .filter(value -> !value.getProgramAttributes().isEmpty())
+                        .map(value -> new AttributeValueDTO(value.getId(), value.getName()))
+                        .toList());
+                if (!attributeDTO.getValues().isEmpty()) {
+                    attributes.add(attributeDTO);
+                }
+            }
+            if (!attributes.isEmpty()) {
+                CategoryDTO categoryDTO = new CategoryDTO();
+                categoryDTO.setId(category.getId());
+                categoryDTO.setName(category.getName());
+                categoryDTO.setAttributes(attributes);
+                tree.add(categoryDTO);
+            }
+        }
+        return tree;
+    }
+
+    private static List<String> outline(List<CategoryDTO> tree) {
+        List<String> lines = new ArrayList<>();
+        for (CategoryDTO category : tree) {
+            for (AttributeDTO attribute : category.getAttributes()) {
+                for (AttributeValueDTO value : attribute.getValues()) {
+                    lines.add(category.getId() + " " + category.getName() + " > " + attribute.getId() + " " + attribute.getName()
+                            + " > " + value.getId() + " " + value.getName());
+                }
+            }
+        }
+        return lines;
+    }
+
+    private CategoryEntity category(String name) {
+        CategoryEntity category = new CategoryEntity();
+        category.setName(name);
+        category.setAttributes(new ArrayList<>());
+        return entityManager.persist(category);
+    }
+
+    private AttributeEntity attribute(CategoryEntity category, String name) {
+        AttributeEntity attribute = new AttributeEntity();
+        attribute.setName(name);
+        attribute.setCategory(category);
+        category.getAttributes().add(attribute);
+        return entityManager.persist(attribute);
+    }
+
+    private AttributeValueEntity value(AttributeEntity attribute, String name) {
+        AttributeValueEntity value = new AttributeValueEntity();
+        value.setName(name);
+        value.setAttribute(attribute);
+        return entityManager.persist(value);
+    }
+
+    private void program(String name, boolean active, CategoryEntity category, UserEntity instructor,
+                         LocationEntity location, AttributeValueEntity... values) {
+        FitnessProgramEntity program = new FitnessProgramEntity();
+        program.setName(name);
+        program.setDescription("Three sessions a week");
+        program.setDifficultyLevel(DifficultyLevel.BEGINNER);
+        program.setDuration(30);
+        program.setPrice(new BigDecimal("40.00"));
+        program.setIsActive(active);
+        program.setUser(instructor);
+        program.setLocation(location);
+        program.setCategory(category);
+        entityManager.persist(program);
+        for (AttributeValueEntity value : values) {
+            ProgramAttributeEntity programAttribute = new ProgramAttributeEntity();
+            programAttribute.setFitnessProgram(program);
+            programAttribute.setAttributeValue(value);
+            entityManager.persist(programAttribute);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.java.moveminds.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentAddressedStoreTest {
+
+    @TempDir
+    Path root;
+
+    private ContentAddressedStore contentStore;
+
+    @BeforeEach
+    void setUp() {
+        contentStore = new ContentAddressedStore(new HotFileCache(64, 256, 60, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws IOException {
+        ContentAddressedStore.StoredContent first = store("squat guide");
+        ContentAddressedStore.StoredContent second = store("squat guide");
+
+        assertThat(first.created()).isTrue();
+        assertThat(second).isEqualTo(new ContentAddressedStore.StoredContent(first.name(), false));
+        assertThat(first.name()).endsWith(".pdf");
+        assertThat(storedFiles()).containsExactly(contentStore.resolve(root, first.name()));
+        assertThat(tempFiles()).isEmpty();
+    }
+
+    @Test
+    void assembledFileWithKnownContentIsDroppedInFavourOfTheStoredOne() throws IOException {
+        ContentAddressedStore.StoredContent stored = store("squat guide");
+        Path assembled = contentStore.newTempFile(root);
+        Files.writeString(assembled, "squat guide");
+
+        ContentAddressedStore.StoredContent again = contentStore.storeFile(root, ".pdf", assembled);
+
+        assertThat(again).isEqualTo(new ContentAddressedStore.StoredContent(stored.name(), false));
+        assertThat(assembled).doesNotExist();
+        assertThat(storedFiles()).hasSize(1);
+    }
+
+    @Test
+    void reusedContentIsNotDeletedAsUnmodified() throws IOException {
+        ContentAddressedStore.StoredContent stored = store("squat guide");
+        Path path = contentStore.resolve(root, stored.name());
+        long cutoff = Instant.now().minus(Duration.ofHours(1)).toEpochMilli();
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        // Uploading the same content again refreshes the file, as a row about to reference it may not have committed yet
+        store("squat guide");
+
+        assertThat(contentStore.deleteIfUnmodifiedSince(path, cutoff)).isFalse();
+        assertThat(path).hasContent("squat guide");
+    }
+
+    @Test
+    void contentUnmodifiedSinceTheCutoffIsDeleted() throws IOException {
+        Path path = contentStore.resolve(root, store("squat guide").name());
+        long cutoff = Instant.now().minus(Duration.ofHours(1)).toEpochMilli();
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        assertThat(contentStore.deleteIfUnmodifiedSince(path, cutoff)).isTrue();
+        assertThat(path).doesNotExist();
+        assertThat(contentStore.deleteIfUnmodifiedSince(path, cutoff)).isFalse();
+    }
+
+    private ContentAddressedStore.StoredContent store(String content) throws IOException {
+        return contentStore.store(root, ".pdf", out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getParent().endsWith(ContentAddressedStore.TEMP_DIRECTORY))
+                    .toList();
+        }
+    }
+
+    private List<Path> tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(root.resolve(ContentAddressedStore.TEMP_DIRECTORY))) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.java.moveminds.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and tail latency of uploadImages for a request of several camera-sized JPEGs:
+ * decode with subsampling, resize on the image executor and store by content hash.
+ * Excluded from the default build, run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ImageUploadServiceImplBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadServiceImplBenchmarkTest.class);
+
+    private static final int IMAGES_PER_REQUEST = 4;
+    private static final int DISTINCT_IMAGES = 8;
+    private static final int WARMUP_REQUESTS = 5;
+    private static final int MEASURED_REQUESTS = 40;
+
+    @TempDir
+    Path uploadRoot;
+
+    private ImageUploadServiceImpl imageUploadService;
+    private List<MultipartFile> images;
+    private final Set<String> decodingThreads = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ContentAddressedStore contentStore = new ContentAddressedStore(new HotFileCache(64, 256, 60, new SimpleMeterRegistry()));
+        imageUploadService = new ImageUploadServiceImpl(contentStore);
+        ReflectionTestUtils.setField(imageUploadService, "uploadPath", uploadRoot.toString());
+        ReflectionTestUtils.setField(imageUploadService, "imageThreads", 0);
+        ReflectionTestUtils.setField(imageUploadService, "imageQueueCapacity", 64);
+        ReflectionTestUtils.setField(imageUploadService, "maxPixels", 40_000_000L);
+        ReflectionTestUtils.setField(imageUploadService, "variantThreads", 1);
+        ReflectionTestUtils.setField(imageUploadService, "variantQueueCapacity", 16);
+        imageUploadService.startImageExecutor();
+
+        Random random = new Random(42);
+        images = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_IMAGES; i++) {
+            images.add(new MockMultipartFile("files", "photo-" + i + ".jpg", "image/jpeg", jpeg(3000, 2000, random)) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    decodingThreads.add(Thread.currentThread().getName());
+                    return super.getInputStream();
+                }
+            });
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageUploadService.stopImageExecutor();
+    }
+
+    @Test
+    void uploadImagesThroughputAndTailLatency() throws IOException {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            imageUploadService.uploadImages(request(i));
+        }
+
+        long[] latencies = new long[MEASURED_REQUESTS];
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            long requestStarted = System.nanoTime();
+            List<String> stored = imageUploadService.uploadImages(request(i));
+            latencies[i] = System.nanoTime() - requestStarted;
+            assertThat(stored).hasSize(IMAGES_PER_REQUEST)
+                    .allSatisfy(name -> assertThat(Files.exists(uploadRoot.resolve(name))).isTrue());
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        double imagesPerSecond = MEASURED_REQUESTS * IMAGES_PER_REQUEST / (elapsed / 1e9);
+        logger.info("uploadImages ({} x 3000x2000 JPEG, {} cores): {} images/s, p50 {} ms, p99 {} ms",
+                IMAGES_PER_REQUEST, Runtime.getRuntime().availableProcessors(), String.format("%.1f", imagesPerSecond),
+                TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 0.50)),
+                TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 0.99)));
+        // The queue never fills here, so every decode ran on the bounded pool and none on the request thread
+        assertThat(decodingThreads).isNotEmpty()
+                .allSatisfy(thread -> assertThat(thread).startsWith("image-upload-"))
+                .hasSizeLessThanOrEqualTo(Runtime.getRuntime().availableProcessors());
+    }
+
+    private List<MultipartFile> request(int index) {
+        List<MultipartFile> request = new ArrayList<>(IMAGES_PER_REQUEST);
+        for (int i = 0; i < IMAGES_PER_REQUEST; i++) {
+            request.add(images.get((index * IMAGES_PER_REQUEST + i) % DISTINCT_IMAGES));
+        }
+        return request;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static byte[] jpeg(int width, int height, Random random) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            for (int i = 0; i < 200; i++) {
+                graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+                graphics.fillOval(random.nextInt(width), random.nextInt(height), 50 + random.nextInt(600), 50 + random.nextInt(600));
+            }
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
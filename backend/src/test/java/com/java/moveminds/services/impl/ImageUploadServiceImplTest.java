@@ -0,0 +1,135 @@
+package com.java.moveminds.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageUploadServiceImplTest {
+
+    @TempDir
+    Path uploadRoot;
+
+    private ImageUploadServiceImpl imageUploadService;
+    private final Queue<String> decodingThreads = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger decoding = new AtomicInteger();
+    private final AtomicInteger maxDecoding = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        imageUploadService.stopImageExecutor();
+    }
+
+    @Test
+    void imagesAreDecodedOnTheBoundedPoolOffTheRequestThread() throws IOException {
+        start(2, 16);
+
+        List<String> stored = imageUploadService.uploadImages(images(6));
+
+        assertThat(stored).hasSize(6).allSatisfy(name -> assertThat(uploadRoot.resolve(name)).exists());
+        assertThat(decodingThreads).hasSize(6).allSatisfy(thread -> assertThat(thread).startsWith("image-upload-"));
+        assertThat(maxDecoding.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void fullQueueMakesTheRequestThreadDecodeInsteadOfRejecting() throws IOException {
+        start(1, 1);
+
+        List<String> stored = imageUploadService.uploadImages(images(6));
+
+        assertThat(stored).hasSize(6);
+        assertThat(decodingThreads).contains(Thread.currentThread().getName());
+        // One pool thread plus the throttled request thread
+        assertThat(maxDecoding.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void identicalImagesAreStoredOnce() throws IOException {
+        start(2, 16);
+        MultipartFile image = image(0);
+
+        List<String> stored = imageUploadService.uploadImages(List.of(image, image));
+
+        assertThat(stored.get(0)).isEqualTo(stored.get(1));
+        try (var files = Files.walk(uploadRoot)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    private void start(int threads, int queueCapacity) {
+        ContentAddressedStore contentStore = new ContentAddressedStore(new HotFileCache(64, 256, 60, new SimpleMeterRegistry()));
+        imageUploadService = new ImageUploadServiceImpl(contentStore);
+        ReflectionTestUtils.setField(imageUploadService, "uploadPath", uploadRoot.toString());
+        ReflectionTestUtils.setField(imageUploadService, "imageThreads", threads);
+        ReflectionTestUtils.setField(imageUploadService, "imageQueueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(imageUploadService, "maxPixels", 40_000_000L);
+        ReflectionTestUtils.setField(imageUploadService, "variantThreads", 1);
+        ReflectionTestUtils.setField(imageUploadService, "variantQueueCapacity", 16);
+        imageUploadService.startImageExecutor();
+    }
+
+    private List<MultipartFile> images(int count) throws IOException {
+        List<MultipartFile> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            images.add(image(i));
+        }
+        return images;
+    }
+
+    /**
+     * A JPEG upload that records which thread decodes it and how many decodes run at once.
+     */
+    private MultipartFile image(int index) throws IOException {
+        return new MockMultipartFile("files", "photo-" + index + ".jpg", "image/jpeg", jpeg(index)) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                decodingThreads.add(Thread.currentThread().getName());
+                maxDecoding.accumulateAndGet(decoding.incrementAndGet(), Math::max);
+                return new FilterInputStream(super.getInputStream()) {
+                    @Override
+                    public void close() throws IOException {
+                        decoding.decrementAndGet();
+                        super.close();
+                    }
+                };
+            }
+        };
+    }
+
+    private static byte[] jpeg(int index) throws IOException {
+        BufferedImage image = new BufferedImage(1200, 900, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(new Color(index * 40 % 256, 80, 160));
+            graphics.fillRect(0, 0, 1200, 900);
+            graphics.setColor(Color.WHITE);
+            graphics.fillOval(index * 50, 100, 400, 400);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
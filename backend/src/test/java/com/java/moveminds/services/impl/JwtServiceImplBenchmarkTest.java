@@ -0,0 +1,108 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.CustomUserDetails;
+import com.java.moveminds.dto.ParsedJwtToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Micro-benchmark of the JWT filter path: one cached-parser parse per request against the previous
+ * path, which derived the key, built a parser and verified the signature once per claim read
+ * (subject, then subject and expiry inside isTokenValid). Excluded from the default build, run it with
+ * {@code mvn test -Pbenchmark}; JwtAuthenticationFilterTest checks the single parse per request.
+ */
+@Tag("benchmark")
+class JwtServiceImplBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(JwtServiceImplBenchmarkTest.class);
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGhlLWp3dC1iZW5jaG1hcmstdGVzdC0xMjM0NTY3ODkw";
+    private static final int WARMUP_ITERATIONS = 5_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+
+    private JwtServiceImpl jwtService;
+    private CustomUserDetails user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "jwtSigningKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        jwtService.init();
+
+        user = new CustomUserDetails("benchmark", "", "benchmark@example.com", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtService.generateToken(user);
+    }
+
+    @Test
+    void parseOnceAgainstParsePerClaim() {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parseOnce();
+            parsePerClaim();
+        }
+
+        long parseOnceNanos = time(this::parseOnce);
+        long parsePerClaimNanos = time(this::parsePerClaim);
+
+        logger.info("JWT filter path: parse once {} ns/op, parse per claim {} ns/op ({}x)",
+                parseOnceNanos / MEASURED_ITERATIONS, parsePerClaimNanos / MEASURED_ITERATIONS,
+                String.format("%.1f", (double) parsePerClaimNanos / parseOnceNanos));
+    }
+
+    @Test
+    void bothPathsAgreeOnTheToken() {
+        assertThat(parseOnce()).isTrue();
+        assertThat(parsePerClaim()).isTrue();
+    }
+
+    private long time(BooleanSupplier path) {
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            if (!path.getAsBoolean()) {
+                throw new AssertionError("Token rejected");
+            }
+        }
+        return System.nanoTime() - started;
+    }
+
+    private boolean parseOnce() {
+        ParsedJwtToken parsed = jwtService.parseToken(token);
+        return parsed.getSubject() != null && jwtService.isTokenValid(parsed, user);
+    }
+
+    // The filter path before tokens were parsed once: extractUserName, then isTokenValid re-reading subject and expiry
+    private boolean parsePerClaim() {
+        String username = legacyClaim(Claims::getSubject);
+        return username != null
+                && legacyClaim(Claims::getSubject).equals(user.getUsername())
+                && !legacyClaim(Claims::getExpiration).before(new Date());
+    }
+
+    private <T> T legacyClaim(Function<Claims, T> resolver) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return resolver.apply(claims);
+    }
+}
@@ -0,0 +1,180 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.entities.ImageVariant;
+import com.java.moveminds.entities.ProgramImageEntity;
+import com.java.moveminds.entities.ProgramResourceEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.ImageRendition;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.repositories.ProgramResourceEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.FileStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LegacyUploadMigratorTest {
+
+    private static final String FILE_BASE_URL = "http://localhost:8081/files/";
+
+    @TempDir
+    Path uploadRoot;
+
+    private Path imageRoot;
+    private Path resourceRoot;
+    private ContentAddressedStore contentStore;
+    private ProgramImageEntity image;
+    private UserEntity user;
+    private ProgramResourceEntity resource;
+    private LegacyUploadMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        imageRoot = uploadRoot.resolve("images");
+        resourceRoot = uploadRoot.resolve("files").resolve(UploadReferences.RESOURCES_DIRECTORY);
+        contentStore = new ContentAddressedStore(new HotFileCache(64, 256, 60, new SimpleMeterRegistry()));
+
+        image = new ProgramImageEntity();
+        image.setImageUrl("/uploads/photo.png");
+        image.setSrcset("/uploads/photo_thumbnail.jpg 320w, /uploads/photo_card.jpg 640w");
+        image.getVariants().put(ImageRendition.THUMBNAIL, new ImageVariant("/uploads/photo_thumbnail.jpg", 320));
+        image.getVariants().put(ImageRendition.CARD, new ImageVariant("/uploads/photo_card.jpg", 640));
+        user = new UserEntity();
+        user.setAvatarUrl("/uploads/avatar.jpg");
+        resource = new ProgramResourceEntity();
+        resource.setFileUrl(FILE_BASE_URL + UploadReferences.RESOURCES_DIRECTORY + "/guide.pdf");
+
+        // The repositories answer from the entities' current URLs, like the database would
+        ProgramImageEntityRepository programImageRepository = mock(ProgramImageEntityRepository.class);
+        when(programImageRepository.findReferencedImageUrls(anyCollection()))
+                .thenAnswer(invocation -> referenced(invocation.getArgument(0), image, ProgramImageEntity::getImageUrl));
+        when(programImageRepository.findAllByImageUrlIn(anyCollection()))
+                .thenAnswer(invocation -> matching(invocation.getArgument(0), image, ProgramImageEntity::getImageUrl));
+        UserEntityRepository userRepository = mock(UserEntityRepository.class);
+        when(userRepository.findReferencedAvatarUrls(anyCollection()))
+                .thenAnswer(invocation -> referenced(invocation.getArgument(0), user, UserEntity::getAvatarUrl));
+        when(userRepository.findAllByAvatarUrlIn(anyCollection()))
+                .thenAnswer(invocation -> matching(invocation.getArgument(0), user, UserEntity::getAvatarUrl));
+        ProgramResourceEntityRepository resourceRepository = mock(ProgramResourceEntityRepository.class);
+        when(resourceRepository.findReferencedFileUrls(anyCollection()))
+                .thenAnswer(invocation -> referenced(invocation.getArgument(0), resource, ProgramResourceEntity::getFileUrl));
+        when(resourceRepository.findAllByFileUrlIn(anyCollection()))
+                .thenAnswer(invocation -> matching(invocation.getArgument(0), resource, ProgramResourceEntity::getFileUrl));
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.getFileUrl(anyString(), eq(UploadReferences.RESOURCES_DIRECTORY)))
+                .thenAnswer(invocation -> FILE_BASE_URL + UploadReferences.RESOURCES_DIRECTORY + "/" + invocation.getArgument(0));
+
+        migrator = new LegacyUploadMigrator(contentStore, fileStorageService, programImageRepository,
+                resourceRepository, userRepository, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(migrator, "uploadPath", imageRoot.toString());
+        ReflectionTestUtils.setField(migrator, "uploadDir", uploadRoot.resolve("files").toString());
+        ReflectionTestUtils.setField(migrator, "batchSize", 2);
+        ReflectionTestUtils.setField(migrator, "pauseMs", 0L);
+    }
+
+    @Test
+    void referencedLegacyFilesMoveIntoTheStoreAndKeepTheirOldNames() throws IOException {
+        Path photo = write(imageRoot.resolve("photo.png"), "photo");
+        Path thumbnail = write(imageRoot.resolve("photo_thumbnail.jpg"), "photo thumbnail");
+        write(imageRoot.resolve("photo_card.jpg"), "photo card");
+        Path avatar = write(imageRoot.resolve("avatar.jpg"), "avatar");
+        Path guide = write(resourceRoot.resolve("guide.pdf"), "guide");
+
+        migrate();
+
+        String photoName = sha256("photo") + ".png";
+        String photoUrl = "/uploads/" + contentStore.relativePath(photoName);
+        String renditionPrefix = photoUrl.substring(0, photoUrl.length() - ".png".length()) + "_";
+        assertThat(image.getImageUrl()).isEqualTo(photoUrl);
+        assertThat(image.getSrcset()).isEqualTo(renditionPrefix + "thumbnail.jpg 320w, " + renditionPrefix + "card.jpg 640w");
+        assertThat(image.getVariants().get(ImageRendition.CARD).getUrl()).isEqualTo(renditionPrefix + "card.jpg");
+        assertThat(contentStore.resolve(imageRoot, photoName)).hasContent("photo");
+        assertThat(contentStore.resolve(imageRoot, ImageRendition.THUMBNAIL.fileName(photoName))).hasContent("photo thumbnail");
+        assertThat(contentStore.resolve(imageRoot, ImageRendition.CARD.fileName(photoName))).hasContent("photo card");
+
+        String avatarName = sha256("avatar") + ".jpg";
+        assertThat(user.getAvatarUrl()).isEqualTo("/uploads/" + contentStore.relativePath(avatarName));
+        assertThat(contentStore.resolve(imageRoot, avatarName)).hasContent("avatar");
+
+        String guideName = sha256("guide") + ".pdf";
+        assertThat(resource.getFileUrl()).isEqualTo(FILE_BASE_URL + UploadReferences.RESOURCES_DIRECTORY + "/" + guideName);
+        assertThat(contentStore.resolve(resourceRoot, guideName)).hasContent("guide");
+
+        // Old URLs keep resolving until the orphan collector reclaims them
+        assertThat(photo).exists();
+        assertThat(thumbnail).exists();
+        assertThat(avatar).exists();
+        assertThat(guide).exists();
+    }
+
+    @Test
+    void unreferencedLegacyFilesAreLeftToTheCollector() throws IOException {
+        Path unused = write(imageRoot.resolve("unused.jpg"), "unused");
+
+        migrate();
+
+        assertThat(unused).exists();
+        assertThat(contentStore.resolve(imageRoot, sha256("unused") + ".jpg")).doesNotExist();
+    }
+
+    @Test
+    void secondRunFindsNothingLeftToMigrate() throws IOException {
+        write(imageRoot.resolve("photo.png"), "photo");
+        write(resourceRoot.resolve("guide.pdf"), "guide");
+        migrate();
+        String imageUrl = image.getImageUrl();
+        String fileUrl = resource.getFileUrl();
+
+        migrate();
+
+        assertThat(image.getImageUrl()).isEqualTo(imageUrl);
+        assertThat(resource.getFileUrl()).isEqualTo(fileUrl);
+        assertThat(imageRoot.resolve("photo.png")).exists();
+    }
+
+    private void migrate() {
+        ReflectionTestUtils.invokeMethod(migrator, "migrate");
+    }
+
+    private static <T> List<String> referenced(Collection<String> urls, T entity, Function<T, String> url) {
+        return urls.contains(url.apply(entity)) ? List.of(url.apply(entity)) : List.of();
+    }
+
+    private static <T> List<T> matching(Collection<String> urls, T entity, Function<T, String> url) {
+        return urls.contains(url.apply(entity)) ? List.of(entity) : List.of();
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
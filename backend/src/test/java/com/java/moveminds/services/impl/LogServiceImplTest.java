@@ -0,0 +1,124 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.config.AuditProperties;
+import com.java.moveminds.enums.AuditMode;
+import com.java.moveminds.repositories.LogEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LogServiceImplTest {
+
+    private AuditLogWriter auditLogWriter;
+    private AuditProperties auditProperties;
+    private LogServiceImpl logService;
+
+    @BeforeEach
+    void setUp() {
+        auditLogWriter = mock(AuditLogWriter.class);
+        auditProperties = new AuditProperties();
+        logService = new LogServiceImpl(auditLogWriter, auditProperties, mock(LogEntityRepository.class),
+                mock(UserEntityRepository.class), mock(TransactionTemplate.class));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void unmatchedActionsAreSampledUnderSampledDefault() {
+        auditProperties.setDefaultMode(AuditMode.SAMPLED);
+
+        for (int i = 0; i < 200; i++) {
+            logService.log(null, "Unconfigured action");
+        }
+
+        // Default sample rate is 1 in 100
+        verify(auditLogWriter, times(2)).enqueue(null, "Unconfigured action");
+    }
+
+    @Test
+    void distinctUnmatchedActionsShareOneSampleCounter() {
+        auditProperties.setDefaultMode(AuditMode.SAMPLED);
+
+        for (int i = 0; i < 1_000; i++) {
+            logService.log(null, "Unconfigured action " + i);
+        }
+
+        verify(auditLogWriter, times(10)).enqueue(eq(null), startsWith("Unconfigured action "));
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(logService, "sampleCounters")).isEmpty();
+    }
+
+    @Test
+    void configuredSampledEventsKeepTheirOwnCounter() {
+        auditProperties.setDefaultMode(AuditMode.SAMPLED);
+        logService.log(null, "Unconfigured action");
+
+        logService.log(null, "View all locations");
+
+        verify(auditLogWriter).enqueue(null, "View all locations");
+    }
+
+    @Test
+    void unmatchedActionsAreCoalescedUnderCoalescedDefault() {
+        auditProperties.setDefaultMode(AuditMode.COALESCED);
+        Principal alice = () -> "alice";
+
+        logService.log(alice, "Unconfigured action");
+        logService.log(alice, "Unconfigured action");
+
+        verify(auditLogWriter, times(1)).enqueue("alice", "Unconfigured action");
+    }
+
+    @Test
+    void nullActionDoesNotFail() {
+        auditProperties.setDefaultMode(AuditMode.SAMPLED);
+
+        logService.log(null, null);
+
+        verify(auditLogWriter).enqueue(null, null);
+    }
+
+    @Test
+    void coalescedEventsWithoutPrincipalAreKeyedByAuthenticatedUser() {
+        authenticate("alice");
+        logService.log(null, "View comments");
+        logService.log(null, "View comments");
+        authenticate("bob");
+        logService.log(null, "View comments");
+
+        // One entry per user inside the window, not one for everybody
+        verify(auditLogWriter, times(2)).enqueue(eq(null), eq("View comments"));
+    }
+
+    @Test
+    void offEventsAreNeverQueued() {
+        logService.log(() -> "alice", "User acquisition");
+
+        verify(auditLogWriter, never()).enqueue(any(), any());
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
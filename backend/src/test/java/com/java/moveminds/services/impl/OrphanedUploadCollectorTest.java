@@ -0,0 +1,168 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.config.UploadCleanupProperties;
+import com.java.moveminds.dto.response.admin.UploadCleanupReport;
+import com.java.moveminds.enums.ImageRendition;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.repositories.ProgramResourceEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.ImageUploadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrphanedUploadCollectorTest {
+
+    private static final String REFERENCED_IMAGE = "a".repeat(64) + ".jpg";
+    private static final String ORPHANED_IMAGE = "b".repeat(64) + ".jpg";
+    private static final String RECENT_IMAGE = "c".repeat(64) + ".jpg";
+    private static final String ORPHANED_SOURCE = "d".repeat(64) + ".png";
+    private static final String REFERENCED_RESOURCE = "e".repeat(64) + ".pdf";
+    private static final String ORPHANED_RESOURCE = "f".repeat(64) + ".pdf";
+
+    @TempDir
+    Path uploadRoot;
+
+    private Path imageRoot;
+    private Path resourceRoot;
+    private ContentAddressedStore contentStore;
+    private ProgramResourceEntityRepository resourceRepository;
+    private ImageUploadService imageUploadService;
+    private OrphanedUploadCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        imageRoot = uploadRoot.resolve("images");
+        resourceRoot = uploadRoot.resolve("files").resolve(UploadReferences.RESOURCES_DIRECTORY);
+        contentStore = new ContentAddressedStore(new HotFileCache(64, 256, 60, new SimpleMeterRegistry()));
+
+        ProgramImageEntityRepository programImageRepository = mock(ProgramImageEntityRepository.class);
+        resourceRepository = mock(ProgramResourceEntityRepository.class);
+        UserEntityRepository userRepository = mock(UserEntityRepository.class);
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        imageUploadService = mock(ImageUploadService.class);
+        when(programImageRepository.findReferencedImageUrls(anyCollection())).thenReturn(List.of(imageUrl(REFERENCED_IMAGE)));
+        when(userRepository.findReferencedAvatarUrls(anyCollection())).thenReturn(List.of());
+        when(resourceRepository.findReferencedFileUrls(anyCollection())).thenReturn(List.of(resourceUrl(REFERENCED_RESOURCE)));
+        when(fileStorageService.getFileUrl(anyString(), eq(UploadReferences.RESOURCES_DIRECTORY)))
+                .thenAnswer(invocation -> resourceUrl(invocation.getArgument(0)));
+
+        UploadCleanupProperties properties = new UploadCleanupProperties();
+        properties.setMaxDeletesPerSecond(1_000);
+        collector = new OrphanedUploadCollector(properties, programImageRepository, resourceRepository, userRepository,
+                imageUploadService, fileStorageService, contentStore);
+        ReflectionTestUtils.setField(collector, "uploadPath", imageRoot.toString());
+        ReflectionTestUtils.setField(collector, "uploadDir", uploadRoot.resolve("files").toString());
+    }
+
+    @Test
+    void sweepDeletesOnlyOldUnreferencedFiles() throws IOException {
+        Path referencedImage = oldFile(imageRoot, REFERENCED_IMAGE);
+        Path rendition = oldFile(imageRoot, ImageRendition.CARD.fileName(REFERENCED_IMAGE));
+        Path orphanedImage = oldFile(imageRoot, ORPHANED_IMAGE);
+        Path recentImage = file(imageRoot, RECENT_IMAGE);
+        Path orphanedRendition = oldFile(imageRoot, ImageRendition.THUMBNAIL.fileName(ORPHANED_SOURCE));
+        Path upload = oldTempFile(imageRoot);
+        Path referencedResource = oldFile(resourceRoot, REFERENCED_RESOURCE);
+        Path orphanedResource = oldFile(resourceRoot, ORPHANED_RESOURCE);
+        Path resourceUpload = oldTempFile(resourceRoot);
+        when(imageUploadService.deleteImageFile(eq(imageUrl(ORPHANED_IMAGE)), anyLong())).thenReturn(true);
+
+        UploadCleanupReport report = collector.collect(false);
+
+        assertThat(referencedImage).exists();
+        assertThat(rendition).exists();
+        assertThat(recentImage).exists();
+        assertThat(upload).exists();
+        assertThat(referencedResource).exists();
+        assertThat(resourceUpload).exists();
+        assertThat(orphanedRendition).doesNotExist();
+        assertThat(orphanedResource).doesNotExist();
+        verify(imageUploadService).deleteImageFile(eq(imageUrl(ORPHANED_IMAGE)), anyLong());
+        verify(imageUploadService, never()).deleteImageFile(eq(imageUrl(REFERENCED_IMAGE)), anyLong());
+        verify(imageUploadService, never()).deleteImageFile(eq(imageUrl(RECENT_IMAGE)), anyLong());
+
+        assertThat(report.getScannedFiles()).isEqualTo(7);
+        assertThat(report.getRecentFiles()).isEqualTo(1);
+        assertThat(report.getOrphanedFiles()).isEqualTo(3);
+        assertThat(report.getDeletedFiles()).isEqualTo(3);
+        assertThat(report.getOrphans()).containsExactlyInAnyOrder(imageUrl(ORPHANED_IMAGE),
+                imageUrl(ImageRendition.THUMBNAIL.fileName(ORPHANED_SOURCE)), resourceUrl(ORPHANED_RESOURCE));
+    }
+
+    @Test
+    void dryRunReportsOrphansWithoutDeletingThem() throws IOException {
+        Path orphanedRendition = oldFile(imageRoot, ImageRendition.THUMBNAIL.fileName(ORPHANED_SOURCE));
+        Path orphanedResource = oldFile(resourceRoot, ORPHANED_RESOURCE);
+
+        UploadCleanupReport report = collector.collect(true);
+
+        assertThat(orphanedRendition).exists();
+        assertThat(orphanedResource).exists();
+        assertThat(report.getOrphanedFiles()).isEqualTo(2);
+        assertThat(report.getDeletedFiles()).isZero();
+    }
+
+    @Test
+    void fileReusedDuringTheSweepIsKept() throws IOException {
+        Path orphanedResource = oldFile(resourceRoot, ORPHANED_RESOURCE);
+        when(resourceRepository.findReferencedFileUrls(anyCollection())).thenAnswer(invocation -> {
+            // Identical content stored again after the walk saw the old modification time
+            Files.setLastModifiedTime(orphanedResource, FileTime.from(Instant.now()));
+            return List.of();
+        });
+
+        UploadCleanupReport report = collector.collect(false);
+
+        assertThat(orphanedResource).exists();
+        assertThat(report.getDeletedFiles()).isZero();
+    }
+
+    private Path file(Path root, String name) throws IOException {
+        Path file = contentStore.resolve(root, name);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, name.getBytes());
+    }
+
+    private Path oldFile(Path root, String name) throws IOException {
+        return age(file(root, name));
+    }
+
+    private Path oldTempFile(Path root) throws IOException {
+        return age(contentStore.newTempFile(root));
+    }
+
+    private static Path age(Path file) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        return file;
+    }
+
+    private String imageUrl(String name) {
+        return "/uploads/" + contentStore.relativePath(name);
+    }
+
+    private static String resourceUrl(String name) {
+        return "http://localhost:8081/files/" + UploadReferences.RESOURCES_DIRECTORY + "/" + name;
+    }
+}
@@ -0,0 +1,187 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.response.FitnessProgramHomeResponse;
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.events.AggregateVersions;
+import com.java.moveminds.events.EntityChangedEvent;
+import com.java.moveminds.repositories.FitnessProgramEntityRepository;
+import com.java.moveminds.repositories.ProgramAttributeEntityRepository;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProgramCatalogReadModelTest {
+
+    private FitnessProgramEntityRepository programRepository;
+    private AggregateVersions aggregateVersions;
+    private ProgramCatalogReadModel catalog;
+
+    @BeforeEach
+    void setUp() {
+        programRepository = mock(FitnessProgramEntityRepository.class);
+        ProgramImageEntityRepository imageRepository = mock(ProgramImageEntityRepository.class);
+        ProgramAttributeEntityRepository attributeRepository = mock(ProgramAttributeEntityRepository.class);
+        when(imageRepository.findAllImageUrls()).thenReturn(List.of());
+        when(imageRepository.findImageUrlsByProgramIds(anyCollection())).thenReturn(List.of());
+        when(attributeRepository.findAllAttributeValues()).thenReturn(List.of());
+        when(attributeRepository.findAttributeValuesByProgramIds(anyCollection())).thenReturn(List.of());
+
+        aggregateVersions = new AggregateVersions();
+        catalog = new ProgramCatalogReadModel(programRepository, imageRepository, attributeRepository,
+                new ProgramFacetIndex(new BigDecimal[]{BigDecimal.ZERO}), mock(PlatformTransactionManager.class),
+                aggregateVersions, 5000, 300000);
+    }
+
+    @Test
+    void failedRefreshKeepsSnapshotAndNextEventHealsIt() {
+        when(programRepository.findAllForCatalog()).thenReturn(List.of(program(1, "Old name")));
+        catalog.rebuild();
+
+        when(programRepository.findAllForCatalogByIdIn(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        catalog.onEntityChanged(changed(1));
+
+        assertThat(catalog.isReady()).isTrue();
+        assertThat(names(List.of(1))).containsExactly("Old name");
+
+        doReturn(List.of(program(1, "New name"), program(2, "Second")))
+                .when(programRepository).findAllForCatalogByIdIn(anyCollection());
+        catalog.onEntityChanged(changed(2));
+
+        assertThat(names(List.of(1, 2))).containsExactly("New name", "Second");
+    }
+
+    @Test
+    void repairRefreshesDirtyPrograms() {
+        when(programRepository.findAllForCatalog()).thenReturn(List.of(program(1, "Old name")));
+        catalog.rebuild();
+        when(programRepository.findAllForCatalogByIdIn(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(List.of(program(1, "New name")));
+        publish(changed(1));
+        String staleETag = aggregateVersions.programETag(1);
+
+        catalog.repair();
+
+        assertThat(names(List.of(1))).containsExactly("New name");
+        // Clients that cached the stale entry under the version bumped with the change must not get a 304
+        assertThat(aggregateVersions.programETag(1)).isNotEqualTo(staleETag);
+    }
+
+    @Test
+    void repairBuildsCatalogAfterFailedStartup() {
+        when(programRepository.findAllForCatalog())
+                .thenThrow(new DataAccessResourceFailureException("database starting"))
+                .thenReturn(List.of(program(1, "Name")));
+        catalog.onApplicationReady();
+        assertThat(catalog.isReady()).isFalse();
+
+        catalog.repair();
+
+        assertThat(catalog.isReady()).isTrue();
+        assertThat(names(List.of(1))).containsExactly("Name");
+    }
+
+    @Test
+    void eventDeliveredDuringRebuildIsApplied() {
+        AtomicReference<String> announcedETag = new AtomicReference<>();
+        when(programRepository.findAllForCatalog()).thenAnswer(invocation -> {
+            // Committed after the full load read its rows, delivered before the load finished
+            publish(changed(2));
+            announcedETag.set(aggregateVersions.programETag(2));
+            return List.of(program(1, "First"));
+        });
+        when(programRepository.findAllForCatalogByIdIn(anyCollection())).thenReturn(List.of(program(2, "Second")));
+
+        catalog.rebuild();
+
+        assertThat(names(List.of(1, 2))).containsExactly("First", "Second");
+        assertThat(aggregateVersions.programETag(2)).isNotEqualTo(announcedETag.get());
+    }
+
+    @Test
+    void activeAndCategoryPagesFollowRefreshedPrograms() {
+        when(programRepository.findAllForCatalog()).thenReturn(List.of(
+                program(1, "Yoga", 1, true), program(2, "Boxing", 2, true), program(3, "Pilates", 1, true),
+                program(4, "Rowing", 2, false)));
+        catalog.rebuild();
+        Pageable byName = PageRequest.of(0, 10, Sort.by("name"));
+        assertThat(pageNames(catalog.findActivePage(byName))).containsExactly("Boxing", "Pilates", "Yoga");
+        assertThat(pageNames(catalog.findCategoryPage(1, Pageable.unpaged()))).containsExactly("Yoga", "Pilates");
+
+        // Program 1 moves to category 2 under a new name, 3 is deleted and 4 is activated
+        when(programRepository.findAllForCatalogByIdIn(anyCollection())).thenReturn(List.of(
+                program(1, "Aerobics", 2, true), program(4, "Rowing", 2, true)));
+        catalog.onEntityChanged(new EntityChangedEvent(Map.of(FitnessProgramEntity.class, Set.of(1, 3, 4))));
+
+        assertThat(pageNames(catalog.findActivePage(byName))).containsExactly("Aerobics", "Boxing", "Rowing");
+        assertThat(pageNames(catalog.findActivePage(Pageable.unpaged()))).containsExactly("Aerobics", "Boxing", "Rowing");
+        assertThat(pageNames(catalog.findCategoryPage(1, Pageable.unpaged()))).isEmpty();
+        assertThat(pageNames(catalog.findCategoryPage(2, PageRequest.of(0, 2)))).containsExactly("Aerobics", "Boxing");
+        assertThat(catalog.findCategoryPage(2, PageRequest.of(0, 2)).getTotalElements()).isEqualTo(3);
+        assertThat(pageNames(catalog.findCategoryPage(2, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "name")))))
+                .containsExactly("Rowing", "Boxing", "Aerobics");
+    }
+
+    /**
+     * Delivers an event like the application does: the read models first, AggregateVersions last.
+     */
+    private void publish(EntityChangedEvent event) {
+        catalog.onEntityChanged(event);
+        aggregateVersions.onEntityChanged(event);
+    }
+
+    private List<String> names(List<Integer> programIds) {
+        return catalog.findAllById(programIds).stream().map(FitnessProgramHomeResponse::getName).toList();
+    }
+
+    private static List<String> pageNames(Page<FitnessProgramHomeResponse> page) {
+        return page.getContent().stream().map(FitnessProgramHomeResponse::getName).toList();
+    }
+
+    private static EntityChangedEvent changed(Integer programId) {
+        return new EntityChangedEvent(Map.of(FitnessProgramEntity.class, Set.of(programId)));
+    }
+
+    private static FitnessProgramEntity program(Integer id, String name) {
+        UserEntity instructor = new UserEntity();
+        instructor.setId(10);
+        instructor.setUsername("instructor");
+        FitnessProgramEntity program = new FitnessProgramEntity();
+        program.setId(id);
+        program.setName(name);
+        program.setPrice(BigDecimal.TEN);
+        program.setIsActive(true);
+        program.setUser(instructor);
+        return program;
+    }
+
+    private static FitnessProgramEntity program(Integer id, String name, Integer categoryId, boolean active) {
+        CategoryEntity category = new CategoryEntity();
+        category.setId(categoryId);
+        FitnessProgramEntity program = program(id, name);
+        program.setCategory(category);
+        program.setIsActive(active);
+        return program;
+    }
+}
@@ -0,0 +1,260 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.request.CurriculumBatchRequest;
+import com.java.moveminds.dto.response.CurriculumBatchResponse;
+import com.java.moveminds.entities.CategoryEntity;
+import com.java.moveminds.entities.CityEntity;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.LocationEntity;
+import com.java.moveminds.entities.ProgramLessonEntity;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.entities.ProgramResourceEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.DifficultyLevel;
+import com.java.moveminds.enums.Roles;
+import com.java.moveminds.services.FileStorageService;
+import com.java.moveminds.services.ProgramContentManagementService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Curriculum batch edits against a real database. The tests run outside a test transaction so that
+ * each batch commits or rolls back on its own, the way it does behind the controller.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // "user" and "timestamp" are keywords in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@Import(ProgramContentManagementServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProgramContentManagementServiceImplTest {
+
+    @Autowired
+    private ProgramContentManagementService contentService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+    @MockBean
+    private UploadReferences uploadReferences;
+    @MockBean
+    private ProgramCurriculumCache curriculumCache;
+
+    private final Principal instructor = () -> "instructor";
+    private TransactionTemplate transaction;
+    private Integer programId;
+    private Integer moduleId;
+    private Integer lessonId;
+    private Integer resourceId;
+    private Integer otherModuleId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        inTransaction(() -> {
+            CityEntity city = entityManager.persist(new CityEntity("Banja Luka"));
+            UserEntity owner = new UserEntity();
+            owner.setUsername("instructor");
+            owner.setPassword("secret");
+            owner.setEmail("instructor@example.com");
+            owner.setFirstName("Ana");
+            owner.setLastName("Petrović");
+            owner.setRole(Roles.INSTRUCTOR);
+            owner.setCity(city);
+            entityManager.persist(owner);
+            LocationEntity location = new LocationEntity();
+            location.setName("Gym");
+            entityManager.persist(location);
+            CategoryEntity category = new CategoryEntity();
+            category.setName("Strength");
+            entityManager.persist(category);
+
+            FitnessProgramEntity program = program("Full body", owner, location, category);
+            ProgramModuleEntity module = module(program, "Week 1");
+            ProgramLessonEntity lesson = lesson(module, "Squats");
+            ProgramResourceEntity resource = resource(lesson, "Squat guide");
+            ProgramModuleEntity otherModule = module(program("Mobility", owner, location, category), "Week 1");
+            programId = program.getId();
+            moduleId = module.getId();
+            lessonId = lesson.getId();
+            resourceId = resource.getId();
+            otherModuleId = otherModule.getId();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(() -> {
+            for (String entity : List.of("ProgramResourceEntity", "ProgramLessonEntity", "ProgramModuleEntity",
+                    "FitnessProgramEntity", "UserEntity", "CategoryEntity", "LocationEntity", "CityEntity")) {
+                entityManager.getEntityManager().createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void returnedVersionsAreTheFlushedOnes() {
+        CurriculumBatchRequest request = new CurriculumBatchRequest();
+        request.getModules().add(moduleEdit(moduleId, 0, "Week one"));
+        request.getLessons().add(lessonEdit(lessonId, 0, "Goblet squats"));
+        CurriculumBatchRequest.ResourceEdit resourceEdit = new CurriculumBatchRequest.ResourceEdit();
+        resourceEdit.setId(resourceId);
+        resourceEdit.setVersion(0);
+        resourceEdit.setTitle("Goblet squat guide");
+        request.getResources().add(resourceEdit);
+
+        CurriculumBatchResponse response = contentService.updateCurriculum(programId, request, instructor);
+
+        assertThat(response.getModuleVersions()).isEqualTo(Map.of(moduleId, 1));
+        assertThat(response.getLessonVersions()).isEqualTo(Map.of(lessonId, 1));
+        assertThat(response.getResourceVersions()).isEqualTo(Map.of(resourceId, 1));
+        assertThat(stored(ProgramModuleEntity.class, moduleId).getVersion()).isEqualTo(1);
+        assertThat(stored(ProgramLessonEntity.class, lessonId).getTitle()).isEqualTo("Goblet squats");
+        assertThat(stored(ProgramResourceEntity.class, resourceId).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void staleVersionOnAnyEditRollsBackTheWholeBatch() {
+        CurriculumBatchRequest staleLesson = new CurriculumBatchRequest();
+        staleLesson.getModules().add(moduleEdit(moduleId, 0, "Week one"));
+        staleLesson.getLessons().add(lessonEdit(lessonId, 3, "Goblet squats"));
+        CurriculumBatchRequest staleModule = new CurriculumBatchRequest();
+        staleModule.getModules().add(moduleEdit(moduleId, 3, "Week one"));
+        staleModule.getLessons().add(lessonEdit(lessonId, 0, "Goblet squats"));
+
+        for (CurriculumBatchRequest request : List.of(staleLesson, staleModule)) {
+            assertThatThrownBy(() -> contentService.updateCurriculum(programId, request, instructor))
+                    .isInstanceOf(OptimisticLockingFailureException.class)
+                    .hasMessageContaining("was changed since version 3");
+        }
+
+        ProgramModuleEntity module = stored(ProgramModuleEntity.class, moduleId);
+        assertThat(module.getTitle()).isEqualTo("Week 1");
+        assertThat(module.getVersion()).isZero();
+        ProgramLessonEntity lesson = stored(ProgramLessonEntity.class, lessonId);
+        assertThat(lesson.getTitle()).isEqualTo("Squats");
+        assertThat(lesson.getVersion()).isZero();
+    }
+
+    @Test
+    void itemEditedTwiceIsRejected() {
+        CurriculumBatchRequest request = new CurriculumBatchRequest();
+        request.getLessons().add(lessonEdit(lessonId, 0, "Goblet squats"));
+        request.getLessons().add(lessonEdit(lessonId, 0, "Front squats"));
+
+        assertThatThrownBy(() -> contentService.updateCurriculum(programId, request, instructor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Lesson with ID " + lessonId + " is edited more than once");
+        assertThat(stored(ProgramLessonEntity.class, lessonId).getTitle()).isEqualTo("Squats");
+    }
+
+    @Test
+    void itemOfAnotherProgramIsNotFound() {
+        CurriculumBatchRequest edit = new CurriculumBatchRequest();
+        edit.getModules().add(moduleEdit(moduleId, 0, "Week one"));
+        edit.getModules().add(moduleEdit(otherModuleId, 0, "Hijacked"));
+        CurriculumBatchRequest move = new CurriculumBatchRequest();
+        CurriculumBatchRequest.LessonEdit lessonMove = lessonEdit(lessonId, 0, null);
+        lessonMove.setModuleId(otherModuleId);
+        move.getLessons().add(lessonMove);
+
+        for (CurriculumBatchRequest request : List.of(edit, move)) {
+            assertThatThrownBy(() -> contentService.updateCurriculum(programId, request, instructor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Module not found with ID: " + otherModuleId);
+        }
+        assertThat(stored(ProgramModuleEntity.class, moduleId).getTitle()).isEqualTo("Week 1");
+        assertThat(stored(ProgramModuleEntity.class, otherModuleId).getTitle()).isEqualTo("Week 1");
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transaction.execute(status -> work.get());
+    }
+
+    private <T> T stored(Class<T> type, Integer id) {
+        return inTransaction(() -> entityManager.find(type, id));
+    }
+
+    private FitnessProgramEntity program(String name, UserEntity owner, LocationEntity location, CategoryEntity category) {
+        FitnessProgramEntity program = new FitnessProgramEntity();
+        program.setName(name);
+        program.setDescription("Three sessions a week");
+        program.setDifficultyLevel(DifficultyLevel.BEGINNER);
+        program.setDuration(30);
+        program.setPrice(new BigDecimal("40.00"));
+        program.setIsActive(true);
+        program.setUser(owner);
+        program.setLocation(location);
+        program.setCategory(category);
+        return entityManager.persist(program);
+    }
+
+    private ProgramModuleEntity module(FitnessProgramEntity program, String title) {
+        ProgramModuleEntity module = new ProgramModuleEntity();
+        module.setTitle(title);
+        module.setOrderIndex(0);
+        module.setFitnessProgram(program);
+        return entityManager.persist(module);
+    }
+
+    private ProgramLessonEntity lesson(ProgramModuleEntity module, String title) {
+        ProgramLessonEntity lesson = new ProgramLessonEntity();
+        lesson.setTitle(title);
+        lesson.setOrderIndex(0);
+        lesson.setProgramModule(module);
+        return entityManager.persist(lesson);
+    }
+
+    private ProgramResourceEntity resource(ProgramLessonEntity lesson, String title) {
+        ProgramResourceEntity resource = new ProgramResourceEntity();
+        resource.setTitle(title);
+        resource.setFileUrl("http://localhost:8081/files/resources/guide.pdf");
+        resource.setFileType("PDF");
+        resource.setOrderIndex(0);
+        resource.setProgramLesson(lesson);
+        return entityManager.persist(resource);
+    }
+
+    private static CurriculumBatchRequest.ModuleEdit moduleEdit(Integer id, Integer version, String title) {
+        CurriculumBatchRequest.ModuleEdit edit = new CurriculumBatchRequest.ModuleEdit();
+        edit.setId(id);
+        edit.setVersion(version);
+        edit.setTitle(title);
+        return edit;
+    }
+
+    private static CurriculumBatchRequest.LessonEdit lessonEdit(Integer id, Integer version, String title) {
+        CurriculumBatchRequest.LessonEdit edit = new CurriculumBatchRequest.LessonEdit();
+        edit.setId(id);
+        edit.setVersion(version);
+        edit.setTitle(title);
+        return edit;
+    }
+}
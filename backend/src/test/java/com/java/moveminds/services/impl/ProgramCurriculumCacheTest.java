@@ -0,0 +1,87 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.ProgramLessonEntity;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.entities.ProgramResourceEntity;
+import com.java.moveminds.events.EntityChangeListener;
+import com.java.moveminds.events.EntityChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ProgramCurriculumCacheTest {
+
+    private ProgramCurriculumCache curriculumCache;
+    private EntityChangeListener changeListener;
+    private final Map<Integer, Integer> loads = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        curriculumCache = new ProgramCurriculumCache(100, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        // Outside a transaction the listener publishes each change right away
+        changeListener = new EntityChangeListener(event -> curriculumCache.onEntityChanged((EntityChangedEvent) event));
+    }
+
+    @Test
+    void snapshotIsBuiltOnceAndShared() {
+        ProgramCurriculumCache.CurriculumSnapshot first = get(1);
+
+        assertThat(get(1)).isSameAs(first);
+        assertThat(loads).containsEntry(1, 1);
+    }
+
+    @Test
+    void moduleLessonAndResourceChangesEvictTheirProgramOnly() {
+        ProgramModuleEntity module = new ProgramModuleEntity();
+        module.setFitnessProgram(program(1));
+        ProgramLessonEntity lesson = new ProgramLessonEntity();
+        lesson.setProgramModule(module);
+        ProgramResourceEntity resource = new ProgramResourceEntity();
+        resource.setProgramLesson(lesson);
+
+        int expectedLoads = 1;
+        get(1);
+        get(2);
+        for (Object changed : List.of(module, lesson, resource)) {
+            changeListener.onChange(changed);
+
+            get(1);
+            get(2);
+            assertThat(loads).as("loads after changing a %s", changed.getClass().getSimpleName())
+                    .containsEntry(1, ++expectedLoads)
+                    .containsEntry(2, 1);
+        }
+    }
+
+    @Test
+    void programChangesDoNotEvictTheCurriculum() {
+        get(1);
+
+        changeListener.onChange(program(1));
+        get(1);
+
+        assertThat(loads).containsEntry(1, 1);
+    }
+
+    private ProgramCurriculumCache.CurriculumSnapshot get(Integer programId) {
+        return curriculumCache.get(programId, () -> {
+            loads.merge(programId, 1, Integer::sum);
+            return new ProgramCurriculumCache.CurriculumSnapshot(List.of(), 0, 0);
+        });
+    }
+
+    private static FitnessProgramEntity program(Integer id) {
+        FitnessProgramEntity program = new FitnessProgramEntity();
+        program.setId(id);
+        return program;
+    }
+}
@@ -0,0 +1,97 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.response.FitnessProgramHomeResponse;
+import com.java.moveminds.enums.DifficultyLevel;
+import com.java.moveminds.services.impl.ProgramCatalogReadModel.CatalogEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProgramFacetIndexTest {
+
+    private ProgramFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProgramFacetIndex(new BigDecimal[]{new BigDecimal("50"), BigDecimal.ZERO});
+        index.rebuild(List.of(
+                entry(1, true, 1, DifficultyLevel.BEGINNER, "20", Set.of(10)),
+                entry(2, true, 1, DifficultyLevel.ADVANCED, "80", Set.of(10, 11)),
+                entry(3, true, 2, DifficultyLevel.BEGINNER, "30", Set.of(11)),
+                entry(4, false, 2, DifficultyLevel.BEGINNER, "30", Set.of(10))));
+    }
+
+    @Test
+    void emptyFilterMatchesActivePrograms() {
+        ProgramFacetIndex.Result result = index.search(List.of());
+
+        assertThat(ids(result)).containsExactly(1, 2, 3);
+        assertThat(result.facets().get(ProgramFacetIndex.CATEGORY)).isEqualTo(Map.of("1", 2, "2", 1));
+        assertThat(result.facets().get(ProgramFacetIndex.PRICE)).isEqualTo(Map.of("0-50", 2, "50+", 1));
+    }
+
+    @Test
+    void clausesAreOredWithinAndAndedAcross() {
+        ProgramFacetIndex.Result result = index.search(List.of(
+                List.of("attributeValue:10", "attributeValue:11"),
+                List.of("difficulty:BEGINNER")));
+
+        assertThat(ids(result)).containsExactly(1, 3);
+    }
+
+    @Test
+    void facetCountsLeaveOutTheClausesOnTheirOwnType() {
+        ProgramFacetIndex.Result result = index.search(List.of(List.of("category:1")));
+
+        assertThat(ids(result)).containsExactly(1, 2);
+        // Other categories are still counted against the rest of the filter
+        assertThat(result.facets().get(ProgramFacetIndex.CATEGORY)).isEqualTo(Map.of("1", 2, "2", 1));
+        // Other types are counted against the whole filter
+        assertThat(result.facets().get(ProgramFacetIndex.DIFFICULTY)).isEqualTo(Map.of("BEGINNER", 1, "ADVANCED", 1));
+        assertThat(result.facets().get(ProgramFacetIndex.ATTRIBUTE_VALUE)).isEqualTo(Map.of("10", 2, "11", 1));
+    }
+
+    @Test
+    void updateMovesProgramsBetweenFacets() {
+        CatalogEntry before = entry(3, true, 2, DifficultyLevel.BEGINNER, "30", Set.of(11));
+        CatalogEntry after = entry(3, true, 1, DifficultyLevel.BEGINNER, "30", Set.of(11));
+        CatalogEntry deactivated = entry(1, false, 1, DifficultyLevel.BEGINNER, "20", Set.of(10));
+        index.update(Map.of(3, before, 1, entry(1, true, 1, DifficultyLevel.BEGINNER, "20", Set.of(10))),
+                Map.of(3, after, 1, deactivated));
+
+        ProgramFacetIndex.Result result = index.search(List.of(List.of("category:1")));
+
+        assertThat(ids(result)).containsExactly(2, 3);
+        assertThat(index.search(List.of(List.of("category:2"))).programIds().isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedKeys() {
+        assertThatThrownBy(() -> index.search(List.of(List.of("colour:red"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search(List.of(List.of("category:"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Integer> ids(ProgramFacetIndex.Result result) {
+        BitSet programIds = result.programIds();
+        return programIds.stream().boxed().toList();
+    }
+
+    private static CatalogEntry entry(int id, boolean active, Integer categoryId, DifficultyLevel difficulty,
+                                      String price, Set<Integer> attributeValueIds) {
+        FitnessProgramHomeResponse response = new FitnessProgramHomeResponse();
+        response.setId(id);
+        response.setDifficultyLevel(difficulty);
+        response.setPrice(new BigDecimal(price));
+        return new CatalogEntry(response, active, categoryId, 100, null, Set.of(), attributeValueIds, null);
+    }
+}
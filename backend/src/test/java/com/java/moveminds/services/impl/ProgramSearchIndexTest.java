@@ -0,0 +1,158 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.events.AggregateVersions;
+import com.java.moveminds.events.EntityChangedEvent;
+import com.java.moveminds.repositories.FitnessProgramEntityRepository;
+import com.java.moveminds.repositories.ProgramLessonEntityRepository;
+import com.java.moveminds.repositories.projections.ProgramLessonTitleView;
+import com.java.moveminds.repositories.projections.ProgramSummaryView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProgramSearchIndexTest {
+
+    private FitnessProgramEntityRepository programRepository;
+    private ProgramLessonEntityRepository lessonRepository;
+    private ProgramSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        programRepository = mock(FitnessProgramEntityRepository.class);
+        lessonRepository = mock(ProgramLessonEntityRepository.class);
+        when(lessonRepository.findAllTitles()).thenReturn(List.of());
+        when(lessonRepository.findTitlesByProgramIds(anyCollection())).thenReturn(List.of());
+
+        index = new ProgramSearchIndex(programRepository, lessonRepository, mock(PlatformTransactionManager.class),
+                new AggregateVersions(), 5000, 300000);
+    }
+
+    @Test
+    void tokenizeLowerCasesStripsDiacriticsAndSplitsOnPunctuation() {
+        assertThat(ProgramSearchIndex.tokenize("Žena's  Pilates-CORE, 2x")).containsExactly("zena", "s", "pilates", "core", "2x");
+        assertThat(ProgramSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(ProgramSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void rankingPrefersHeavierFieldsShorterDocumentsAndMoreMatchedTerms() {
+        build(summary(1, "Morning stretch", "Gentle yoga flow to start the day with calm breathing and mobility work", true),
+                summary(2, "Yoga basics", "Poses for beginners", true),
+                summary(3, "Strength circuit", "Full body strength", true),
+                summary(4, "Power yoga", "Strength through yoga", true));
+
+        // A name match (weight 3) beats a description match in a longer program
+        assertThat(index.search("yoga", 10).programIds()).containsExactly(4, 2, 1);
+        // Matching both query terms beats matching either one
+        assertThat(index.search("yoga strength", 10).programIds().get(0)).isEqualTo(4);
+        assertThat(index.search("yoga strength", 2)).isEqualTo(new ProgramSearchIndex.Hits(List.of(4, 3), 4));
+    }
+
+    @Test
+    void lessonTitlesAreSearchable() {
+        List<ProgramLessonTitleView> lessons = List.of(lesson(2, "Sun salutation"));
+        when(lessonRepository.findAllTitles()).thenReturn(lessons);
+        build(summary(1, "Yoga basics", null, true), summary(2, "Yoga flow", null, true));
+
+        assertThat(index.search("salutation", 10).programIds()).containsExactly(2);
+    }
+
+    @Test
+    void onlyTheLastTokenMatchesAsPrefix() {
+        build(summary(1, "Pilates core", null, true), summary(2, "Core conditioning", null, true));
+
+        assertThat(index.search("pila", 10).programIds()).containsExactly(1);
+        assertThat(index.search("cond", 10).programIds()).containsExactly(2);
+        // "pila" is not the last token, so only "core" matches
+        assertThat(index.search("pila core", 10).total()).isEqualTo(2);
+        assertThat(index.search("pila xyz", 10).total()).isZero();
+    }
+
+    @Test
+    void misspelledTokensMatchTermsWithinTheirEditDistance() {
+        build(summary(1, "Pilates core", null, true),
+                summary(2, "Flexibility training", null, true),
+                summary(3, "Yoga flow", null, true));
+
+        assertThat(index.search("pilatse", 10).programIds()).containsExactly(1); // transposition
+        assertThat(index.search("yoha basics", 10).programIds()).containsExactly(3); // substitution
+        assertThat(index.search("flxibilty", 10).programIds()).containsExactly(2); // two deletions in a long token
+        // Short tokens only get one edit, three-character ones none
+        assertThat(index.search("pilxtse", 10).total()).isZero();
+        assertThat(index.search("yof flow", 10).programIds()).containsExactly(3);
+        assertThat(index.search("yof", 10).total()).isZero();
+    }
+
+    @Test
+    void exactMatchesAreNotExpandedWithTypos() {
+        build(summary(1, "Core", null, true), summary(2, "Cord", null, true));
+
+        assertThat(index.search("core", 10).programIds()).containsExactly(1);
+    }
+
+    @Test
+    void inactiveProgramsAreNotReturned() {
+        build(summary(1, "Yoga basics", null, true), summary(2, "Yoga flow", null, false));
+
+        assertThat(index.search("yoga", 10)).isEqualTo(new ProgramSearchIndex.Hits(List.of(1), 1));
+    }
+
+    @Test
+    void changedProgramIsReindexedIncludingItsTypoNeighbourhood() {
+        build(summary(1, "Pilates core", null, true), summary(2, "Yoga flow", null, true));
+        List<ProgramSummaryView> changed = List.of(summary(1, "Kettlebell swing", null, true));
+        when(programRepository.findSummariesByIdIn(anyCollection())).thenReturn(changed);
+
+        index.onEntityChanged(new EntityChangedEvent(Map.of(FitnessProgramEntity.class, Set.of(1))));
+
+        assertThat(index.search("kettlebell", 10).programIds()).containsExactly(1);
+        assertThat(index.search("ketlebell", 10).programIds()).containsExactly(1);
+        assertThat(index.search("pilates", 10).total()).isZero();
+        assertThat(index.search("pilatse", 10).total()).isZero();
+        assertThat(index.search("yoga", 10).programIds()).containsExactly(2);
+    }
+
+    @Test
+    void deletedProgramIsDropped() {
+        build(summary(1, "Pilates core", null, true), summary(2, "Pilates flow", null, true));
+        when(programRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of());
+
+        index.onEntityChanged(new EntityChangedEvent(Map.of(FitnessProgramEntity.class, Set.of(1))));
+
+        assertThat(index.search("pilates", 10).programIds()).containsExactly(2);
+        assertThat(index.search("core", 10).total()).isZero();
+    }
+
+    private void build(ProgramSummaryView... summaries) {
+        when(programRepository.findAllSummaries()).thenReturn(List.of(summaries));
+        index.rebuild();
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private static ProgramSummaryView summary(Integer id, String name, String description, boolean active) {
+        ProgramSummaryView summary = mock(ProgramSummaryView.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getName()).thenReturn(name);
+        when(summary.getDescription()).thenReturn(description);
+        when(summary.getActive()).thenReturn(active);
+        when(summary.getInstructorId()).thenReturn(10);
+        return summary;
+    }
+
+    private static ProgramLessonTitleView lesson(Integer programId, String title) {
+        ProgramLessonTitleView lesson = mock(ProgramLessonTitleView.class);
+        when(lesson.getProgramId()).thenReturn(programId);
+        when(lesson.getTitle()).thenReturn(title);
+        return lesson;
+    }
+}
@@ -0,0 +1,260 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.dto.request.ProgramResourceRequest;
+import com.java.moveminds.dto.request.ResourceUploadRequest;
+import com.java.moveminds.dto.response.ProgramResourceResponse;
+import com.java.moveminds.dto.response.ResourceUploadResponse;
+import com.java.moveminds.entities.FitnessProgramEntity;
+import com.java.moveminds.entities.ProgramLessonEntity;
+import com.java.moveminds.entities.ProgramModuleEntity;
+import com.java.moveminds.entities.UserEntity;
+import com.java.moveminds.enums.Roles;
+import com.java.moveminds.repositories.ProgramLessonEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.ProgramContentManagementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResourceUploadServiceImplTest {
+
+    private static final String CONTENT = "0123456789"; // three chunks of 4, 4 and 2 bytes
+    private static final int LESSON_ID = 7;
+
+    @TempDir
+    Path uploadRoot;
+
+    private final Principal instructor = () -> "instructor";
+    private Path resourceRoot;
+    private ContentAddressedStore contentStore;
+    private ProgramContentManagementService programContentService;
+    private ResourceUploadServiceImpl uploadService;
+
+    @BeforeEach
+    void setUp() {
+        resourceRoot = uploadRoot.resolve(UploadReferences.RESOURCES_DIRECTORY);
+        contentStore = new ContentAddressedStore(new HotFileCache(64, 256, 60, new SimpleMeterRegistry()));
+        FileStorageServiceImpl fileStorageService = new FileStorageServiceImpl(contentStore);
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadRoot.toString());
+        ReflectionTestUtils.setField(fileStorageService, "baseUrl", "http://localhost:8081/files");
+
+        UserEntity user = new UserEntity();
+        user.setId(10);
+        user.setUsername("instructor");
+        user.setRole(Roles.INSTRUCTOR);
+        FitnessProgramEntity program = new FitnessProgramEntity();
+        program.setUser(user);
+        ProgramModuleEntity module = new ProgramModuleEntity();
+        module.setFitnessProgram(program);
+        ProgramLessonEntity lesson = new ProgramLessonEntity();
+        lesson.setProgramModule(module);
+
+        ProgramLessonEntityRepository lessonRepository = mock(ProgramLessonEntityRepository.class);
+        when(lessonRepository.findById(LESSON_ID)).thenReturn(Optional.of(lesson));
+        UserEntityRepository userRepository = mock(UserEntityRepository.class);
+        when(userRepository.findByUsername("instructor")).thenReturn(Optional.of(user));
+        programContentService = mock(ProgramContentManagementService.class);
+        when(programContentService.createResource(eq(LESSON_ID), any(), isNull(), eq(instructor)))
+                .thenReturn(new ProgramResourceResponse());
+
+        uploadService = new ResourceUploadServiceImpl(fileStorageService, programContentService, lessonRepository,
+                userRepository, mock(UploadReferences.class));
+        ReflectionTestUtils.setField(uploadService, "chunkSize", 4);
+        ReflectionTestUtils.setField(uploadService, "maxFileSize", 1_000L);
+        ReflectionTestUtils.setField(uploadService, "expiryHours", 24L);
+        ReflectionTestUtils.setField(uploadService, "maxSessionsPerUser", 2);
+    }
+
+    @Test
+    void chunksSentOutOfOrderAreAssembledAtTheirOffsets() throws IOException {
+        String uploadId = initiate();
+
+        upload(uploadId, 2, "89");
+        upload(uploadId, 0, "0123");
+        ResourceUploadResponse status = upload(uploadId, 1, "4567");
+
+        assertThat(status.getReceivedChunks()).containsExactly(0, 1, 2);
+        assertThat(status.getReceivedBytes()).isEqualTo(CONTENT.length());
+        assertThat(status.getComplete()).isTrue();
+        uploadService.completeUpload(uploadId, instructor);
+        assertThat(contentStore.resolve(resourceRoot, sha256(CONTENT) + ".pdf")).hasContent(CONTENT);
+    }
+
+    @Test
+    void chunkOverlappingTheNextOneIsRejectedAndStaysMissing() throws IOException {
+        String uploadId = initiate();
+        upload(uploadId, 1, "4567");
+
+        assertThatThrownBy(() -> upload(uploadId, 0, "012345"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exactly 4 bytes");
+        assertThatThrownBy(() -> upload(uploadId, 2, "8"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exactly 2 bytes");
+        assertThatThrownBy(() -> upload(uploadId, 3, "xx"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(uploadService.getUploadStatus(uploadId, instructor).getReceivedChunks()).containsExactly(1);
+        assertThatThrownBy(() -> uploadService.completeUpload(uploadId, instructor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing 2 chunks");
+
+        // The overlong chunk did not overwrite its neighbour
+        upload(uploadId, 0, "0123");
+        upload(uploadId, 2, "89");
+        uploadService.completeUpload(uploadId, instructor);
+        assertThat(contentStore.resolve(resourceRoot, sha256(CONTENT) + ".pdf")).hasContent(CONTENT);
+    }
+
+    @Test
+    void completionIsRefusedWhileAChunkIsBeingWritten() throws IOException {
+        String uploadId = initiate();
+        upload(uploadId, 0, "0123");
+        upload(uploadId, 2, "89");
+        // A chunk that is still streaming when the client asks to complete
+        Throwable[] refused = new Throwable[1];
+        InputStream slowChunk = new ByteArrayInputStream("4567".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (refused[0] == null) {
+                    refused[0] = catchThrowable(() -> uploadService.completeUpload(uploadId, instructor));
+                }
+                return super.read(b, off, len);
+            }
+        };
+
+        uploadService.uploadChunk(uploadId, 1, slowChunk, instructor);
+
+        assertThat(refused[0]).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("in flight");
+        uploadService.completeUpload(uploadId, instructor);
+        assertThat(contentStore.resolve(resourceRoot, sha256(CONTENT) + ".pdf")).hasContent(CONTENT);
+    }
+
+    @Test
+    void chunkArrivingDuringCompletionIsRefused() throws IOException {
+        String uploadId = initiate();
+        upload(uploadId, 0, "0123");
+        upload(uploadId, 1, "4567");
+        upload(uploadId, 2, "89");
+        Throwable[] refused = new Throwable[1];
+        when(programContentService.createResource(eq(LESSON_ID), any(), isNull(), eq(instructor))).thenAnswer(invocation -> {
+            refused[0] = catchThrowable(() -> upload(uploadId, 1, "abcd"));
+            return new ProgramResourceResponse();
+        });
+
+        uploadService.completeUpload(uploadId, instructor);
+
+        assertThat(refused[0]).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Upload not found");
+        assertThat(contentStore.resolve(resourceRoot, sha256(CONTENT) + ".pdf")).hasContent(CONTENT);
+    }
+
+    @Test
+    void completedUploadIsStoredUnderItsContentHash() throws IOException {
+        String uploadId = initiate();
+        upload(uploadId, 0, "0123");
+        upload(uploadId, 1, "4567");
+        upload(uploadId, 2, "89");
+
+        uploadService.completeUpload(uploadId, instructor);
+
+        String storedName = sha256(CONTENT) + ".pdf";
+        ArgumentCaptor<ProgramResourceRequest> resource = ArgumentCaptor.forClass(ProgramResourceRequest.class);
+        verify(programContentService).createResource(eq(LESSON_ID), resource.capture(), isNull(), eq(instructor));
+        assertThat(resource.getValue().getFileUrl())
+                .isEqualTo("http://localhost:8081/files/" + UploadReferences.RESOURCES_DIRECTORY + "/" + storedName);
+        assertThat(resource.getValue().getFileSizeBytes()).isEqualTo(CONTENT.length());
+        assertThat(contentStore.resolve(resourceRoot, storedName)).hasContent(CONTENT);
+        assertThat(tempFiles()).isEmpty();
+        assertThatThrownBy(() -> uploadService.getUploadStatus(uploadId, instructor))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void expiredSessionIsPurgedWithItsTempFile() throws IOException {
+        String idle = initiate();
+        String active = initiate();
+        upload(idle, 0, "0123");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> sessions = (Map<String, Object>) ReflectionTestUtils.getField(uploadService, "sessions");
+        ReflectionTestUtils.setField(sessions.get(idle), "lastActivity", 0L);
+        assertThat(tempFiles()).hasSize(2);
+
+        uploadService.purgeExpiredUploads();
+
+        assertThatThrownBy(() -> uploadService.getUploadStatus(idle, instructor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Upload not found");
+        assertThat(uploadService.getUploadStatus(active, instructor).getUploadId()).isEqualTo(active);
+        assertThat(tempFiles()).hasSize(1);
+    }
+
+    @Test
+    void openSessionsPerUserAreCapped() throws IOException {
+        String first = initiate();
+        initiate();
+
+        assertThatThrownBy(this::initiate)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("2 uploads in progress");
+        assertThat(tempFiles()).hasSize(2);
+
+        uploadService.abortUpload(first, instructor);
+        assertThat(initiate()).isNotBlank();
+    }
+
+    private String initiate() throws IOException {
+        ResourceUploadRequest request = new ResourceUploadRequest();
+        request.setTitle("Guide");
+        request.setFileName("guide.pdf");
+        request.setContentType("application/pdf");
+        request.setFileSize((long) CONTENT.length());
+        return uploadService.initiateUpload(LESSON_ID, request, instructor).getUploadId();
+    }
+
+    private ResourceUploadResponse upload(String uploadId, int chunkIndex, String content) throws IOException {
+        return uploadService.uploadChunk(uploadId, chunkIndex,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), instructor);
+    }
+
+    private List<Path> tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(resourceRoot.resolve(ContentAddressedStore.TEMP_DIRECTORY))) {
+            return files.toList();
+        }
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
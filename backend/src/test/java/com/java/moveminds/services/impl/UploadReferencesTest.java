@@ -0,0 +1,106 @@
+package com.java.moveminds.services.impl;
+
+import com.java.moveminds.config.UploadCleanupProperties;
+import com.java.moveminds.repositories.ProgramImageEntityRepository;
+import com.java.moveminds.repositories.ProgramResourceEntityRepository;
+import com.java.moveminds.repositories.UserEntityRepository;
+import com.java.moveminds.services.ImageUploadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UploadReferencesTest {
+
+    private static final String BASE_URL = "http://localhost:8081/files";
+
+    @TempDir
+    Path uploadRoot;
+
+    private ContentAddressedStore contentStore;
+    private ProgramResourceEntityRepository resourceRepository;
+    private UploadReferences uploadReferences;
+    private Path resourceRoot;
+
+    @BeforeEach
+    void setUp() {
+        contentStore = new ContentAddressedStore(new HotFileCache(64, 256, 60, new SimpleMeterRegistry()));
+        FileStorageServiceImpl fileStorageService = new FileStorageServiceImpl(contentStore);
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadRoot.toString());
+        ReflectionTestUtils.setField(fileStorageService, "baseUrl", BASE_URL);
+        resourceRoot = uploadRoot.resolve(UploadReferences.RESOURCES_DIRECTORY);
+        resourceRepository = mock(ProgramResourceEntityRepository.class);
+
+        uploadReferences = new UploadReferences(mock(ProgramImageEntityRepository.class), resourceRepository,
+                mock(UserEntityRepository.class), mock(ImageUploadService.class), fileStorageService, contentStore,
+                new UploadCleanupProperties());
+    }
+
+    @Test
+    void fileIsKeptWhileAnotherRowStillReferencesIt() throws IOException {
+        String name = store("squat guide");
+        String url = url(name);
+        age(name);
+
+        // The first of two resources sharing the file is deleted
+        when(resourceRepository.existsByFileUrl(url)).thenReturn(true);
+        uploadReferences.releaseResource(url);
+        assertThat(contentStore.resolve(resourceRoot, name)).hasContent("squat guide");
+
+        // Then the second one
+        when(resourceRepository.existsByFileUrl(url)).thenReturn(false);
+        uploadReferences.releaseResource(url);
+        assertThat(contentStore.resolve(resourceRoot, name)).doesNotExist();
+    }
+
+    @Test
+    void recentlyReusedContentIsLeftForTheCollector() throws IOException {
+        String name = store("squat guide");
+        age(name);
+        // A concurrent upload reuses the file before its row commits
+        store("squat guide");
+        when(resourceRepository.existsByFileUrl(url(name))).thenReturn(false);
+
+        uploadReferences.releaseResource(url(name));
+
+        assertThat(contentStore.resolve(resourceRoot, name)).hasContent("squat guide");
+    }
+
+    @Test
+    void externalLinksAreIgnored() throws IOException {
+        String name = store("squat guide");
+        age(name);
+
+        uploadReferences.releaseResource("https://example.com/" + UploadReferences.RESOURCES_DIRECTORY + "/" + name);
+
+        assertThat(contentStore.resolve(resourceRoot, name)).exists();
+    }
+
+    private String store(String content) throws IOException {
+        return contentStore.store(resourceRoot, ".pdf", out -> out.write(content.getBytes(StandardCharsets.UTF_8))).name();
+    }
+
+    /**
+     * Moves a stored file's modification time past the grace period.
+     */
+    private void age(String name) throws IOException {
+        Files.setLastModifiedTime(contentStore.resolve(resourceRoot, name), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+    }
+
+    private static String url(String name) {
+        return BASE_URL + "/" + UploadReferences.RESOURCES_DIRECTORY + "/" + name;
+    }
+}
@@ -0,0 +1,114 @@
+package com.java.moveminds.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.moveminds.dto.CustomUserDetails;
+import com.java.moveminds.services.UserService;
+import com.java.moveminds.services.impl.JwtServiceImpl;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGhlLWp3dC1iZW5jaG1hcmstdGVzdC0xMjM0NTY3ODkw";
+
+    private JwtServiceImpl jwtService;
+    private UserService userService;
+    private JwtAuthenticationFilter filter;
+    private CustomUserDetails user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtServiceImpl service = new JwtServiceImpl();
+        ReflectionTestUtils.setField(service, "jwtSigningKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.invokeMethod(service, "init");
+        jwtService = spy(service);
+
+        user = new CustomUserDetails("athlete", "", "athlete@example.com", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtService.generateToken(user);
+        userService = mock(UserService.class);
+        when(userService.loadUserByUsername("athlete")).thenReturn(user);
+
+        filter = new JwtAuthenticationFilter(jwtService, userService, new ObjectMapper(),
+                new JwtPrincipalCache(100, 300, TimeUnit.HOURS.toMillis(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenIsVerifiedOncePerRequestWhenTheUserIsLoaded() throws ServletException, IOException {
+        filter(token);
+
+        verify(jwtService, times(1)).extractAllClaims(token);
+        verify(jwtService, never()).extractUserName(anyString());
+        verify(userService).loadUserByUsername("athlete");
+        assertAuthenticatedAsUser();
+    }
+
+    @Test
+    void tokenIsVerifiedOncePerRequestWhenAuthenticatingFromClaims() throws ServletException, IOException {
+        ReflectionTestUtils.setField(filter, "statelessAuthentication", true);
+
+        filter(token);
+
+        verify(jwtService, times(1)).extractAllClaims(token);
+        verify(userService, never()).loadUserByUsername(anyString());
+        assertAuthenticatedAsUser();
+    }
+
+    @Test
+    void invalidTokenIsRejectedWithoutReachingTheChain() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = filter(token.substring(0, token.length() - 2) + "xx", chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private void filter(String bearer) throws ServletException, IOException {
+        filter(bearer, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse filter(String bearer, MockFilterChain chain) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/programs");
+        request.addHeader("Authorization", "Bearer " + bearer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void assertAuthenticatedAsUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("athlete");
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+}
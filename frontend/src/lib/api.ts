@@ -94,6 +94,7 @@ export interface Program {
   duration: number; // minutes
   price: number;
   images?: string[]; // array of image URLs
+  imageSrcsets?: string[]; // srcset for each entry of images
   imageUrl?: string; // first image for backward compatibility
   attributes?: Attribute[];
   videoUrl?: string;
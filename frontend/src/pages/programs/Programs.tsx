@@ -294,6 +294,8 @@ export const Programs = () => {
                 {(program.images && program.images.length > 0) || program.imageUrl ? (
                   <img
                     src={program.images?.[0] || program.imageUrl}
+                    srcSet={program.imageSrcsets?.[0]}
+                    sizes="(min-width: 1024px) 33vw, (min-width: 768px) 50vw, 100vw"
                     alt={program.name}
                     className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-200"
                   />